@@ -8,6 +8,22 @@ java {
     targetCompatibility = JavaVersion.VERSION_1_8
 }
 
+sourceSets {
+    // the variants of the internals, that are selected at runtime from the multi-release jar
+    create("java9") {
+        java.srcDir("src/main/java9")
+        compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    }
+    create("java21") {
+        java.srcDir("src/main/java21")
+        compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    }
+    create("jmh") {
+        compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+        runtimeClasspath += sourceSets.main.get().output
+    }
+}
+
 group = "com.atlas"
 version = System.getenv("VERSION") ?: "1.0-SNAPSHOT"
 
@@ -25,10 +41,18 @@ dependencies {
     testCompileOnly("org.jetbrains:annotations:24.0.1")
 
     compileOnly("com.google.guava:guava:33.0.0-jre")
-    testCompileOnly("com.google.guava:guava:33.0.0-jre")
+    testImplementation("com.google.guava:guava:33.0.0-jre")
+
+    compileOnly("org.reactivestreams:reactive-streams:1.0.4")
+    testImplementation("org.reactivestreams:reactive-streams:1.0.4")
 
     testImplementation(platform("org.junit:junit-bom:5.10.0"))
     testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+    "jmhImplementation"("com.google.guava:guava:33.0.0-jre")
 }
 
 publishing {
@@ -53,3 +77,66 @@ publishing {
 tasks.test {
     useJUnitPlatform()
 }
+
+// the versioned sources are compiled by a JDK 21 toolchain, so that the build itself may still run on Java 8
+val java21Compiler = javaToolchains.compilerFor {
+    languageVersion.set(JavaLanguageVersion.of(21))
+}
+
+tasks.named<JavaCompile>("compileJava9Java") {
+    javaCompiler.set(java21Compiler)
+    options.release.set(9)
+}
+
+tasks.named<JavaCompile>("compileJava21Java") {
+    javaCompiler.set(java21Compiler)
+    options.release.set(21)
+}
+
+// runs the tests on Java 21 against the multi-release jar, as the plain test task runs them against the base classes
+// on the JVM of the build, therefore it never loads the versioned internals
+val testJava21 = tasks.register<Test>("testJava21") {
+    group = "verification"
+    description = "Runs the tests on Java 21 against the multi-release jar."
+    useJUnitPlatform()
+    javaLauncher.set(javaToolchains.launcherFor {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    })
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = files(tasks.jar.flatMap { it.archiveFile }) +
+        (sourceSets.test.get().runtimeClasspath - sourceSets.main.get().output)
+    systemProperty("futura.multiRelease", "true")
+}
+
+tasks.check {
+    dependsOn(testJava21)
+}
+
+tasks.jar {
+    into("META-INF/versions/9") {
+        from(sourceSets["java9"].output)
+    }
+    into("META-INF/versions/21") {
+        from(sourceSets["java21"].output)
+    }
+    manifest {
+        attributes("Multi-Release" to "true")
+    }
+}
+
+// runs the benchmarks, e.g. ./gradlew jmh -Pjmh.includes=CompletionBenchmark
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks with the GC profiler to report the allocations per operation."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    args(
+        (findProperty("jmh.includes") ?: ".*").toString(),
+        "-prof", "gc",
+        "-rf", "json",
+        "-rff", layout.buildDirectory.file("reports/jmh/results.json").get().asFile.absolutePath
+    )
+    doFirst {
+        layout.buildDirectory.dir("reports/jmh").get().asFile.mkdirs()
+    }
+}
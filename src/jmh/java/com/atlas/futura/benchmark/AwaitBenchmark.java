@@ -0,0 +1,50 @@
+package com.atlas.futura.benchmark;
+
+import com.atlas.futura.concurrent.future.Future;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of handing a value over from a completing thread to a blocked waiter thread,
+ * compared against the {@link CompletableFuture}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AwaitBenchmark {
+    /**
+     * The executor, that completes the futures on a different thread.
+     */
+    private ExecutorService executor;
+
+    @Setup
+    public void setup() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public Integer futureAwait() {
+        Future<Integer> future = new Future<>();
+        executor.execute(() -> future.complete(42));
+        return future.await();
+    }
+
+    @Benchmark
+    public Integer completableJoin() {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        executor.execute(() -> future.complete(42));
+        return future.join();
+    }
+}
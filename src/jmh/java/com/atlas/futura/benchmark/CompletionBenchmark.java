@@ -0,0 +1,85 @@
+package com.atlas.futura.benchmark;
+
+import com.atlas.futura.concurrent.future.Future;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of completing a Future, and registering callbacks on pending and completed Futures,
+ * compared against the {@link CompletableFuture}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompletionBenchmark {
+    /**
+     * The value, that is used to complete the futures.
+     */
+    private final Integer value = 42;
+
+    @Benchmark
+    public boolean futureComplete() {
+        return new Future<Integer>().complete(value);
+    }
+
+    @Benchmark
+    public boolean completableComplete() {
+        return new CompletableFuture<Integer>().complete(value);
+    }
+
+    @Benchmark
+    public boolean futureThenPending(Blackhole blackhole) {
+        Future<Integer> future = new Future<>();
+        future.then(blackhole::consume);
+        return future.complete(value);
+    }
+
+    @Benchmark
+    public boolean completableThenPending(Blackhole blackhole) {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        future.thenAccept(blackhole::consume);
+        return future.complete(value);
+    }
+
+    @Benchmark
+    public Future<Integer> futureThenCompleted(Blackhole blackhole) {
+        return Future.completed(value).then(blackhole::consume);
+    }
+
+    @Benchmark
+    public CompletableFuture<Void> completableThenCompleted(Blackhole blackhole) {
+        return CompletableFuture.completedFuture(value).thenAccept(blackhole::consume);
+    }
+
+    @Benchmark
+    public Integer futureTransformPending() {
+        Future<Integer> future = new Future<>();
+        Future<Integer> transformed = future.transform(x -> x + 1);
+        future.complete(value);
+        return transformed.getNow(null);
+    }
+
+    @Benchmark
+    public Integer completableTransformPending() {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        CompletableFuture<Integer> transformed = future.thenApply(x -> x + 1);
+        future.complete(value);
+        return transformed.getNow(null);
+    }
+
+    @Benchmark
+    public Integer futureTransformCompleted() {
+        return Future.completed(value).transform(x -> x + 1).getNow(null);
+    }
+
+    @Benchmark
+    public Integer completableTransformCompleted() {
+        return CompletableFuture.completedFuture(value).thenApply(x -> x + 1).getNow(null);
+    }
+}
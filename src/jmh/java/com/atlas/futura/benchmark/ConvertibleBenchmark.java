@@ -0,0 +1,55 @@
+package com.atlas.futura.benchmark;
+
+import com.atlas.futura.data.convertible.ConversionException;
+import com.atlas.futura.data.convertible.Convertible;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of converting a value with a {@link Convertible},
+ * compared against a transformation of a completed {@link CompletableFuture}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvertibleBenchmark {
+    /**
+     * The raw input, that is converted.
+     */
+    private final String input = "12345";
+
+    @Benchmark
+    public Integer convertibleGet() throws ConversionException {
+        return new IntegerConvertible(input).get();
+    }
+
+    @Benchmark
+    public Integer completableThenApply() {
+        return CompletableFuture.completedFuture(input).thenApply(Integer::parseInt).join();
+    }
+
+    /**
+     * Represents a convertible, that parses an integer from a string.
+     */
+    private static final class IntegerConvertible extends Convertible<String, Integer> {
+        /**
+         * Create a new integer convertible.
+         *
+         * @param data the string to parse
+         */
+        private IntegerConvertible(@NotNull String data) {
+            super(data);
+        }
+
+        @Override
+        protected Integer convert() {
+            return Integer.parseInt(data);
+        }
+    }
+}
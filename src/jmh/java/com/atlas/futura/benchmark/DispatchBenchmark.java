@@ -0,0 +1,56 @@
+package com.atlas.futura.benchmark;
+
+import com.atlas.futura.concurrent.future.ContextLookup;
+import com.atlas.futura.concurrent.future.Future;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of dispatching an asynchronous completion through the executor resolution of the Future,
+ * compared against a {@link CompletableFuture} with an explicit executor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+    /**
+     * The strategy of the executor resolution of the Future.
+     */
+    @Param({"CALLER", "GLOBAL"})
+    private ContextLookup lookup;
+
+    /**
+     * The executor of the completable futures, and the global executor of the Future.
+     */
+    private ExecutorService executor;
+
+    @Setup
+    public void setup() {
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        Future.setGlobalExecutor(executor);
+        Future.setContextExecutorMapper(key -> executor);
+        Future.setContextLookup(lookup);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public Integer futureCompleteAsync() {
+        return Future.completeAsync(() -> 42).await();
+    }
+
+    @Benchmark
+    public Integer completableSupplyAsync() {
+        return CompletableFuture.supplyAsync(() -> 42, executor).join();
+    }
+}
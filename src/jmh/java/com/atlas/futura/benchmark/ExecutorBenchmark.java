@@ -0,0 +1,68 @@
+package com.atlas.futura.benchmark;
+
+import com.atlas.futura.concurrent.future.Future;
+import com.atlas.futura.concurrent.threading.Threading;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the cost of many tiny asynchronous tasks, that are forked from the threads of the executor,
+ * on a fixed thread pool compared against a work-stealing pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutorBenchmark {
+    /**
+     * The type of the executor.
+     */
+    @Param({"POOL", "WORK_STEALING"})
+    private String type;
+
+    /**
+     * The number of the tasks, that are forked by each task of the benchmark.
+     */
+    @Param({"1000"})
+    private int tasks;
+
+    /**
+     * The executor, that runs the tasks.
+     */
+    private ExecutorService executor;
+
+    @Setup
+    public void setup() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        executor = type.equals("POOL")
+            ? Executors.newFixedThreadPool(threads)
+            : Threading.createWorkStealing(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public Void forkFromWorkers() {
+        Future<Void> done = new Future<>();
+        AtomicInteger remaining = new AtomicInteger(tasks);
+        executor.execute(() -> {
+            // fork the tasks from a thread of the executor
+            for (int i = 0; i < tasks; i++) {
+                Future.completeAsync(() -> 1, executor).then(value -> {
+                    if (remaining.decrementAndGet() == 0)
+                        done.complete(null);
+                });
+            }
+        });
+        return done.await();
+    }
+}
@@ -0,0 +1,49 @@
+package com.atlas.futura.benchmark;
+
+import com.atlas.futura.concurrent.future.Future;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of waiting for many pending futures with {@link Future#all(Future[])},
+ * compared against {@link CompletableFuture#allOf(CompletableFuture[])}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FanInBenchmark {
+    /**
+     * The number of the futures to wait for.
+     */
+    @Param({"10", "500"})
+    private int size;
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public boolean futureAll() {
+        Future<?>[] futures = new Future<?>[size];
+        for (int i = 0; i < size; i++)
+            futures[i] = new Future<Integer>();
+        Future<Void> all = Future.all(futures);
+        for (Future<?> future : futures)
+            ((Future<Integer>) future).complete(1);
+        return all.isCompleted();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public boolean completableAllOf() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[size];
+        for (int i = 0; i < size; i++)
+            futures[i] = new CompletableFuture<Integer>();
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures);
+        for (CompletableFuture<?> future : futures)
+            ((CompletableFuture<Integer>) future).complete(1);
+        return all.isDone();
+    }
+}
@@ -0,0 +1,53 @@
+package com.atlas.futura.benchmark;
+
+import com.atlas.futura.concurrent.future.Future;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.*;
+
+/**
+ * Measures the cost of attaching a timeout to a Future, that completes before the timeout elapses,
+ * compared against a {@link CompletableFuture} with a scheduled timeout task.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeoutBenchmark {
+    /**
+     * The scheduler, that runs the timeout tasks of the completable futures.
+     */
+    private ScheduledThreadPoolExecutor scheduler;
+
+    @Setup
+    public void setup() {
+        scheduler = new ScheduledThreadPoolExecutor(1);
+        scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Benchmark
+    public boolean futureTimeout() {
+        Future<Integer> future = new Future<>();
+        Future<Integer> timed = future.timeout(10_000);
+        future.complete(1);
+        return timed.isCompleted();
+    }
+
+    @Benchmark
+    public boolean completableTimeout() {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        ScheduledFuture<?> task = scheduler.schedule(
+            () -> future.completeExceptionally(new TimeoutException()), 10_000, TimeUnit.MILLISECONDS
+        );
+        future.whenComplete((value, error) -> task.cancel(false));
+        future.complete(1);
+        return future.isDone();
+    }
+}
@@ -0,0 +1,849 @@
+package com.atlas.futura.concurrent.cache;
+
+import com.atlas.futura.concurrent.future.Future;
+import com.atlas.futura.concurrent.future.FutureContext;
+import com.atlas.futura.function.ThrowableFunction;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.annotations.CheckReturnValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Represents a cache, that stores the {@link Future}s of asynchronously loaded values.
+ * <p>
+ * Concurrent requests of the same missing key are coalesced: the first request inserts a placeholder Future and
+ * starts loading the value, every other request waits for the same placeholder. Each request receives its own
+ * dependent view of the placeholder, so a request may cancel its Future without failing the other requests, and
+ * the load itself is only cancelled, once every request has cancelled its Future. Failed Futures are removed from
+ * the cache automatically, so that errors are not cached, and the next request loads the value again.
+ * <p>
+ * The cache can be bounded by size and by the time elapsed since an entry was written. The size eviction follows
+ * the W-TinyLFU policy: new entries are admitted to a small LRU window, and they have to compete with the entries
+ * of the main segmented LRU space based on their estimated popularity, that is tracked by a {@link FrequencySketch}.
+ * This keeps frequently used entries in the cache, even if a scan of one-off keys passes through it.
+ * <p>
+ * Reads never block on the policy lock: if it is contended, the access is simply not recorded.
+ * <pre>
+ * AsyncLoadingCache&lt;UUID, User&gt; users = AsyncLoadingCache.&lt;UUID, User&gt;builder()
+ *     .maximumSize(10_000)
+ *     .expireAfterWrite(5, TimeUnit.MINUTES)
+ *     .build(id -> database.loadUser(id));
+ *
+ * users.get(id).then(user -> greet(user));
+ * </pre>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ *
+ * @author AdvancedAntiSkid
+ *
+ * @since 1.0
+ */
+public final class AsyncLoadingCache<K, V> {
+    /**
+     * The entries of the cache.
+     */
+    private final @NotNull ConcurrentHashMap<@NotNull K, @NotNull Node<K, V>> map = new ConcurrentHashMap<>();
+
+    /**
+     * The function, that starts loading the value of a key.
+     */
+    private final @NotNull Function<@NotNull K, @NotNull Future<V>> loader;
+
+    /**
+     * The maximum number of entries, or {@link Long#MAX_VALUE} if the size is not bounded.
+     */
+    private final long maximumSize;
+
+    /**
+     * The time in nanoseconds, after which the entries expire, or <code>0</code> if the entries do not expire.
+     */
+    private final long expireAfterWrite;
+
+    /**
+     * The lock, that guards the eviction policy.
+     */
+    private final @NotNull ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The popularity counter of the keys, that is only used, if the size is bounded.
+     */
+    private final @NotNull FrequencySketch sketch;
+
+    /**
+     * The entries of the admission window, ordered from the least to the most recently used.
+     */
+    private final @NotNull LinkedDeque<K, V> window = new LinkedDeque<>(false);
+
+    /**
+     * The entries of the main space, that have been accessed only once since they were admitted.
+     */
+    private final @NotNull LinkedDeque<K, V> probation = new LinkedDeque<>(false);
+
+    /**
+     * The entries of the main space, that have been accessed multiple times.
+     */
+    private final @NotNull LinkedDeque<K, V> protect = new LinkedDeque<>(false);
+
+    /**
+     * The entries ordered by their write time, from the oldest to the newest.
+     */
+    private final @NotNull LinkedDeque<K, V> writeOrder = new LinkedDeque<>(true);
+
+    /**
+     * The maximum number of entries of the admission window.
+     */
+    private final long windowMaximum;
+
+    /**
+     * The maximum number of entries of the protected segment.
+     */
+    private final long protectedMaximum;
+
+    /**
+     * The number of entries, that are tracked by the eviction policy.
+     */
+    private long size;
+
+    /**
+     * The number of entries of the admission window.
+     */
+    private long windowSize;
+
+    /**
+     * The number of entries of the protected segment.
+     */
+    private long protectedSize;
+
+    /**
+     * Create a new async loading cache.
+     *
+     * @param loader the function, that starts loading the value of a key
+     * @param maximumSize the maximum number of entries
+     * @param expireAfterWrite the time in nanoseconds, after which the entries expire
+     */
+    private AsyncLoadingCache(
+        @NotNull Function<@NotNull K, @NotNull Future<V>> loader, long maximumSize, long expireAfterWrite
+    ) {
+        this.loader = loader;
+        this.maximumSize = maximumSize;
+        this.expireAfterWrite = expireAfterWrite;
+        this.sketch = new FrequencySketch(isBounded() ? maximumSize : 0L);
+        this.windowMaximum = Math.max(1L, maximumSize / 100);
+        this.protectedMaximum = (maximumSize - windowMaximum) * 80 / 100;
+    }
+
+    /**
+     * Create a new builder of an async loading cache.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     * @return a new cache builder
+     */
+    @CheckReturnValue
+    public static <K, V> @NotNull Builder<K, V> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Retrieve the Future of the value of the specified key, and start loading it, if it is not cached yet,
+     * or it has expired.
+     * <p>
+     * If the value of the key is already being loaded, a view of the pending load is returned.
+     *
+     * @param key the key of the value
+     * @return the Future of the value
+     */
+    @CheckReturnValue
+    public @NotNull Future<V> get(@NotNull K key) {
+        long now = System.nanoTime();
+        Node<K, V> node = map.get(key);
+        if (node != null && !isExpired(node, now)) {
+            afterRead(node);
+            return SharedFuture.viewOf(node.future);
+        }
+
+        // try to insert a placeholder, that the concurrent requests of the key will wait for
+        SharedFuture<V> shared = new SharedFuture<>();
+        Node<K, V> created = new Node<>(key, shared.getFuture(), now);
+        while (true) {
+            if (node == null) {
+                node = map.putIfAbsent(key, created);
+                if (node == null)
+                    break;
+            } else if (isExpired(node, now)) {
+                // replace the expired entry atomically, so that only one request reloads it
+                if (map.replace(key, node, created)) {
+                    afterRemoval(node);
+                    break;
+                }
+                node = map.get(key);
+            } else {
+                // another request has inserted the key in the meantime
+                afterRead(node);
+                return SharedFuture.viewOf(node.future);
+            }
+        }
+        afterWrite(created);
+
+        // create the view of this request, before the load could be cancelled by the other requests
+        Future<V> future = shared.view();
+        shared.onCancel(() -> discard(created));
+
+        // start loading the value, outside any lock, and complete the placeholder with the result
+        Future<V> loaded;
+        try {
+            loaded = loader.apply(key);
+        } catch (Throwable e) {
+            discard(created);
+            shared.fail(e);
+            return future;
+        }
+
+        // do not cache the errors, the placeholder itself must not be observed, as it would keep the load running
+        loaded.except(error -> discard(created));
+        shared.link(loaded);
+        return future;
+    }
+
+    /**
+     * Retrieve the Future of the value of the specified key, if it is cached, and it hasn't expired yet.
+     *
+     * @param key the key of the value
+     * @return the Future of the value, or <code>null</code> if the key is not cached
+     */
+    @CheckReturnValue
+    public @Nullable Future<V> getIfPresent(@NotNull K key) {
+        Node<K, V> node = map.get(key);
+        if (node == null || isExpired(node, System.nanoTime()))
+            return null;
+        afterRead(node);
+        return SharedFuture.viewOf(node.future);
+    }
+
+    /**
+     * Associate the specified Future with the specified key, replacing the previous entry of the key.
+     * <p>
+     * If the Future fails, it is removed from the cache automatically.
+     *
+     * @param key the key of the value
+     * @param future the Future of the value
+     */
+    public void put(@NotNull K key, @NotNull Future<V> future) {
+        Node<K, V> node = new Node<>(key, future, System.nanoTime());
+        Node<K, V> previous = map.put(key, node);
+        if (previous != null)
+            afterRemoval(previous);
+        afterWrite(node);
+
+        // do not cache the errors
+        future.except(error -> discard(node));
+    }
+
+    /**
+     * Remove the entry of the specified key.
+     * <p>
+     * The pending Future of the key is not cancelled, as other callers may still depend on it.
+     *
+     * @param key the key to remove
+     * @return the removed Future, or <code>null</code> if the key was not cached
+     */
+    @CanIgnoreReturnValue
+    public @Nullable Future<V> invalidate(@NotNull K key) {
+        Node<K, V> node = map.remove(key);
+        if (node == null)
+            return null;
+        afterRemoval(node);
+        return SharedFuture.viewOf(node.future);
+    }
+
+    /**
+     * Remove every entry of the cache.
+     */
+    public void invalidateAll() {
+        // do not create views of the removed entries, as they would keep the pending loads running
+        for (Node<K, V> node : map.values())
+            discard(node);
+    }
+
+    /**
+     * Retrieve the number of the entries of the cache, including the expired ones, that haven't been removed yet.
+     *
+     * @return the estimated number of entries
+     */
+    @CheckReturnValue
+    public long estimatedSize() {
+        return map.size();
+    }
+
+    /**
+     * Remove the expired entries, and evict the entries above the maximum size.
+     * <p>
+     * The maintenance is performed automatically after each write, this method only needs to be called,
+     * if the expired entries should be released without writing to the cache.
+     */
+    public void cleanUp() {
+        lock.lock();
+        try {
+            maintenance(System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Indicate, whether the size of the cache is bounded.
+     *
+     * @return <code>true</code> if the cache has a maximum size, <code>false</code> otherwise
+     */
+    private boolean isBounded() {
+        return maximumSize != Long.MAX_VALUE;
+    }
+
+    /**
+     * Indicate, whether the specified entry has expired.
+     *
+     * @param node the entry to check
+     * @param now the current time in nanoseconds
+     * @return <code>true</code> if the entry has expired, <code>false</code> otherwise
+     */
+    private boolean isExpired(@NotNull Node<K, V> node, long now) {
+        return expireAfterWrite > 0 && now - node.writeTime >= expireAfterWrite;
+    }
+
+    /**
+     * Record the access of the specified entry, if the policy lock is not contended.
+     *
+     * @param node the accessed entry
+     */
+    private void afterRead(@NotNull Node<K, V> node) {
+        if (!isBounded() || !lock.tryLock())
+            return;
+        try {
+            if (node.queue == Node.DEAD)
+                return;
+            sketch.increment(node.key);
+            onAccess(node);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Add the specified entry to the eviction policy.
+     *
+     * @param node the written entry
+     */
+    private void afterWrite(@NotNull Node<K, V> node) {
+        if (isBounded() || expireAfterWrite > 0) {
+            lock.lock();
+            try {
+                // the entry might have been removed, before it could be added to the policy
+                if (map.get(node.key) == node) {
+                    link(node);
+                    maintenance(System.nanoTime());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Drop the specified entry from the cache, if it is still mapped to its key.
+     *
+     * @param node the entry to drop
+     */
+    private void discard(@NotNull Node<K, V> node) {
+        if (map.remove(node.key, node))
+            afterRemoval(node);
+    }
+
+    /**
+     * Remove the specified entry, that has been removed from the cache, from the eviction policy.
+     *
+     * @param node the removed entry
+     */
+    private void afterRemoval(@NotNull Node<K, V> node) {
+        if (!isBounded() && expireAfterWrite == 0)
+            return;
+        lock.lock();
+        try {
+            unlink(node);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Add the specified entry to the admission window, and the write order queue.
+     *
+     * @param node the entry to add
+     */
+    private void link(@NotNull Node<K, V> node) {
+        if (expireAfterWrite > 0)
+            writeOrder.addLast(node);
+        if (isBounded()) {
+            sketch.increment(node.key);
+            node.queue = Node.WINDOW;
+            window.addLast(node);
+            windowSize++;
+        } else
+            node.queue = Node.UNBOUNDED;
+        size++;
+    }
+
+    /**
+     * Remove the specified entry from the queues of the eviction policy.
+     *
+     * @param node the entry to remove
+     */
+    private void unlink(@NotNull Node<K, V> node) {
+        switch (node.queue) {
+            case Node.DEAD:
+                return;
+            case Node.WINDOW:
+                window.remove(node);
+                windowSize--;
+                break;
+            case Node.PROBATION:
+                probation.remove(node);
+                break;
+            case Node.PROTECTED:
+                protect.remove(node);
+                protectedSize--;
+                break;
+            default:
+                break;
+        }
+        if (expireAfterWrite > 0)
+            writeOrder.remove(node);
+        node.queue = Node.DEAD;
+        size--;
+    }
+
+    /**
+     * Move the specified entry according to the segmented LRU policy, after it has been accessed.
+     *
+     * @param node the accessed entry
+     */
+    private void onAccess(@NotNull Node<K, V> node) {
+        switch (node.queue) {
+            case Node.WINDOW:
+                window.moveToLast(node);
+                break;
+            case Node.PROBATION:
+                // promote the entry to the protected segment, as it has been used again since it was admitted
+                probation.remove(node);
+                node.queue = Node.PROTECTED;
+                protect.addLast(node);
+                protectedSize++;
+
+                // demote the least recently used protected entries, if the segment has overflowed
+                while (protectedSize > protectedMaximum) {
+                    Node<K, V> demoted = protect.pollFirst();
+                    if (demoted == null)
+                        break;
+                    protectedSize--;
+                    demoted.queue = Node.PROBATION;
+                    probation.addLast(demoted);
+                }
+                break;
+            case Node.PROTECTED:
+                protect.moveToLast(node);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Remove the expired entries, and evict the entries above the maximum size.
+     *
+     * @param now the current time in nanoseconds
+     */
+    private void maintenance(long now) {
+        // the write order queue is ordered by the write time, therefore the scan can stop at the first live entry
+        if (expireAfterWrite > 0) {
+            Node<K, V> node;
+            while ((node = writeOrder.peekFirst()) != null && isExpired(node, now))
+                evict(node);
+        }
+
+        if (!isBounded())
+            return;
+
+        // move the overflowing entries of the window to the probation segment, where they compete for admission
+        while (windowSize > windowMaximum) {
+            Node<K, V> node = window.pollFirst();
+            if (node == null)
+                break;
+            windowSize--;
+            node.queue = Node.PROBATION;
+            probation.addLast(node);
+        }
+
+        while (size > maximumSize) {
+            Node<K, V> victim = probation.peekFirst();
+            Node<K, V> candidate = probation.peekLast();
+            if (victim == null) {
+                // the probation segment is empty, fall back to the least recently used entries
+                victim = protect.peekFirst();
+                if (victim == null)
+                    victim = window.peekFirst();
+                if (victim == null)
+                    break;
+                evict(victim);
+            } else if (candidate == victim || candidate == null)
+                evict(victim);
+            else {
+                // admit the candidate only if it is more popular, than the victim of the main space
+                if (sketch.frequency(candidate.key) > sketch.frequency(victim.key))
+                    evict(victim);
+                else
+                    evict(candidate);
+            }
+        }
+    }
+
+    /**
+     * Remove the specified entry from the cache and the eviction policy.
+     *
+     * @param node the entry to evict
+     */
+    private void evict(@NotNull Node<K, V> node) {
+        map.remove(node.key, node);
+        unlink(node);
+    }
+
+    /**
+     * Represents a builder of an {@link AsyncLoadingCache}.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     */
+    public static final class Builder<K, V> {
+        /**
+         * The maximum number of entries, or {@link Long#MAX_VALUE} if the size is not bounded.
+         */
+        private long maximumSize = Long.MAX_VALUE;
+
+        /**
+         * The time in nanoseconds, after which the entries expire, or <code>0</code> if the entries do not expire.
+         */
+        private long expireAfterWrite;
+
+        /**
+         * The context, that is used to perform the loads, or <code>null</code> to use the caller's context.
+         */
+        private @Nullable FutureContext context;
+
+        /**
+         * Create a new cache builder.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Bound the number of the entries of the cache.
+         *
+         * @param maximumSize the maximum number of entries
+         * @return this builder
+         */
+        @CanIgnoreReturnValue
+        public @NotNull Builder<K, V> maximumSize(long maximumSize) {
+            if (maximumSize < 1)
+                throw new IllegalArgumentException("Maximum size must be positive");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Expire the entries after the specified time has elapsed since they were written.
+         *
+         * @param duration the time after which the entries expire
+         * @param unit the unit of the duration
+         * @return this builder
+         */
+        @CanIgnoreReturnValue
+        public @NotNull Builder<K, V> expireAfterWrite(long duration, @NotNull TimeUnit unit) {
+            if (duration <= 0)
+                throw new IllegalArgumentException("Expiration duration must be positive");
+            this.expireAfterWrite = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Perform the loads of the cache using the specified context.
+         *
+         * @param context the context of the loads
+         * @return this builder
+         */
+        @CanIgnoreReturnValue
+        public @NotNull Builder<K, V> context(@NotNull FutureContext context) {
+            this.context = context;
+            return this;
+        }
+
+        /**
+         * Build a cache, that loads the values by running the specified function asynchronously.
+         * <p>
+         * If the function throws an exception, the Future of the key fails, and it is removed from the cache.
+         *
+         * @param loader the function, that loads the value of a key
+         * @return a new cache
+         */
+        @CheckReturnValue
+        public @NotNull AsyncLoadingCache<K, V> build(@NotNull ThrowableFunction<@NotNull K, V, Throwable> loader) {
+            FutureContext context = this.context;
+            if (context != null)
+                return buildAsync(key -> Future.tryCompleteAsync(() -> loader.apply(key), context));
+            return buildAsync(key -> Future.tryCompleteAsync(() -> loader.apply(key)));
+        }
+
+        /**
+         * Build a cache, that loads the values using the Futures returned by the specified function.
+         *
+         * @param loader the function, that starts loading the value of a key
+         * @return a new cache
+         */
+        @CheckReturnValue
+        public @NotNull AsyncLoadingCache<K, V> buildAsync(@NotNull Function<@NotNull K, @NotNull Future<V>> loader) {
+            return new AsyncLoadingCache<>(loader, maximumSize, expireAfterWrite);
+        }
+    }
+
+    /**
+     * Represents an entry of the cache.
+     *
+     * @param <K> the type of the key
+     * @param <V> the type of the value
+     */
+    private static final class Node<K, V> {
+        /**
+         * The queue of the entries, that are not tracked by the policy.
+         */
+        private static final int DEAD = 0;
+
+        /**
+         * The queue of the entries of an unbounded cache, that are only tracked for the expiration.
+         */
+        private static final int UNBOUNDED = 1;
+
+        /**
+         * The queue of the entries of the admission window.
+         */
+        private static final int WINDOW = 2;
+
+        /**
+         * The queue of the entries of the probation segment.
+         */
+        private static final int PROBATION = 3;
+
+        /**
+         * The queue of the entries of the protected segment.
+         */
+        private static final int PROTECTED = 4;
+
+        /**
+         * The key of the entry.
+         */
+        private final @NotNull K key;
+
+        /**
+         * The Future of the value of the entry.
+         */
+        private final @NotNull Future<V> future;
+
+        /**
+         * The time in nanoseconds, when the entry was written.
+         */
+        private final long writeTime;
+
+        /**
+         * The queue of the policy, that holds the entry.
+         */
+        private int queue = DEAD;
+
+        /**
+         * The previous and next entries of the access ordered queue.
+         */
+        private @Nullable Node<K, V> previous, next;
+
+        /**
+         * The previous and next entries of the write ordered queue.
+         */
+        private @Nullable Node<K, V> previousWrite, nextWrite;
+
+        /**
+         * Create a new cache entry.
+         *
+         * @param key the key of the entry
+         * @param future the Future of the value
+         * @param writeTime the time in nanoseconds, when the entry was written
+         */
+        private Node(@NotNull K key, @NotNull Future<V> future, long writeTime) {
+            this.key = key;
+            this.future = future;
+            this.writeTime = writeTime;
+        }
+    }
+
+    /**
+     * Represents an intrusive doubly linked queue of the cache entries.
+     * <p>
+     * The queue either uses the access order or the write order links of the entries, so that an entry
+     * can be part of an access ordered queue and the write ordered queue at the same time.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     */
+    private static final class LinkedDeque<K, V> {
+        /**
+         * Indicates, whether the queue uses the write order links of the entries.
+         */
+        private final boolean write;
+
+        /**
+         * The first and the last entries of the queue.
+         */
+        private @Nullable Node<K, V> first, last;
+
+        /**
+         * Create a new linked queue.
+         *
+         * @param write <code>true</code> if the queue should use the write order links
+         */
+        private LinkedDeque(boolean write) {
+            this.write = write;
+        }
+
+        /**
+         * Retrieve the first entry of the queue.
+         *
+         * @return the first entry, or <code>null</code> if the queue is empty
+         */
+        private @Nullable Node<K, V> peekFirst() {
+            return first;
+        }
+
+        /**
+         * Retrieve the last entry of the queue.
+         *
+         * @return the last entry, or <code>null</code> if the queue is empty
+         */
+        private @Nullable Node<K, V> peekLast() {
+            return last;
+        }
+
+        /**
+         * Remove the first entry of the queue.
+         *
+         * @return the removed entry, or <code>null</code> if the queue is empty
+         */
+        private @Nullable Node<K, V> pollFirst() {
+            Node<K, V> node = first;
+            if (node != null)
+                remove(node);
+            return node;
+        }
+
+        /**
+         * Append the specified entry to the end of the queue.
+         *
+         * @param node the entry to append
+         */
+        private void addLast(@NotNull Node<K, V> node) {
+            setPrevious(node, last);
+            setNext(node, null);
+            if (last == null)
+                first = node;
+            else
+                setNext(last, node);
+            last = node;
+        }
+
+        /**
+         * Move the specified entry of the queue to the end of the queue.
+         *
+         * @param node the entry to move
+         */
+        private void moveToLast(@NotNull Node<K, V> node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        /**
+         * Remove the specified entry from the queue.
+         *
+         * @param node the entry to remove
+         */
+        private void remove(@NotNull Node<K, V> node) {
+            Node<K, V> previous = getPrevious(node);
+            Node<K, V> next = getNext(node);
+            if (previous == null)
+                first = next;
+            else
+                setNext(previous, next);
+            if (next == null)
+                last = previous;
+            else
+                setPrevious(next, previous);
+            setPrevious(node, null);
+            setNext(node, null);
+        }
+
+        /**
+         * Retrieve the previous entry of the specified entry.
+         *
+         * @param node the entry
+         * @return the previous entry
+         */
+        private @Nullable Node<K, V> getPrevious(@NotNull Node<K, V> node) {
+            return write ? node.previousWrite : node.previous;
+        }
+
+        /**
+         * Retrieve the next entry of the specified entry.
+         *
+         * @param node the entry
+         * @return the next entry
+         */
+        private @Nullable Node<K, V> getNext(@NotNull Node<K, V> node) {
+            return write ? node.nextWrite : node.next;
+        }
+
+        /**
+         * Set the previous entry of the specified entry.
+         *
+         * @param node the entry
+         * @param previous the previous entry
+         */
+        private void setPrevious(@NotNull Node<K, V> node, @Nullable Node<K, V> previous) {
+            if (write)
+                node.previousWrite = previous;
+            else
+                node.previous = previous;
+        }
+
+        /**
+         * Set the next entry of the specified entry.
+         *
+         * @param node the entry
+         * @param next the next entry
+         */
+        private void setNext(@NotNull Node<K, V> node, @Nullable Node<K, V> next) {
+            if (write)
+                node.nextWrite = next;
+            else
+                node.next = next;
+        }
+    }
+}
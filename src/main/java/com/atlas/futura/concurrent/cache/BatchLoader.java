@@ -0,0 +1,387 @@
+package com.atlas.futura.concurrent.cache;
+
+import com.atlas.futura.concurrent.future.Future;
+import com.atlas.futura.concurrent.future.FutureContext;
+import com.atlas.futura.function.ThrowableFunction;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.annotations.CheckReturnValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Represents a loader, that collects the keys requested within a short time window into batches,
+ * and loads each batch using a single call of a batch function.
+ * <p>
+ * Each caller receives an individual {@link Future} of the value of its key. The keys, that are requested multiple
+ * times within the same batch, are only loaded once, and their callers share the same Future. A batch is
+ * dispatched when the window elapses after its first key was requested, or immediately, when it reaches the
+ * maximum batch size.
+ * <p>
+ * The batch function is run on the executor of the configured context, or on the executor of the context, that
+ * has built the loader, as resolved by {@link Future#getExecutor()}. The executor is resolved once, therefore each
+ * batch runs on the same executor, regardless of whether it was dispatched by its window, or by its size. The Futures of the keys,
+ * that are missing from the returned map, fail with a {@link NoSuchElementException}, unless a default value is
+ * configured using {@link Builder#defaultValue(Object)}. If the batch function fails, each Future of the batch fails
+ * with the same error.
+ * <pre>
+ * BatchLoader&lt;UUID, User&gt; users = BatchLoader.&lt;UUID, User&gt;builder()
+ *     .window(5, TimeUnit.MILLISECONDS)
+ *     .maxBatchSize(100)
+ *     .build(ids -> repository.findAllById(ids));
+ *
+ * users.load(id).then(user -> greet(user));
+ * </pre>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ *
+ * @author AdvancedAntiSkid
+ *
+ * @since 1.0
+ */
+public final class BatchLoader<K, V> {
+    /**
+     * The function, that loads the values of a batch of keys.
+     */
+    private final @NotNull ThrowableFunction<@NotNull Collection<K>, @NotNull Map<K, V>, Throwable> function;
+
+    /**
+     * The time window in nanoseconds, that a batch waits for more keys.
+     */
+    private final long window;
+
+    /**
+     * The maximum number of keys of a batch.
+     */
+    private final int maxBatchSize;
+
+    /**
+     * The context, that runs the batch function, or <code>null</code> if the batches run on the {@link #executor}.
+     */
+    private final @Nullable FutureContext context;
+
+    /**
+     * The executor, that runs the batch function, if there is no {@link #context}.
+     */
+    private final @NotNull Executor executor;
+
+    /**
+     * Indicates, whether the keys missing from the result of the batch function are completed with the
+     * {@link #defaultValue}, instead of failing.
+     */
+    private final boolean hasDefault;
+
+    /**
+     * The value of the keys, that are missing from the result of the batch function, if {@link #hasDefault} is set.
+     */
+    private final @Nullable V defaultValue;
+
+    /**
+     * The scheduler, that dispatches the batches after their window has elapsed.
+     */
+    private final @NotNull ScheduledExecutorService timer;
+
+    /**
+     * The lock, that guards the {@link #current} batch.
+     */
+    private final @NotNull ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The batch, that is collecting the requested keys, or <code>null</code> if no keys have been requested
+     * since the last dispatch.
+     */
+    private @Nullable Batch<K, V> current;
+
+    /**
+     * Create a new batch loader.
+     *
+     * @param function the function, that loads the values of a batch of keys
+     * @param window the time window in nanoseconds
+     * @param maxBatchSize the maximum number of keys of a batch
+     * @param context the context, that runs the batch function
+     * @param executor the executor, that runs the batch function, if there is no context
+     * @param hasDefault whether the missing keys are completed with the default value
+     * @param defaultValue the value of the missing keys
+     */
+    private BatchLoader(
+        @NotNull ThrowableFunction<@NotNull Collection<K>, @NotNull Map<K, V>, Throwable> function, long window,
+        int maxBatchSize, @Nullable FutureContext context, @NotNull Executor executor, boolean hasDefault,
+        @Nullable V defaultValue
+    ) {
+        this.function = function;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.context = context;
+        this.executor = executor;
+        this.hasDefault = hasDefault;
+        this.defaultValue = defaultValue;
+        this.timer = context != null ? context.getTimer() : Future.getTimer();
+    }
+
+    /**
+     * Create a new builder of a batch loader.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     * @return a new batch loader builder
+     */
+    @CheckReturnValue
+    public static <K, V> @NotNull Builder<K, V> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Request the value of the specified key, that will be loaded with the next batch.
+     *
+     * @param key the key of the value
+     * @return the Future of the value
+     */
+    @CheckReturnValue
+    public @NotNull Future<V> load(@NotNull K key) {
+        Batch<K, V> full = null;
+        Future<V> future;
+        lock.lock();
+        try {
+            // start a new batch, and schedule its dispatch, if this is the first key since the last dispatch
+            Batch<K, V> batch = current;
+            if (batch == null) {
+                batch = current = new Batch<>();
+                Batch<K, V> scheduled = batch;
+                batch.task = timer.schedule(() -> dispatch(scheduled), window, TimeUnit.NANOSECONDS);
+            }
+
+            // share the future of the key, if it has already been requested in this batch
+            future = batch.futures.get(key);
+            if (future == null) {
+                future = new Future<>();
+                batch.futures.put(key, future);
+            }
+
+            // detach the batch, if it is full
+            if (batch.futures.size() >= maxBatchSize) {
+                current = null;
+                full = batch;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // dispatch the full batch outside the lock
+        if (full != null) {
+            ScheduledFuture<?> task = full.task;
+            if (task != null)
+                task.cancel(false);
+            run(full);
+        }
+        return future;
+    }
+
+    /**
+     * Dispatch the keys, that have been requested since the last dispatch, without waiting for the window to elapse.
+     */
+    public void flush() {
+        Batch<K, V> batch;
+        lock.lock();
+        try {
+            batch = current;
+            current = null;
+        } finally {
+            lock.unlock();
+        }
+
+        if (batch != null) {
+            ScheduledFuture<?> task = batch.task;
+            if (task != null)
+                task.cancel(false);
+            run(batch);
+        }
+    }
+
+    /**
+     * Dispatch the specified batch after its window has elapsed, unless it has already been dispatched.
+     *
+     * @param batch the batch to dispatch
+     */
+    private void dispatch(@NotNull Batch<K, V> batch) {
+        lock.lock();
+        try {
+            if (current != batch)
+                return;
+            current = null;
+        } finally {
+            lock.unlock();
+        }
+        run(batch);
+    }
+
+    /**
+     * Run the batch function for the keys of the specified batch, and complete the Futures of the keys.
+     *
+     * @param batch the batch to run
+     */
+    private void run(@NotNull Batch<K, V> batch) {
+        Map<K, Future<V>> futures = batch.futures;
+        Collection<K> keys = Collections.unmodifiableSet(futures.keySet());
+
+        Future<Map<K, V>> result = context != null
+            ? Future.tryCompleteAsync(() -> function.apply(keys), context)
+            : Future.tryCompleteAsync(() -> function.apply(keys), executor);
+
+        result.result((values, error) -> {
+            for (Map.Entry<K, Future<V>> entry : futures.entrySet()) {
+                K key = entry.getKey();
+                Future<V> future = entry.getValue();
+                if (error != null)
+                    future.fail(error);
+                else if (values != null && values.containsKey(key))
+                    future.complete(values.get(key));
+                else if (hasDefault)
+                    future.complete(defaultValue);
+                else
+                    future.fail(new NoSuchElementException("Batch function returned no value for key: " + key));
+            }
+        });
+    }
+
+    /**
+     * Represents a batch of the requested keys, and the Futures of their values.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     */
+    private static final class Batch<K, V> {
+        /**
+         * The Futures of the requested keys, in the order of the requests.
+         */
+        private final @NotNull Map<@NotNull K, @NotNull Future<V>> futures = new LinkedHashMap<>();
+
+        /**
+         * The scheduled dispatch of the batch.
+         */
+        private volatile @Nullable ScheduledFuture<?> task;
+    }
+
+    /**
+     * Represents a builder of a {@link BatchLoader}.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     */
+    public static final class Builder<K, V> {
+        /**
+         * The time window in nanoseconds, that a batch waits for more keys.
+         */
+        private long window = TimeUnit.MILLISECONDS.toNanos(10);
+
+        /**
+         * The maximum number of keys of a batch.
+         */
+        private int maxBatchSize = 100;
+
+        /**
+         * The context, that runs the batch function, or <code>null</code> to use the executor of the builder's caller.
+         */
+        private @Nullable FutureContext context;
+
+        /**
+         * Indicates, whether the missing keys are completed with the {@link #defaultValue}.
+         */
+        private boolean hasDefault;
+
+        /**
+         * The value of the keys, that are missing from the result of the batch function.
+         */
+        private @Nullable V defaultValue;
+
+        /**
+         * Create a new batch loader builder.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Set the time window, that a batch waits for more keys after its first key was requested.
+         * The default window is 10 milliseconds.
+         *
+         * @param window the time window
+         * @param unit the unit of the window
+         * @return this builder
+         */
+        @CanIgnoreReturnValue
+        public @NotNull Builder<K, V> window(long window, @NotNull TimeUnit unit) {
+            if (window < 0)
+                throw new IllegalArgumentException("Batch window must not be negative");
+            this.window = unit.toNanos(window);
+            return this;
+        }
+
+        /**
+         * Set the maximum number of keys of a batch. The default maximum is 100 keys.
+         *
+         * @param maxBatchSize the maximum number of keys
+         * @return this builder
+         */
+        @CanIgnoreReturnValue
+        public @NotNull Builder<K, V> maxBatchSize(int maxBatchSize) {
+            if (maxBatchSize < 1)
+                throw new IllegalArgumentException("Maximum batch size must be positive");
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Run the batch function, and schedule the windows using the specified context.
+         *
+         * @param context the context of the batches
+         * @return this builder
+         */
+        @CanIgnoreReturnValue
+        public @NotNull Builder<K, V> context(@NotNull FutureContext context) {
+            this.context = context;
+            return this;
+        }
+
+        /**
+         * Complete the Futures of the keys, that are missing from the result of the batch function, with the
+         * specified value, instead of failing them with a {@link NoSuchElementException}.
+         *
+         * @param defaultValue the value of the missing keys, may be <code>null</code>
+         * @return this builder
+         */
+        @CanIgnoreReturnValue
+        public @NotNull Builder<K, V> defaultValue(@Nullable V defaultValue) {
+            this.hasDefault = true;
+            this.defaultValue = defaultValue;
+            return this;
+        }
+
+        /**
+         * Build a batch loader, that loads the batches of keys using the specified function.
+         * <p>
+         * If no context is configured, the executor of the caller's context is resolved now, and it is used
+         * for every batch of the loader.
+         *
+         * @param function the function, that loads the values of a batch of keys
+         * @return a new batch loader
+         */
+        @CheckReturnValue
+        public @NotNull BatchLoader<K, V> build(
+            @NotNull ThrowableFunction<@NotNull Collection<K>, @NotNull Map<K, V>, Throwable> function
+        ) {
+            FutureContext context = this.context;
+            Executor executor = context != null ? context.getExecutor() : Future.getExecutor();
+            return new BatchLoader<>(function, window, maxBatchSize, context, executor, hasDefault, defaultValue);
+        }
+    }
+}
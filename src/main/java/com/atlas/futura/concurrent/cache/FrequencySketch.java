@@ -0,0 +1,152 @@
+package com.atlas.futura.concurrent.cache;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a probabilistic counter of the popularity of the cache keys within a time window.
+ * <p>
+ * The sketch is a count-min sketch with 4-bit counters, that are packed into an array of longs. Each key is
+ * counted by 4 counters in different slots of the table, and its frequency is estimated by the minimum of them.
+ * After a sample of increments, each counter is halved, so that the old popularity fades away, and the sketch
+ * adapts to the changing access patterns.
+ * <p>
+ * The sketch is not thread-safe, it must be accessed under the lock of the eviction policy.
+ */
+final class FrequencySketch {
+    /**
+     * The seeds of the hash functions of the counters.
+     */
+    private static final long @NotNull [] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+
+    /**
+     * The mask, that clears the highest bit of each counter after shifting the table to halve the counters.
+     */
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    /**
+     * The mask, that selects the lowest bit of each counter.
+     */
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    /**
+     * The table of the packed counters, each long holds 16 counters of 4 bits.
+     */
+    private final long @NotNull [] table;
+
+    /**
+     * The mask, that is used to select a slot of the table.
+     */
+    private final int tableMask;
+
+    /**
+     * The number of the increments, after which the counters are halved.
+     */
+    private final int sampleSize;
+
+    /**
+     * The number of the increments since the last halving.
+     */
+    private int size;
+
+    /**
+     * Create a new frequency sketch.
+     *
+     * @param maximumSize the maximum number of the entries of the cache
+     */
+    FrequencySketch(long maximumSize) {
+        int capacity = (int) Math.min(Math.max(maximumSize, 16L), 1 << 30);
+        int length = Integer.highestOneBit(capacity - 1) << 1;
+        this.table = new long[length];
+        this.tableMask = length - 1;
+        this.sampleSize = 10 * length;
+    }
+
+    /**
+     * Estimate the number of occurrences of the specified key, up to the maximum of 15.
+     *
+     * @param key the key to estimate the frequency of
+     * @return the estimated frequency of the key
+     */
+    int frequency(@NotNull Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Increment the counters of the specified key, and halve every counter, if the sample size has been reached.
+     *
+     * @param key the key to increment the frequency of
+     */
+    void increment(@NotNull Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++)
+            added |= incrementAt(indexOf(hash, i), start + i);
+
+        if (added && ++size == sampleSize)
+            reset();
+    }
+
+    /**
+     * Increment the specified counter, unless it has already reached its maximum value.
+     *
+     * @param index the slot of the table
+     * @param counter the index of the counter in the slot
+     * @return <code>true</code> if the counter was incremented, <code>false</code> otherwise
+     */
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long mask = 0xfL << offset;
+        if ((table[index] & mask) == mask)
+            return false;
+        table[index] += 1L << offset;
+        return true;
+    }
+
+    /**
+     * Halve every counter, and adjust the sample size by the truncated odd counters.
+     */
+    private void reset() {
+        int odd = 0;
+        for (int i = 0; i < table.length; i++) {
+            odd += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size >>> 1) - (odd >>> 2);
+    }
+
+    /**
+     * Retrieve the slot of the table of the specified counter of a key.
+     *
+     * @param hash the spread hash of the key
+     * @param i the index of the hash function
+     * @return the slot of the table
+     */
+    private int indexOf(int hash, int i) {
+        long result = (hash + SEEDS[i]) * SEEDS[i];
+        result += result >>> 32;
+        return ((int) result) & tableMask;
+    }
+
+    /**
+     * Apply a supplemental hash function to the hash code of a key, to defend against poor quality hash codes.
+     *
+     * @param hash the hash code of the key
+     * @return the spread hash
+     */
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+}
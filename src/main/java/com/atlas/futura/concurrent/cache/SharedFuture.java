@@ -0,0 +1,108 @@
+package com.atlas.futura.concurrent.cache;
+
+import com.atlas.futura.concurrent.future.Future;
+import com.atlas.futura.concurrent.future.FutureResolver;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Represents the result of an operation, that is shared by multiple callers.
+ * <p>
+ * Each caller receives a dependent view of the shared Future, instead of the shared Future itself, therefore
+ * a caller cancelling its view does not fail the views of the other callers. The shared Future is only cancelled,
+ * once every view has been cancelled, and the cancellation is then propagated to the operation as well.
+ * <p>
+ * The shared Future must not be handed out or observed directly, as any handler registered to it would keep
+ * the operation running.
+ *
+ * @param <T> the type of the result
+ */
+final class SharedFuture<T> {
+    /**
+     * The Future, that is completed with the result of the operation.
+     */
+    private final @NotNull Future<T> future;
+
+    /**
+     * The resolver of the shared Future, that is notified, when every view has been cancelled.
+     */
+    private final @NotNull FutureResolver<T> resolver;
+
+    /**
+     * Create a new pending shared Future.
+     */
+    SharedFuture() {
+        AtomicReference<FutureResolver<T>> resolver = new AtomicReference<>();
+        this.future = Future.resolve(resolver::set);
+        this.resolver = resolver.get();
+    }
+
+    /**
+     * Create a new view of the shared Future for a caller.
+     *
+     * @return a dependent view, or the shared Future itself, if it has already been completed
+     */
+    @NotNull Future<T> view() {
+        return viewOf(future);
+    }
+
+    /**
+     * Create a new view of the specified Future for a caller.
+     * <p>
+     * A completed Future cannot be cancelled anymore, therefore it is returned without creating a view.
+     *
+     * @param future the Future to create the view of
+     * @return a dependent view, or the Future itself, if it has already been completed
+     *
+     * @param <T> the type of the result
+     */
+    static <T> @NotNull Future<T> viewOf(@NotNull Future<T> future) {
+        return future.isCompleted() ? future : future.mock();
+    }
+
+    /**
+     * Retrieve the shared Future, that may only be stored, but not handed out to the callers.
+     *
+     * @return the shared Future
+     */
+    @NotNull Future<T> getFuture() {
+        return future;
+    }
+
+    /**
+     * Register an action to be called, when every view has been cancelled.
+     *
+     * @param action the action to call upon cancellation
+     */
+    void onCancel(@NotNull Runnable action) {
+        resolver.onCancel(action);
+    }
+
+    /**
+     * Complete the shared Future with the result of the specified operation, and cancel the operation,
+     * once every view has been cancelled.
+     * <p>
+     * The operation may be interrupted, as none of the callers are interested in its result anymore.
+     *
+     * @param operation the Future of the operation
+     */
+    void link(@NotNull Future<T> operation) {
+        resolver.onCancel(() -> operation.cancel(true));
+        operation.result((value, error) -> {
+            if (error != null)
+                resolver.fail(error);
+            else
+                resolver.complete(value);
+        });
+    }
+
+    /**
+     * Fail the shared Future, because the operation could not be started.
+     *
+     * @param error the error, that prevented the operation from starting
+     */
+    void fail(@NotNull Throwable error) {
+        resolver.fail(error);
+    }
+}
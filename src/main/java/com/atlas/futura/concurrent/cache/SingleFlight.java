@@ -0,0 +1,134 @@
+package com.atlas.futura.concurrent.cache;
+
+import com.atlas.futura.concurrent.future.Future;
+import com.atlas.futura.function.ThrowableSupplier;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.annotations.CheckReturnValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Represents a coalescer of concurrent calls, that share a single in-flight operation per key.
+ * <p>
+ * While an operation of a key is pending, every other caller of the same key joins the operation, instead of
+ * starting it again. The key is forgotten as soon as the operation completes or fails, therefore the next caller
+ * starts a new operation. Unlike {@link AsyncLoadingCache}, the results are never kept.
+ * <p>
+ * Each caller receives its own dependent view of the shared result, so a caller may cancel its Future without
+ * failing the other callers. The operation itself is cancelled, once every caller has cancelled its Future.
+ * <p>
+ * The shared result is registered with <code>putIfAbsent</code>, before the operation is started, so the operation
+ * never runs inside a lock of the map, and it may even use the same instance recursively.
+ * <pre>
+ * SingleFlight&lt;UUID, User&gt; flight = new SingleFlight&lt;&gt;();
+ *
+ * Future&lt;User&gt; user = flight.executeAsync(id, () -> database.loadUser(id));
+ * </pre>
+ *
+ * @param <K> the type of the keys
+ * @param <T> the type of the results
+ *
+ * @author AdvancedAntiSkid
+ *
+ * @since 1.0
+ */
+public final class SingleFlight<K, T> {
+    /**
+     * The shared results of the in-flight operations.
+     */
+    private final @NotNull ConcurrentHashMap<@NotNull K, @NotNull SharedFuture<T>> calls = new ConcurrentHashMap<>();
+
+    /**
+     * Retrieve the Future of the in-flight operation of the specified key, or start the operation,
+     * if there is none.
+     * <p>
+     * If the operation throws an exception, instead of returning a Future, the result fails with it.
+     *
+     * @param key the key of the operation
+     * @param operation the operation, that produces the Future of the result
+     * @return the caller's view of the result of the operation
+     */
+    @CanIgnoreReturnValue
+    public @NotNull Future<T> execute(@NotNull K key, @NotNull Supplier<@NotNull Future<T>> operation) {
+        // join the pending operation, if there is one
+        SharedFuture<T> existing = calls.get(key);
+        if (existing != null)
+            return existing.view();
+
+        // try to register a new shared result, another caller might have registered one in the meantime
+        SharedFuture<T> shared = new SharedFuture<>();
+        existing = calls.putIfAbsent(key, shared);
+        if (existing != null)
+            return existing.view();
+
+        // create the view of this caller, before the operation could be cancelled by the other callers
+        Future<T> future = shared.view();
+        shared.onCancel(() -> calls.remove(key, shared));
+
+        // start the operation, and complete the shared result with its result
+        Future<T> result;
+        try {
+            result = operation.get();
+        } catch (Throwable e) {
+            calls.remove(key, shared);
+            shared.fail(e);
+            return future;
+        }
+
+        // forget the key before the callers are notified, so that their callbacks may start a new operation
+        result.result((value, error) -> {
+            calls.remove(key, shared);
+        });
+        shared.link(result);
+        return future;
+    }
+
+    /**
+     * Retrieve the Future of the in-flight operation of the specified key, or start running the specified task
+     * on the executor of the caller's context, if there is none.
+     *
+     * @param key the key of the operation
+     * @param task the task, that produces the result
+     * @return the caller's view of the result of the operation
+     */
+    @CanIgnoreReturnValue
+    public @NotNull Future<T> executeAsync(@NotNull K key, @NotNull ThrowableSupplier<T, Throwable> task) {
+        return execute(key, () -> Future.tryCompleteAsync(task));
+    }
+
+    /**
+     * Retrieve the Future of the in-flight operation of the specified key.
+     *
+     * @param key the key of the operation
+     * @return a new view of the result of the operation, or <code>null</code> if there is no in-flight operation
+     */
+    @CheckReturnValue
+    public @Nullable Future<T> getIfPresent(@NotNull K key) {
+        SharedFuture<T> shared = calls.get(key);
+        return shared != null ? shared.view() : null;
+    }
+
+    /**
+     * Forget the in-flight operation of the specified key, so that the next caller starts a new operation.
+     * <p>
+     * The operation is not cancelled, the callers, that have already joined it, are still notified.
+     *
+     * @param key the key of the operation
+     */
+    public void forget(@NotNull K key) {
+        calls.remove(key);
+    }
+
+    /**
+     * Retrieve the number of the in-flight operations.
+     *
+     * @return the number of the pending operations
+     */
+    @CheckReturnValue
+    public int size() {
+        return calls.size();
+    }
+}
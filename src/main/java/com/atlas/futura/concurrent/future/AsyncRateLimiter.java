@@ -0,0 +1,305 @@
+package com.atlas.futura.concurrent.future;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.annotations.CheckReturnValue;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents a token-bucket rate limiter, that grants its permits using {@link Future}s, instead of blocking
+ * the caller thread.
+ * <p>
+ * The bucket is refilled continuously at the configured rate, and it stores at most the configured burst of
+ * unused permits. A request, that exceeds the stored permits, reserves the missing permits from the future,
+ * therefore the next request waits until the previous one has been paid for. The returned Future is completed
+ * by the shared timer, when the reserved permits become available, so no thread is blocked whilst waiting.
+ * The timer hands the grant off to the executor of the caller's context, or to the global executor, therefore
+ * the handlers of the granted requests do not run on the thread of the timer.
+ * <p>
+ * Cancelling a pending Future before its permits are granted stops its timer task, and returns the reserved
+ * permits to the bucket, so that the subsequent requests do not pay for them.
+ * <pre>
+ * AsyncRateLimiter limiter = AsyncRateLimiter.create(10);
+ *
+ * Future.throttled(() -> client.fetch(id), limiter)
+ *     .then(response -> handle(response));
+ * </pre>
+ *
+ * @author AdvancedAntiSkid
+ *
+ * @since 1.0
+ */
+public final class AsyncRateLimiter {
+    /**
+     * The number of the permits, that are added to the bucket per second.
+     */
+    @Getter
+    private final double rate;
+
+    /**
+     * The maximum number of the unused permits, that the bucket may store.
+     */
+    @Getter
+    private final double burst;
+
+    /**
+     * The time in nanoseconds, that it takes to refill a single permit.
+     */
+    private final double interval;
+
+    /**
+     * The scheduler, that completes the Futures of the pending requests.
+     */
+    private final @NotNull ScheduledExecutorService timer;
+
+    /**
+     * The number of the unused permits, that are stored in the bucket, guarded by this object.
+     */
+    private double stored;
+
+    /**
+     * The time in nanoseconds, when the next request may be granted without waiting, guarded by this object.
+     */
+    private long nextFree;
+
+    /**
+     * Create a new rate limiter.
+     *
+     * @param rate the number of the permits per second
+     * @param burst the maximum number of the stored permits
+     * @param timer the scheduler of the pending requests
+     */
+    private AsyncRateLimiter(double rate, double burst, @NotNull ScheduledExecutorService timer) {
+        this.rate = rate;
+        this.burst = burst;
+        this.interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        this.timer = timer;
+        this.stored = burst;
+        this.nextFree = System.nanoTime();
+    }
+
+    /**
+     * Create a new rate limiter, that grants the specified number of permits per second, and stores
+     * the unused permits of at most one second.
+     *
+     * @param rate the number of the permits per second
+     * @return a new rate limiter
+     *
+     * @throws IllegalArgumentException the rate is not positive
+     */
+    @CheckReturnValue
+    public static @NotNull AsyncRateLimiter create(double rate) {
+        return create(rate, Math.max(1.0, rate));
+    }
+
+    /**
+     * Create a new rate limiter, that grants the specified number of permits per second, and stores
+     * at most the specified number of unused permits.
+     *
+     * @param rate the number of the permits per second
+     * @param burst the maximum number of the stored permits
+     * @return a new rate limiter
+     *
+     * @throws IllegalArgumentException the rate or the burst is not positive
+     */
+    @CheckReturnValue
+    public static @NotNull AsyncRateLimiter create(double rate, double burst) {
+        return create(rate, burst, Future.getTimer());
+    }
+
+    /**
+     * Create a new rate limiter, that grants the specified number of permits per second, stores at most the
+     * specified number of unused permits, and completes the pending requests using the specified scheduler.
+     *
+     * @param rate the number of the permits per second
+     * @param burst the maximum number of the stored permits
+     * @param timer the scheduler of the pending requests
+     * @return a new rate limiter
+     *
+     * @throws IllegalArgumentException the rate or the burst is not positive
+     */
+    @CheckReturnValue
+    public static @NotNull AsyncRateLimiter create(
+        double rate, double burst, @NotNull ScheduledExecutorService timer
+    ) {
+        if (!(rate > 0.0) || Double.isInfinite(rate))
+            throw new IllegalArgumentException("Rate must be positive");
+        if (!(burst > 0.0))
+            throw new IllegalArgumentException("Burst must be positive");
+        return new AsyncRateLimiter(rate, burst, timer);
+    }
+
+    /**
+     * Acquire a single permit.
+     *
+     * @return the Future, that is completed, when the permit is granted
+     */
+    @CanIgnoreReturnValue
+    public @NotNull Future<Void> acquire() {
+        return acquire(1);
+    }
+
+    /**
+     * Acquire the specified number of permits.
+     * <p>
+     * If the permits are available immediately, an already completed Future is returned. Otherwise, the permits
+     * are reserved, and the Future is completed on the executor of the caller's context, when they become
+     * available. Cancelling the Future before that returns the reserved permits.
+     *
+     * @param permits the number of the permits to acquire
+     * @return the Future, that is completed, when the permits are granted
+     *
+     * @throws IllegalArgumentException the number of the permits is not positive
+     */
+    @CanIgnoreReturnValue
+    public @NotNull Future<Void> acquire(int permits) {
+        checkPermits(permits);
+        Reservation reservation = reserve(permits, System.nanoTime());
+        if (reservation == null)
+            return Future.completed();
+
+        // complete the future on the executor of the context, once the timer is due,
+        // and refund the permits, if the future is cancelled before that
+        Executor executor = Future.getTimerExecutor(null);
+        return Future.resolve(resolver -> {
+            ScheduledFuture<?> task = Future.schedule(timer, executor, () -> {
+                // the future might have been cancelled after the timer has handed off the grant
+                if (!resolver.complete(null))
+                    refund(reservation);
+            }, reservation.wait, TimeUnit.NANOSECONDS);
+            resolver.onCancel(() -> {
+                if (task.cancel(false))
+                    refund(reservation);
+            });
+        });
+    }
+
+    /**
+     * Acquire a single permit, if it is available immediately.
+     *
+     * @return <code>true</code> if the permit was granted, <code>false</code> otherwise
+     */
+    @CanIgnoreReturnValue
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Acquire the specified number of permits, if they are available immediately.
+     * <p>
+     * Unlike {@link #acquire(int)}, the permits are not reserved, if the request would have to wait.
+     *
+     * @param permits the number of the permits to acquire
+     * @return <code>true</code> if the permits were granted, <code>false</code> otherwise
+     *
+     * @throws IllegalArgumentException the number of the permits is not positive
+     */
+    @CanIgnoreReturnValue
+    public boolean tryAcquire(int permits) {
+        checkPermits(permits);
+        long now = System.nanoTime();
+        synchronized (this) {
+            refill(now);
+            if (nextFree - now > 0 || stored < permits)
+                return false;
+            stored -= permits;
+            return true;
+        }
+    }
+
+    /**
+     * Reserve the specified number of permits, and calculate the time to wait for them.
+     * <p>
+     * The request only waits for the debt of the previous requests. The permits, that are missing from
+     * the bucket, are paid for by postponing the next request.
+     *
+     * @param permits the number of the permits to reserve
+     * @param now the current time in nanoseconds
+     * @return the reservation of the permits, or <code>null</code> if the request does not have to wait
+     */
+    private synchronized @Nullable Reservation reserve(int permits, long now) {
+        refill(now);
+        long wait = nextFree - now;
+
+        // take the stored permits first, and pay for the rest with the refill time
+        double fromStored = Math.min(permits, stored);
+        stored -= fromStored;
+        long debt = (long) ((permits - fromStored) * interval);
+        nextFree = Math.max(nextFree, now) + debt;
+        return wait > 0 ? new Reservation(wait, fromStored, debt) : null;
+    }
+
+    /**
+     * Return the permits of the specified reservation, that has been cancelled before it was granted.
+     *
+     * @param reservation the cancelled reservation
+     */
+    private synchronized void refund(@NotNull Reservation reservation) {
+        nextFree -= reservation.debt;
+        stored = Math.min(burst, stored + reservation.fromStored);
+    }
+
+    /**
+     * Add the permits, that have been refilled since the last request, to the bucket.
+     *
+     * @param now the current time in nanoseconds
+     */
+    private void refill(long now) {
+        long elapsed = now - nextFree;
+        if (elapsed <= 0)
+            return;
+        stored = Math.min(burst, stored + elapsed / interval);
+        nextFree = now;
+    }
+
+    /**
+     * Validate the specified number of permits.
+     *
+     * @param permits the number of the permits
+     *
+     * @throws IllegalArgumentException the number of the permits is not positive
+     */
+    private static void checkPermits(int permits) {
+        if (permits < 1)
+            throw new IllegalArgumentException("Permits must be positive");
+    }
+
+    /**
+     * Represents the permits reserved by a pending request.
+     */
+    private static final class Reservation {
+        /**
+         * The time in nanoseconds, that the request waits for its permits.
+         */
+        private final long wait;
+
+        /**
+         * The number of the permits, that were taken from the bucket.
+         */
+        private final double fromStored;
+
+        /**
+         * The time in nanoseconds, that the next request was postponed by to pay for the missing permits.
+         */
+        private final long debt;
+
+        /**
+         * Create a new reservation.
+         *
+         * @param wait the time to wait in nanoseconds
+         * @param fromStored the number of the permits taken from the bucket
+         * @param debt the time in nanoseconds, that the next request was postponed by
+         */
+        private Reservation(long wait, double fromStored, long debt) {
+            this.wait = wait;
+            this.fromStored = fromStored;
+            this.debt = debt;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.atlas.futura.concurrent.future;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a utility, that resolves the class, that has called into the library from the outside.
+ * <p>
+ * The class context of the current thread is retrieved natively, therefore, unlike
+ * {@link Thread#getStackTrace()}, resolving the caller does not build stack trace elements,
+ * and does not need to load the classes by their names.
+ * <p>
+ * This is the Java 8 implementation. On Java 9 and above, the multi-release JAR replaces it with an implementation,
+ * that walks the stack lazily using <code>StackWalker</code>, and stops at the first matching frame.
+ */
+@SuppressWarnings("removal")
+final class CallerResolver extends SecurityManager {
+    /**
+     * The name prefix of the classes, that are part of the library, and should be skipped when resolving the caller.
+     */
+    private static final String LIBRARY_PACKAGE = "com.atlas.futura.";
+
+    /**
+     * The shared resolver instance, or <code>null</code> if the security policy does not allow creating one.
+     */
+    private static final @Nullable CallerResolver INSTANCE = create();
+
+    /**
+     * Resolve the first class of the current call stack, that is neither part of the library, nor part of
+     * the runtime itself (loaded by the bootstrap class loader).
+     *
+     * @return the class of the caller, or <code>null</code> if it could not be resolved
+     */
+    static @Nullable Class<?> resolve() {
+        CallerResolver resolver = INSTANCE;
+        if (resolver == null)
+            return null;
+
+        // find the first frame, that is outside the library and the runtime
+        for (Class<?> type : resolver.getClassContext()) {
+            if (type.getClassLoader() != null && !type.getName().startsWith(LIBRARY_PACKAGE))
+                return type;
+        }
+        return null;
+    }
+
+    /**
+     * Try to create the shared resolver instance.
+     *
+     * @return a new resolver, or <code>null</code> if the security policy does not allow creating one
+     */
+    private static @Nullable CallerResolver create() {
+        try {
+            return new CallerResolver();
+        } catch (SecurityException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.atlas.futura.concurrent.future;
+
+/**
+ * Represents the strategy, that determines how the executor of asynchronous {@link Future} operations is resolved,
+ * when the executor is not specified explicitly.
+ */
+public enum ContextLookup {
+    /**
+     * Resolve the class of the caller, and use the executor of its context, that is mapped by the
+     * context key and executor mapper functions of the {@link Future}.
+     */
+    CALLER,
+
+    /**
+     * Skip the context lookup entirely, and always use the global executor of the {@link Future}.
+     */
+    GLOBAL
+}
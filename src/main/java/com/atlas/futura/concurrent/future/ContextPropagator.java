@@ -0,0 +1,84 @@
+package com.atlas.futura.concurrent.future;
+
+import com.google.errorprone.annotations.CheckReturnValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a hook, that carries a thread-bound value, such as a request ID, or a logging context,
+ * across the asynchronous boundaries of the {@link Future}s.
+ * <p>
+ * The value is captured on the thread, that submits a task, or registers a continuation, and it is restored
+ * on the thread, that runs it. The propagators are registered once using
+ * {@link ContextSnapshot#register(ContextPropagator)}.
+ * <pre>
+ * ContextSnapshot.register(new ContextPropagator&lt;Map&lt;String, String&gt;&gt;() {
+ *     &#64;Override
+ *     public Map&lt;String, String&gt; capture() {
+ *         return MDC.getCopyOfContextMap();
+ *     }
+ *
+ *     &#64;Override
+ *     public Map&lt;String, String&gt; restore(Map&lt;String, String&gt; value) {
+ *         Map&lt;String, String&gt; previous = MDC.getCopyOfContextMap();
+ *         if (value != null)
+ *             MDC.setContextMap(value);
+ *         else
+ *             MDC.clear();
+ *         return previous;
+ *     }
+ * });
+ * </pre>
+ *
+ * @param <T> the type of the propagated value
+ *
+ * @author AdvancedAntiSkid
+ *
+ * @since 1.0
+ */
+public interface ContextPropagator<T> {
+    /**
+     * Capture the value of the current thread.
+     *
+     * @return the value of the current thread, or <code>null</code> if it has no value
+     */
+    @Nullable T capture();
+
+    /**
+     * Install the specified value for the current thread.
+     * <p>
+     * This is also used to reset the thread after the task, by installing the value, that was returned
+     * by the previous call.
+     *
+     * @param value the value to install, or <code>null</code> to clear the value of the thread
+     * @return the value, that the thread had before
+     */
+    @Nullable T restore(@Nullable T value);
+
+    /**
+     * Create a new propagator, that carries the value of the specified thread-local variable.
+     *
+     * @param local the thread-local variable to propagate
+     * @param <T> the type of the propagated value
+     * @return a new propagator
+     */
+    @CheckReturnValue
+    static <T> @NotNull ContextPropagator<T> of(@NotNull ThreadLocal<T> local) {
+        return new ContextPropagator<T>() {
+            @Override
+            public @Nullable T capture() {
+                return local.get();
+            }
+
+            @Override
+            public @Nullable T restore(@Nullable T value) {
+                T previous = local.get();
+                if (value != null)
+                    local.set(value);
+                else
+                    local.remove();
+                return previous;
+            }
+        };
+    }
+}
@@ -0,0 +1,174 @@
+package com.atlas.futura.concurrent.future;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.annotations.CheckReturnValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Represents the values of the registered {@link ContextPropagator}s, that were captured on a thread,
+ * and can be restored on another thread.
+ * <p>
+ * The {@link Future}s capture a snapshot, when a task is submitted to an executor, or a continuation is registered,
+ * and restore it around the task, or the continuation. While no propagator is registered, capturing returns
+ * the shared {@link #EMPTY} snapshot, and wrapping returns the task itself, therefore the propagation costs a single
+ * volatile read and a reference copy.
+ *
+ * @author AdvancedAntiSkid
+ *
+ * @since 1.0
+ */
+public final class ContextSnapshot {
+    /**
+     * The snapshot, that carries no values.
+     */
+    public static final @NotNull ContextSnapshot EMPTY = new ContextSnapshot(new ContextPropagator<?>[0], new Object[0]);
+
+    /**
+     * The registered propagators. The array is replaced on each registration, and it is never modified.
+     */
+    private static volatile @NotNull ContextPropagator<?> @NotNull [] registered = EMPTY.propagators;
+
+    /**
+     * The propagators, whose values were captured.
+     */
+    private final @NotNull ContextPropagator<?> @NotNull [] propagators;
+
+    /**
+     * The captured values, indexed by the order of the propagators.
+     */
+    private final @Nullable Object @NotNull [] values;
+
+    /**
+     * Create a new snapshot.
+     *
+     * @param propagators the propagators, whose values were captured
+     * @param values the captured values
+     */
+    private ContextSnapshot(@NotNull ContextPropagator<?> @NotNull [] propagators, @Nullable Object @NotNull [] values) {
+        this.propagators = propagators;
+        this.values = values;
+    }
+
+    /**
+     * Register the specified propagator, so that its value is carried across the asynchronous boundaries.
+     * <p>
+     * The registration only affects the snapshots, that are captured afterward.
+     *
+     * @param propagator the propagator to register
+     */
+    public static synchronized void register(@NotNull ContextPropagator<?> propagator) {
+        ContextPropagator<?>[] current = registered;
+        ContextPropagator<?>[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = propagator;
+        registered = updated;
+    }
+
+    /**
+     * Unregister the specified propagator.
+     *
+     * @param propagator the propagator to unregister
+     * @return <code>true</code> if the propagator was registered, <code>false</code> otherwise
+     */
+    @CanIgnoreReturnValue
+    public static synchronized boolean unregister(@NotNull ContextPropagator<?> propagator) {
+        ContextPropagator<?>[] current = registered;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] != propagator)
+                continue;
+
+            // copy the propagators, leaving out the unregistered one
+            ContextPropagator<?>[] updated = new ContextPropagator<?>[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, i);
+            System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+            registered = updated;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Capture the values of the registered propagators on the current thread.
+     *
+     * @return a new snapshot, or {@link #EMPTY} if no propagator is registered
+     */
+    @CheckReturnValue
+    public static @NotNull ContextSnapshot capture() {
+        ContextPropagator<?>[] propagators = registered;
+        if (propagators.length == 0)
+            return EMPTY;
+
+        Object[] values = new Object[propagators.length];
+        for (int i = 0; i < propagators.length; i++)
+            values[i] = propagators[i].capture();
+        return new ContextSnapshot(propagators, values);
+    }
+
+    /**
+     * Wrap the specified task, so that it runs with the values of this snapshot restored.
+     *
+     * @param task the task to wrap
+     * @return the wrapped task, or the task itself, if this snapshot is empty
+     */
+    @CheckReturnValue
+    public @NotNull Runnable wrap(@NotNull Runnable task) {
+        if (this == EMPTY)
+            return task;
+        return () -> {
+            Object[] previous = restore();
+            try {
+                task.run();
+            } finally {
+                reset(previous);
+            }
+        };
+    }
+
+    /**
+     * Wrap the specified action, so that it runs with the values of this snapshot restored.
+     *
+     * @param action the action to wrap
+     * @param <T> the type of the action input
+     * @return the wrapped action, or the action itself, if this snapshot is empty, or the action is <code>null</code>
+     */
+    @CheckReturnValue
+    public <T> @Nullable Consumer<T> wrap(@Nullable Consumer<T> action) {
+        if (this == EMPTY || action == null)
+            return action;
+        return value -> {
+            Object[] previous = restore();
+            try {
+                action.accept(value);
+            } finally {
+                reset(previous);
+            }
+        };
+    }
+
+    /**
+     * Install the values of this snapshot for the current thread.
+     *
+     * @return the values, that the thread had before
+     */
+    @SuppressWarnings("unchecked")
+    private @Nullable Object @NotNull [] restore() {
+        Object[] previous = new Object[propagators.length];
+        for (int i = 0; i < propagators.length; i++)
+            previous[i] = ((ContextPropagator<Object>) propagators[i]).restore(values[i]);
+        return previous;
+    }
+
+    /**
+     * Install the specified previous values for the current thread, in the reverse order of the restoration.
+     *
+     * @param previous the values, that the thread had before
+     */
+    @SuppressWarnings("unchecked")
+    private void reset(@Nullable Object @NotNull [] previous) {
+        for (int i = propagators.length - 1; i >= 0; i--)
+            ((ContextPropagator<Object>) propagators[i]).restore(previous[i]);
+    }
+}
@@ -9,16 +9,25 @@ import com.atlas.futura.util.Validator;
 import com.google.common.collect.MapMaker;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.errorprone.annotations.CheckReturnValue;
+import lombok.Getter;
 import lombok.Setter;
 import lombok.SneakyThrows;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.*;
 
 /**
@@ -48,12 +57,36 @@ import java.util.function.*;
 public class Future<T> implements Promise<T> {
     /**
      * The global executor to be used for performing asynchronous tasks, where the executor is not specified explicitly.
+     * The type of the default executor can be selected with the {@link Threading#EXECUTOR_PROPERTY} system property,
+     * or it can be replaced with any executor, such as {@link Threading#createWorkStealing(int)}.
      */
     @Setter
-    private static @NotNull Executor globalExecutor = Threading.createVirtualOrPool(
+    private static @NotNull Executor globalExecutor = Threading.createDefault(
         Runtime.getRuntime().availableProcessors()
     );
 
+    /**
+     * The shared scheduler, that is used to run delayed tasks, such as the timeouts of the Futures.
+     * <p>
+     * The scheduler only signals, that a task is due, the completions are handed off to an executor.
+     */
+    @Setter
+    @Getter
+    private static @NotNull ScheduledExecutorService timer = Threading.createScheduler(1);
+
+    /**
+     * The strategy, that determines how the executor is resolved for the asynchronous operations,
+     * where the executor is not specified explicitly.
+     */
+    @Setter
+    private static @NotNull ContextLookup contextLookup = ContextLookup.CALLER;
+
+    /**
+     * The global listener and leak detector, that are attached to the created Futures. They are held by a single
+     * object, therefore creating a Future reads only this field, regardless of which of them are installed.
+     */
+    private static volatile @NotNull Instrumentation instrumentation = Instrumentation.NONE;
+
     /**
      * The map of executors that should be used for the specified contexts.
      */
@@ -78,46 +111,112 @@ public class Future<T> implements Promise<T> {
     private static @NotNull Function<@NotNull Object, @Nullable Executor> contextExecutorMapper = key -> globalExecutor;
 
     /**
-     * The object used for thread locking for unsafe value modifications.
+     * The atomic updater used to perform lock-free modifications of the {@link #waiters} of the Future.
      */
-    private final @NotNull Object lock = new Object();
+    @SuppressWarnings("rawtypes")
+    private static final @NotNull AtomicReferenceFieldUpdater<Future, Waiter> WAITERS =
+        AtomicReferenceFieldUpdater.newUpdater(Future.class, Waiter.class, "waiters");
 
     /**
-     * The list of the future completion handlers.
+     * The placeholder completion state, that represents a successful completion with the value of <code>null</code>.
      */
-    private final @NotNull List<@NotNull Consumer<@Nullable T>> completionHandlers = new CopyOnWriteArrayList<>();
+    private static final @NotNull Object NULL = new Object();
 
     /**
-     * The list of the future failure handlers.
+     * The trampoline of the current thread, that is used to call the completion handlers iteratively.
      */
-    private final @NotNull List<@NotNull Consumer<@NotNull Throwable>> errorHandlers = new CopyOnWriteArrayList<>();
+    private static final @NotNull ThreadLocal<@NotNull Trampoline> TRAMPOLINE = ThreadLocal.withInitial(Trampoline::new);
 
     /**
-     * The value of the completion result. Initially <code>null</code>, it is set to the completion object
-     * after the completion is finished (which might still be <code>null</code>).
+     * The current state of the Future. Whilst the Future is pending, this is either <code>null</code>, or the head
+     * {@link Completion} of the stack of the registered handlers. After the completion, it is either the completion
+     * value (or {@link #NULL}), or a {@link Failure} that wraps the completion error.
+     * The state is only ever updated atomically using {@link FutureState}.
      */
-    private volatile @Nullable T value;
+    volatile @Nullable Object state;
 
     /**
-     * The error that occurred whilst executing and caused a future failure.
-     * Initially <code>null</code>, after a failure, it is guaranteed to be non-null.
+     * The head of the stack of the threads, that are blocked until the completion of this Future.
      */
-    private volatile @Nullable Throwable error;
+    private volatile @Nullable Waiter waiters;
 
     /**
-     * Indicates whether the future completion had been done (either successfully or unsuccessfully).
+     * The source of the completion of this Future, that is notified, when this Future is cancelled,
+     * or <code>null</code> if the Future has no cancellable source.
+     */
+    private volatile @Nullable Upstream upstream;
+
+    /**
+     * The context, that is used to perform the asynchronous operations of this Future,
+     * or <code>null</code> if the context should be resolved for each operation.
+     */
+    private final @Nullable FutureContext context;
+
+    /**
+     * The probe, that reports the lifecycle of this Future to its listener and leak detector,
+     * or <code>null</code> if neither was installed, when this Future was created.
+     */
+    private final @Nullable Probe probe;
+
+    /**
+     * Get the listener, that is notified about the lifecycle of the Futures.
+     *
+     * @return the global listener, or <code>null</code> if the instrumentation is disabled
+     */
+    public static @Nullable FutureListener getListener() {
+        return instrumentation.listener;
+    }
+
+    /**
+     * Set the listener, that is notified about the lifecycle of the Futures. The listener of a
+     * {@link FutureContext} overrides this listener for the Futures of the context.
+     *
+     * @param listener the global listener, or <code>null</code> to disable the instrumentation
+     */
+    public static void setListener(@Nullable FutureListener listener) {
+        synchronized (Instrumentation.class) {
+            instrumentation = new Instrumentation(listener, instrumentation.leakDetector);
+        }
+    }
+
+    /**
+     * Get the detector, that reports the Futures, which have been garbage-collected without being completed,
+     * or without their failure being observed.
+     *
+     * @return the leak detector, or <code>null</code> if the leak detection is disabled
      */
-    private volatile boolean completed;
+    public static @Nullable FutureLeakDetector getLeakDetector() {
+        return instrumentation.leakDetector;
+    }
 
     /**
-     * Indicates whether the future completion was failed.
+     * Set the detector, that reports the Futures, which have been garbage-collected without being completed,
+     * or without their failure being observed.
+     *
+     * @param leakDetector the leak detector, or <code>null</code> to disable the leak detection
      */
-    private volatile boolean failed;
+    public static void setLeakDetector(@Nullable FutureLeakDetector leakDetector) {
+        synchronized (Instrumentation.class) {
+            instrumentation = new Instrumentation(instrumentation.listener, leakDetector);
+        }
+    }
 
     /**
      * Creates a new, incomplete Future.
      */
     public Future() {
+        this.context = null;
+        this.probe = Probe.attach(this, null);
+    }
+
+    /**
+     * Creates a new, incomplete Future, that performs its asynchronous operations using the specified context.
+     *
+     * @param context the context of the asynchronous operations
+     */
+    public Future(@Nullable FutureContext context) {
+        this.context = context;
+        this.probe = Probe.attach(this, context);
     }
 
     /**
@@ -309,6 +408,9 @@ public class Future<T> implements Promise<T> {
      * <p>
      * Note that if the future completes successfully with <code>null</code>, the method will also return <code>null</code>.
      * <p>
+     * If the waiting thread is interrupted, the interrupt status is restored, and the waiting is aborted as if the
+     * completion had failed with an {@link InterruptedException}.
+     * <p>
      * @param timeout the maximum time interval to wait for the value, if this is exceeded, then a {@link FutureTimeoutException} is thrown.
      * @param hasDefault indicates whether a default value should be returned on a completion failure
      * @param defaultValue the default value which is returned on a completion failure
@@ -323,52 +425,171 @@ public class Future<T> implements Promise<T> {
      * @see #getOrDefault(long, Object)
      */
     @CheckReturnValue
-    private synchronized T blockForValue(
+    private T blockForValue(
         long timeout, boolean hasDefault, @Nullable T defaultValue
     ) throws FutureTimeoutException, FutureExecutionException {
-        // check if the future is already completed
-        if (completed) {
-            // check if the completion was successful
-            if (!failed)
-                return value;
-
-            // completion was unsuccessful
-            // return the default value if it is present
-            if (hasDefault)
-                return defaultValue;
-
-            // no default value set, throw the completion error
-            throw new FutureExecutionException(error);
-        }
-
-        // the future is not yet completed
-        // ensure the lock is not used externally
-        synchronized (lock) {
+        // check if the future is not yet completed
+        Object state = this.state;
+        if (isPending(state)) {
             try {
                 // freeze the current thread until the future completion occurs
-                // wait for the completion notification
-                lock.wait(timeout);
-            } catch (InterruptedException ignored) {
-                // ignore if the completion thread was interrupted
+                state = awaitCompletion(timeout);
+            } catch (InterruptedException e) {
+                // restore the interrupt status for the caller, and abort the waiting
+                Thread.currentThread().interrupt();
+                if (hasDefault)
+                    return defaultValue;
+                throw new FutureExecutionException(e);
             }
-        }
 
-        // check if the timeout has been exceeded, but the future hasn't been completed yet
-        if (!completed)
-            throw new FutureTimeoutException(timeout);
+            // check if the timeout has been exceeded, but the future hasn't been completed yet
+            if (isPending(state))
+                throw new FutureTimeoutException(timeout);
+        }
 
         // the future has been completed
         // check if the completion was successful
-        if (!failed)
-            return value;
+        if (!(state instanceof Failure))
+            return decode(state);
+
+        // the completion was unsuccessful, the caller observes the error
+        observe();
 
-        // the completion was unsuccessful
         // return the default value if it is present
         if (hasDefault)
             return defaultValue;
 
         // no default value set, throw the completion error
-        throw new FutureExecutionException(error);
+        throw new FutureExecutionException(((Failure) state).error);
+    }
+
+    /**
+     * Park the current thread until the Future is completed, the timeout elapses, or the thread is interrupted.
+     * <p>
+     * Any number of threads may wait concurrently, all of them are woken up by the completion. Spurious wakeups
+     * are ignored, the remaining time is recalculated from the deadline. The waiting does not hold any monitors,
+     * therefore virtual threads are never pinned to their carrier.
+     * <p>
+     * Before queuing, the thread pushes an empty handler node to the handler stack, that is released when the
+     * thread stops waiting. This way the waiting thread is visible in the state of the Future, and a cancellation
+     * by the released dependents, that has scanned the state before the thread started waiting, fails.
+     *
+     * @param timeout the maximum time to wait in milliseconds, or <code>0</code> to wait indefinitely
+     * @return the state of the Future, which is still pending if the timeout has elapsed
+     *
+     * @throws InterruptedException the waiting thread was interrupted
+     */
+    private @Nullable Object awaitCompletion(long timeout) throws InterruptedException {
+        // a handler of an outer dispatch loop of this thread might be waiting for a Future,
+        // that is completed by the handlers deferred by the loop, therefore call them before blocking
+        Trampoline trampoline = TRAMPOLINE.get();
+        if (trampoline.running)
+            trampoline.drain();
+
+        long deadline = timeout > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout) : 0L;
+        Waiter waiter = null;
+        Completion pin = null;
+        boolean queued = false;
+
+        try {
+            while (true) {
+                // abort waiting if the thread has been interrupted
+                if (Thread.interrupted()) {
+                    removeWaiter(waiter);
+                    throw new InterruptedException();
+                }
+
+                // check if the future has been completed in the meantime
+                Object state = this.state;
+                if (!isPending(state)) {
+                    if (waiter != null)
+                        waiter.thread = null;
+                    return state;
+                }
+
+                // lazily create the waiter node of the current thread, and keep the future from being cancelled
+                // by its released dependents, whilst the thread is waiting
+                if (waiter == null) {
+                    waiter = new Waiter(Thread.currentThread());
+                    pin = new Completion(null, null);
+                    push(pin);
+                }
+
+                // try to push the waiter to the top of the waiter stack, then check the state again
+                else if (!queued) {
+                    Waiter head = waiters;
+                    waiter.next = head;
+                    queued = WAITERS.compareAndSet(this, head, waiter);
+                }
+
+                // wait for a limited time, recalculating the remaining time after each wakeup
+                else if (timeout > 0) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0L) {
+                        removeWaiter(waiter);
+                        return this.state;
+                    }
+                    LockSupport.parkNanos(this, remaining);
+                }
+
+                // wait until the completion unparks the thread
+                else
+                    LockSupport.park(this);
+            }
+        } finally {
+            if (pin != null)
+                pin.released = true;
+        }
+    }
+
+    /**
+     * Unlink the specified waiter, that has timed out or has been interrupted, from the waiter stack.
+     * <p>
+     * The thread of the node is cleared first, then the stack is traversed to unlink every cleared node.
+     * If a race is detected with another unlinking thread, the traversal is restarted.
+     *
+     * @param waiter the waiter to remove
+     */
+    private void removeWaiter(@Nullable Waiter waiter) {
+        if (waiter == null)
+            return;
+        waiter.thread = null;
+
+        retry:
+        while (true) {
+            for (Waiter previous = null, node = waiters, next; node != null; node = next) {
+                next = node.next;
+                // keep the node if it still has a waiting thread
+                if (node.thread != null)
+                    previous = node;
+                // unlink the cleared node from its predecessor
+                else if (previous != null) {
+                    previous.next = next;
+                    // the predecessor has been cleared concurrently, restart the traversal
+                    if (previous.thread == null)
+                        continue retry;
+                }
+                // the cleared node is the head of the stack, try to pop it
+                else if (!WAITERS.compareAndSet(this, node, next))
+                    continue retry;
+            }
+            break;
+        }
+    }
+
+    /**
+     * Wake up every thread, that is waiting for the completion of this Future.
+     */
+    private void releaseWaiters() {
+        // detach the whole waiter stack at once
+        Waiter waiter = WAITERS.getAndSet(this, null);
+        for (; waiter != null; waiter = waiter.next) {
+            Thread thread = waiter.thread;
+            if (thread != null) {
+                waiter.thread = null;
+                LockSupport.unpark(thread);
+            }
+        }
     }
 
     /**
@@ -378,7 +599,10 @@ public class Future<T> implements Promise<T> {
      */
     @CheckReturnValue
     public T getNow(@Nullable T defaultValue) {
-        return completed ? value : defaultValue;
+        Object state = this.state;
+        if (isPending(state))
+            return defaultValue;
+        return state instanceof Failure ? null : decode(state);
     }
 
     /**
@@ -393,36 +617,87 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public boolean complete(@Nullable T value) {
-        // check if the future is already completed
-        if (completed)
+        // try to set the completion value, if the future hasn't been completed yet
+        Object result = value == null ? NULL : value;
+        Object state = transition(result);
+        if (!isPending(state))
             return false;
+        report(result);
+
+        // unlock the waiting threads and call the completion handlers
+        releaseWaiters();
+        dispatch((Completion) state);
+        return true;
+    }
 
-        // set the completion value and unlock the waiting thread
-        synchronized (lock) {
-            this.value = value;
-            completed = true;
-            lock.notify();
+    /**
+     * Call the handlers, that were registered before the completion of this Future.
+     * <p>
+     * The handlers are run by the trampoline of the current thread. If the thread is already dispatching
+     * the handlers of another Future, such as when a handler completes a derived Future, the handlers are
+     * queued and called after the current handler returns. This way a cascade of completions through a long
+     * chain of derived Futures runs iteratively, with a bounded stack depth, on the completing thread.
+     * If a handler blocks waiting for a Future, the queued handlers are called before the thread blocks,
+     * so that a handler can wait for the Futures derived from the ones it has completed.
+     *
+     * @param stack the head of the handlers that were registered before the completion
+     */
+    private void dispatch(@Nullable Completion stack) {
+        // there is nothing to call, if no handlers were registered
+        if (stack == null)
+            return;
+
+        // queue the handlers, and return if an outer dispatch loop is already running on this thread
+        Trampoline trampoline = TRAMPOLINE.get();
+        trampoline.queue.add(this);
+        trampoline.queue.add(stack);
+        if (trampoline.running)
+            return;
+
+        // call the queued handlers until the completion cascade settles
+        trampoline.running = true;
+        try {
+            trampoline.drain();
+        } finally {
+            trampoline.running = false;
+            // do not leave handlers behind, if an error has escaped the loop
+            trampoline.queue.clear();
         }
+    }
 
-        // call the completion handlers
-        handleCompleted(value);
-        return true;
+    /**
+     * Call the appropriate handlers of the specified stack, based on the completion state of this Future.
+     *
+     * @param stack the head of the handlers that were registered before the completion
+     */
+    private void handle(@NotNull Completion stack) {
+        Object state = this.state;
+        if (state instanceof Failure)
+            handleFailed(stack, ((Failure) state).error);
+        else
+            handleCompleted(stack, decode(state));
     }
 
     /**
      * Try to call the completion handlers.
+     *
+     * @param stack the head of the handlers that were registered before the completion
      * @param value the completion value
      */
-    private void handleCompleted(@Nullable T value) {
-        // call the completion handlers
-        for (Consumer<T> handler : completionHandlers) {
+    @SuppressWarnings("unchecked")
+    private void handleCompleted(@Nullable Completion stack, @Nullable T value) {
+        // call the completion handlers in the order of their registration
+        for (Completion node = Completion.reverse(stack); node != null; node = node.next) {
+            Consumer<?> handler = node.completionHandler;
+            // skip the handlers, that have been released by their cancelled dependent
+            if (handler == null || node.released)
+                continue;
             try {
                 // try call the completion handler
-                handler.accept(value);
+                ((Consumer<T>) handler).accept(value);
             } catch (Throwable e) {
-                // fail the completion
-                fail(e);
-                // TODO should the loop break here?
+                // the future is already completed, the error cannot be propagated
+                reportUncaught(e);
             }
         }
     }
@@ -438,39 +713,356 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public boolean fail(@NotNull Throwable error) {
-        // check if the future is already completed
-        if (completed)
+        // try to set the completion error, if the future hasn't been completed yet
+        Failure result = new Failure(error);
+        Object state = transition(result);
+        if (!isPending(state))
             return false;
+        report(result);
 
-        // set the error and unlock the waiting thread
-        synchronized (lock) {
-            this.error = error;
-            completed = true;
-            failed = true;
-            lock.notify();
-        }
+        // unlock the waiting threads and call the failure handlers
+        releaseWaiters();
+        dispatch((Completion) state);
+        return true;
+    }
+
+    /**
+     * Cancel the Future, if it hasn't been completed yet.
+     * <p>
+     * The Future is failed with a {@link FutureCancellationException}, therefore the Futures, that were derived
+     * from this Future, are also completed with the same exception. The cancellation is also propagated upstream:
+     * the source of this Future is cancelled as well, if no other dependent or waiting thread is interested
+     * in its completion anymore. If the Future is completed by an asynchronous task, that is still running,
+     * the thread of the task is interrupted, if <code>mayInterruptIfRunning</code> is <code>true</code>.
+     * <p>
+     * If this Future was already completed (either successful or unsuccessful), this method does nothing.
+     *
+     * @param mayInterruptIfRunning <code>true</code> if the thread completing the Future should be interrupted
+     * @return <code>true</code> if the Future was cancelled, <code>false</code> otherwise
+     */
+    @CanIgnoreReturnValue
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        Upstream upstream = abort();
+        if (upstream == null)
+            return false;
 
-        // call the failure handlers
-        handleFailed(error);
+        // notify the sources of the completion one by one, so that long chains are cancelled
+        // with a bounded stack depth
+        propagate(upstream, mayInterruptIfRunning);
         return true;
     }
 
+    /**
+     * Try to fail this Future with a cancellation error, without notifying the source of the completion.
+     *
+     * @return the source of the completion, that should be notified, {@link Upstream#NONE} if there is no source,
+     * or <code>null</code> if the Future has already been completed
+     */
+    private @Nullable Upstream abort() {
+        // try to set the cancellation error, if the future hasn't been completed yet
+        Failure result = new Failure(new FutureCancellationException("Future has been cancelled"));
+        Object state = transition(result);
+        if (!isPending(state))
+            return null;
+        return cancelled((Completion) state, result);
+    }
+
+    /**
+     * Finish the cancellation of this Future, after its state has been set to the cancellation error.
+     *
+     * @param stack the head of the handlers that were registered before the cancellation
+     * @param result the cancellation error of the Future
+     * @return the source of the completion, that should be notified, or {@link Upstream#NONE} if there is no source
+     */
+    private @NotNull Upstream cancelled(@Nullable Completion stack, @NotNull Failure result) {
+        report(result);
+
+        // unlock the waiting threads, and fail the dependent futures with the cancellation error
+        releaseWaiters();
+        dispatch(stack);
+
+        // detach the source of the completion, as it is not needed anymore
+        Upstream upstream = this.upstream;
+        this.upstream = null;
+        return upstream != null ? upstream : Upstream.NONE;
+    }
+
+    /**
+     * Notify the specified source, and iteratively each source it yields, that their dependent has been cancelled.
+     *
+     * @param upstream the first source to notify
+     * @param mayInterruptIfRunning <code>true</code> if the thread completing the Future should be interrupted
+     */
+    private static void propagate(@Nullable Upstream upstream, boolean mayInterruptIfRunning) {
+        while (upstream != null)
+            upstream = upstream.cancel(mayInterruptIfRunning);
+    }
+
+    /**
+     * Indicates whether the Future was cancelled before it could complete normally.
+     *
+     * @return <code>true</code> if the Future was cancelled, <code>false</code> otherwise
+     */
+    @CheckReturnValue
+    public boolean isCancelled() {
+        Object state = this.state;
+        return state instanceof Failure && ((Failure) state).error instanceof CancellationException;
+    }
+
+    /**
+     * Release the specified handler node, because its dependent Future has been cancelled.
+     * <p>
+     * If every registered handler has been released, and there are no threads waiting for the completion,
+     * the result of this Future is no longer needed, therefore this Future is cancelled as well. The waiting threads
+     * hold a handler node of their own, therefore the cancellation only succeeds, if the state has not changed since
+     * it was scanned, otherwise the new handlers are checked again.
+     *
+     * @param node the handler node to release
+     * @return the source of the completion of this Future, that should be notified next,
+     * or <code>null</code> if this Future has not been cancelled
+     */
+    private @Nullable Upstream release(@NotNull Completion node) {
+        node.released = true;
+
+        Failure result = null;
+        while (true) {
+            // check if the future is still pending
+            Object state = this.state;
+            if (!isPending(state))
+                return null;
+
+            // keep the future running, if anything else depends on its completion
+            for (Completion next = (Completion) state; next != null; next = next.next) {
+                if (!next.released)
+                    return null;
+            }
+
+            // cancel the future only from the scanned state, a handler registered in the meantime is checked again
+            if (result == null)
+                result = new Failure(new FutureCancellationException("Future has been cancelled"));
+            if (FutureState.compareAndSet(this, state, result))
+                return cancelled((Completion) state, result);
+        }
+    }
+
     /**
      * Try to call the completion handlers.
+     *
+     * @param stack the head of the handlers that were registered before the completion
      * @param error the error occurred whilst completing
      */
-    private void handleFailed(@NotNull Throwable error) {
-        // call the completion handlers
-        for (Consumer<Throwable> handler : errorHandlers) {
+    @SuppressWarnings("unchecked")
+    private void handleFailed(@Nullable Completion stack, @NotNull Throwable error) {
+        // call the failure handlers in the order of their registration
+        for (Completion node = Completion.reverse(stack); node != null; node = node.next) {
+            Consumer<?> handler = node.errorHandler;
+            // skip the handlers, that have been released by their cancelled dependent
+            if (handler == null || node.released)
+                continue;
             try {
                 // try call the failure handler
-                handler.accept(error);
-            } catch (Throwable ignored) {
-                // TODO should it handle error handler exceptions?
+                ((Consumer<Throwable>) handler).accept(error);
+            } catch (Throwable e) {
+                // the future is already failed, the error cannot be propagated
+                reportUncaught(e);
             }
         }
     }
 
+    /**
+     * Report the specified error, that was thrown by a completion handler, to the uncaught exception handler
+     * of the current thread, so that it is not lost silently.
+     *
+     * @param error the error thrown by the handler
+     */
+    private static void reportUncaught(@NotNull Throwable error) {
+        Thread thread = Thread.currentThread();
+        try {
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, error);
+        } catch (Throwable ignored) {
+            // the exception handler must not stop calling the remaining handlers
+        }
+    }
+
+    /**
+     * Report the completion of this Future to its listener, if there is one.
+     *
+     * @param result the encoded completion value or the {@link Failure} of the Future
+     */
+    private void report(@NotNull Object result) {
+        Probe probe = this.probe;
+        if (probe != null)
+            probe.report(this, result);
+    }
+
+    /**
+     * Record, that the failure of this Future is observed, either by a failure handler, or by the caller.
+     */
+    private void observe() {
+        Probe probe = this.probe;
+        if (probe != null)
+            probe.observe();
+    }
+
+    /**
+     * Try to atomically move this Future from the pending state to the specified completion state.
+     *
+     * @param result the encoded completion value or the {@link Failure} of the Future
+     * @return the previous state of the Future, which is the stack of the handlers registered before
+     * the completion, if the transition was successful
+     */
+    private @Nullable Object transition(@NotNull Object result) {
+        while (true) {
+            Object state = this.state;
+            // the future has already been completed, do not override the state
+            if (!isPending(state))
+                return state;
+            // try to swap the pending state with the completion result
+            if (FutureState.compareAndSet(this, state, result))
+                return state;
+        }
+    }
+
+    /**
+     * Try to register the specified handlers to be called upon completion, if the Future is still pending.
+     * <p>
+     * The registration happens atomically with respect to the completion, therefore if this method returns
+     * <code>true</code>, it is guaranteed that the appropriate handler will be called exactly once.
+     *
+     * @param onComplete the successful completion handler
+     * @param onFail the failed completion handler
+     * @return <code>true</code> if the handlers were registered, <code>false</code> if the Future is already completed
+     */
+    private boolean register(@Nullable Consumer<T> onComplete, @Nullable Consumer<Throwable> onFail) {
+        // the failure is handled either by the handler, or by the caller, if the Future is already completed
+        if (onFail != null)
+            observe();
+
+        Completion node = null;
+        while (true) {
+            Object state = this.state;
+            // the future has already been completed, the caller should handle the result itself
+            if (!isPending(state))
+                return false;
+            // lazily create the node, that handles both the completion and the failure
+            if (node == null)
+                node = new Completion(onComplete, onFail);
+            // try to push the node to the top of the handler stack
+            node.next = (Completion) state;
+            if (FutureState.compareAndSet(this, state, node))
+                return true;
+        }
+    }
+
+    /**
+     * Try to register the specified handlers to be called upon completion, on behalf of the specified
+     * dependent Future, that is completed by the handlers.
+     * <p>
+     * The registered node becomes the upstream of the dependent, therefore cancelling the dependent
+     * releases the handlers, and possibly cancels this Future as well.
+     *
+     * @param onComplete the successful completion handler
+     * @param onFail the failed completion handler
+     * @param dependent the Future, that is completed by the handlers
+     * @return <code>true</code> if the handlers were registered, <code>false</code> if the Future is already completed
+     */
+    private boolean register(
+        @Nullable Consumer<T> onComplete, @Nullable Consumer<Throwable> onFail, @NotNull Future<?> dependent
+    ) {
+        Completion node = new Completion(onComplete, onFail);
+        node.source = this;
+        // link the node before it is published, so a concurrent cancellation always finds it
+        dependent.upstream = node;
+        if (!push(node))
+            return false;
+
+        // the dependent might have been cancelled before the node was published
+        if (dependent.isCancelled())
+            propagate(release(node), false);
+        return true;
+    }
+
+    /**
+     * Try to push the specified handler node to the top of the handler stack, if the Future is still pending.
+     *
+     * @param node the handler node to push
+     * @return <code>true</code> if the node was pushed, <code>false</code> if the Future is already completed
+     */
+    private boolean push(@NotNull Completion node) {
+        if (node.errorHandler != null)
+            observe();
+
+        while (true) {
+            Object state = this.state;
+            // the future has already been completed, the caller should handle the result itself
+            if (!isPending(state))
+                return false;
+            // try to push the node to the top of the handler stack
+            node.next = (Completion) state;
+            if (FutureState.compareAndSet(this, state, node))
+                return true;
+        }
+    }
+
+    /**
+     * Complete this Future with the successful completion value of the specified Future.
+     * <p>
+     * Failures of the specified Future are not forwarded, this Future only completes, if the specified one
+     * completes successfully. Cancelling this Future cancels the specified Future, if nothing else depends on it.
+     *
+     * @param other the Future to take the completion value from
+     */
+    private void follow(@NotNull Future<T> other) {
+        if (other.register(this::complete, null, this))
+            return;
+
+        // the other Future is already completed
+        Object state = other.state;
+        if (!(state instanceof Failure))
+            complete(decode(state));
+    }
+
+    /**
+     * Complete this Future with the specified value, after the specified Future completes successfully,
+     * or fail this Future, if the specified Future fails.
+     *
+     * @param other the Future to wait for
+     * @param value the value to complete this Future with
+     * @param <U> the type of the other Future
+     */
+    private <U> void completeAfter(@NotNull Future<U> other, @Nullable T value) {
+        if (other.register(ignored -> complete(value), this::fail, this))
+            return;
+
+        // the other Future is already completed
+        Object state = other.state;
+        if (state instanceof Failure)
+            fail(((Failure) state).error);
+        else
+            complete(value);
+    }
+
+    /**
+     * Indicate, whether the specified state represents a Future, that hasn't been completed yet.
+     *
+     * @param state the state of the Future
+     * @return <code>true</code> if the state is pending, <code>false</code> otherwise
+     */
+    private static boolean isPending(@Nullable Object state) {
+        return state == null || state instanceof Completion;
+    }
+
+    /**
+     * Decode the completion value from the specified state of a successfully completed Future.
+     *
+     * @param state the completion state
+     * @return the completion value
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> @Nullable T decode(@Nullable Object state) {
+        return state == NULL ? null : (T) state;
+    }
+
     /**
      * Register a completion handler to be called when the Future completes without an error.
      * <p>
@@ -486,18 +1078,17 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public @NotNull Future<T> then(@NotNull Consumer<T> action) {
-        synchronized (lock) {
-            // register the action if the Future hasn't been completed yet
-            if (!completed)
-                completionHandlers.add(action);
-
-            // the Future is already completed
-            // call the callback if the completion was successful
-            else if (!failed)
-                action.accept(value);
-
+        // register the action if the Future hasn't been completed yet
+        if (register(action, null))
             return this;
-        }
+
+        // the Future is already completed
+        // call the callback if the completion was successful
+        Object state = this.state;
+        if (!(state instanceof Failure))
+            action.accept(decode(state));
+
+        return this;
     }
 
     /**
@@ -515,29 +1106,28 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public @NotNull Future<T> tryThen(@NotNull ThrowableConsumer<T, Throwable> action) {
-        synchronized (lock) {
-            // register the action if the Future hasn't been completed yet
-            if (!completed)
-                completionHandlers.add(value -> {
-                    try {
-                        action.accept(value);
-                    } catch (Throwable e) {
-                        fail(e);
-                    }
-                });
-
-            // the Future is already completed
-            // call the callback if the completion was successful
-            else if (!failed) {
-                try {
-                    action.accept(value);
-                } catch (Throwable e) {
-                    fail(e);
-                }
+        // register the action if the Future hasn't been completed yet
+        if (register(value -> {
+            try {
+                action.accept(value);
+            } catch (Throwable e) {
+                fail(e);
             }
-
+        }, null))
             return this;
+
+        // the Future is already completed
+        // call the callback if the completion was successful
+        Object state = this.state;
+        if (!(state instanceof Failure)) {
+            try {
+                action.accept(decode(state));
+            } catch (Throwable e) {
+                fail(e);
+            }
         }
+
+        return this;
     }
 
     /**
@@ -555,18 +1145,19 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public @NotNull Future<T> thenAsync(@NotNull Consumer<T> action) {
-        synchronized (lock) {
-            // register the action if the Future hasn't been completed yet
-            if (!completed)
-                completionHandlers.add(value -> executeLockedAsync(() -> action.accept(value)));
-
-            // the Future is already completed
-            // call the callback if the completion was successful
-            else if (!failed)
-                executeLockedAsync(() -> action.accept(value));
-
+        // register the action if the Future hasn't been completed yet
+        if (register(value -> executeAsync(() -> action.accept(value)), null))
             return this;
+
+        // the Future is already completed
+        // call the callback if the completion was successful
+        Object state = this.state;
+        if (!(state instanceof Failure)) {
+            T value = decode(state);
+            executeAsync(() -> action.accept(value));
         }
+
+        return this;
     }
 
     /**
@@ -586,30 +1177,24 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public @NotNull Future<T> thenComplete(@NotNull Runnable task) {
-        synchronized (lock) {
-            Future<T> future = new Future<>();
-
-            if (completed) {
-                if (failed) {
-                    Throwable error = this.error;
-                    assert error != null;
-                    future.fail(error);
-                } else {
-                    task.run();
-                    future.complete(value);
-                }
-            }
-
-            else {
-                completionHandlers.add(value -> {
-                    task.run();
-                    future.complete(value);
-                });
-                errorHandlers.add(future::fail);
-            }
+        Future<T> future = derive();
 
+        // register the task if the Future hasn't been completed yet
+        if (register(value -> {
+            task.run();
+            future.complete(value);
+        }, future::fail, future))
             return future;
+
+        Object state = this.state;
+        if (state instanceof Failure)
+            future.fail(((Failure) state).error);
+        else {
+            task.run();
+            future.complete(decode(state));
         }
+
+        return future;
     }
 
     /**
@@ -631,39 +1216,32 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public @NotNull Future<T> thenTryComplete(@NotNull ThrowableRunnable<Throwable> task) {
-        synchronized (lock) {
-            Future<T> future = new Future<>();
+        Future<T> future = derive();
 
-            if (completed) {
-                if (failed) {
-                    Throwable error = this.error;
-                    assert error != null;
-                    future.fail(error);
-                }
-                else {
-                    try {
-                        task.run();
-                        future.complete(value);
-                    } catch (Throwable e) {
-                        future.fail(e);
-                    }
-                }
+        // register the task if the Future hasn't been completed yet
+        if (register(value -> {
+            try {
+                task.run();
+                future.complete(value);
+            } catch (Throwable e) {
+                future.fail(e);
             }
+        }, future::fail, future))
+            return future;
 
-            else {
-                completionHandlers.add(value -> {
-                    try {
-                        task.run();
-                        future.complete(value);
-                    } catch (Throwable e) {
-                        future.fail(e);
-                    }
-                });
-                errorHandlers.add(future::fail);
+        Object state = this.state;
+        if (state instanceof Failure)
+            future.fail(((Failure) state).error);
+        else {
+            try {
+                task.run();
+                future.complete(decode(state));
+            } catch (Throwable e) {
+                future.fail(e);
             }
-
-            return future;
         }
+
+        return future;
     }
 
     /**
@@ -685,31 +1263,14 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public <U> @NotNull Future<U> transform(@NotNull Function<T, U> transformer) {
-        synchronized (lock) {
-            // check if the Future is already completed
-            if (completed) {
-                // check if the completion was unsuccessful
-                if (failed) {
-                    Throwable error = this.error;
-                    assert error != null;
-                    return failed(error);
-                }
-
-                // try to transform the future value
-                try {
-                    return completed(transformer.apply(value));
-                } catch (Exception e) {
-                    // unable to transform the Future, return a failed Future
-                    return failed(e);
-                }
-            }
-
-            // the future hasn't been completed yet, create a new Future
-            // that will try to transform the value once it is completed
-            Future<U> future = new Future<>();
-
-            // register the Future completion transformer
-            completionHandlers.add(value -> {
+        // check if the Future hasn't been completed yet
+        Object state = this.state;
+        if (isPending(state)) {
+            // create a new Future that will try to transform the value once it is completed
+            Future<U> future = derive();
+
+            // register the Future completion transformer and the error handler
+            if (register(value -> {
                 // try to transform the Future value
                 try {
                     future.complete(transformer.apply(value));
@@ -717,11 +1278,23 @@ public class Future<T> implements Promise<T> {
                     // unable to transform the value, fail the Future
                     future.fail(e);
                 }
-            });
+            }, future::fail, future))
+                return future;
 
-            // register the error handler
-            errorHandlers.add(future::fail);
-            return future;
+            // the Future has been completed in the meantime
+            state = this.state;
+        }
+
+        // check if the completion was unsuccessful
+        if (state instanceof Failure)
+            return derivedFailed(((Failure) state).error);
+
+        // try to transform the future value
+        try {
+            return derivedCompleted(transformer.apply(decode(state)));
+        } catch (Exception e) {
+            // unable to transform the Future, return a failed Future
+            return derivedFailed(e);
         }
     }
 
@@ -743,31 +1316,14 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public <U> @NotNull Future<U> tryTransform(@NotNull ThrowableFunction<T, U, Throwable> transformer) {
-        synchronized (lock) {
-            // check if the Future is already completed
-            if (completed) {
-                // check if the completion was unsuccessful
-                if (failed) {
-                    Throwable error = this.error;
-                    assert error != null;
-                    return failed(error);
-                }
-
-                // try to transform the future value
-                try {
-                    return completed(transformer.apply(value));
-                } catch (Throwable e) {
-                    // unable to transform the Future, return a failed Future
-                    return failed(e);
-                }
-            }
-
-            // the future hasn't been completed yet, create a new Future
-            // that will try to transform the value once it is completed
-            Future<U> future = new Future<>();
-
-            // register the Future completion transformer
-            completionHandlers.add(value -> {
+        // check if the Future hasn't been completed yet
+        Object state = this.state;
+        if (isPending(state)) {
+            // create a new Future that will try to transform the value once it is completed
+            Future<U> future = derive();
+
+            // register the Future completion transformer and the error handler
+            if (register(value -> {
                 // try to transform the Future value
                 try {
                     future.complete(transformer.apply(value));
@@ -775,11 +1331,23 @@ public class Future<T> implements Promise<T> {
                     // unable to transform the value, fail the Future
                     future.fail(e);
                 }
-            });
+            }, future::fail, future))
+                return future;
 
-            // register the error handler
-            errorHandlers.add(future::fail);
-            return future;
+            // the Future has been completed in the meantime
+            state = this.state;
+        }
+
+        // check if the completion was unsuccessful
+        if (state instanceof Failure)
+            return derivedFailed(((Failure) state).error);
+
+        // try to transform the future value
+        try {
+            return derivedCompleted(transformer.apply(decode(state)));
+        } catch (Throwable e) {
+            // unable to transform the Future, return a failed Future
+            return derivedFailed(e);
         }
     }
 
@@ -808,43 +1376,38 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public <U> @NotNull Future<U> transformAsync(@NotNull Function<T, Future<U>> transformer) {
-        synchronized (lock) {
-            // check if the Future is already completed
-            if (completed) {
-                // check if the completion was unsuccessful
-                if (failed) {
-                    Throwable error = this.error;
-                    assert error != null;
-                    return failed(error);
-                }
-
-                // try to transform the future value
-                try {
-                    return transformer.apply(value);
-                } catch (Exception e) {
-                    // unable to transform the Future, return a failed Future
-                    return failed(e);
-                }
-            }
-
-            // the future hasn't been completed yet, create a new Future
-            // that will try to transform the value once it is completed
-            Future<U> future = new Future<>();
-
-            // register the Future completion transformer
-            completionHandlers.add(value -> {
+        // check if the Future hasn't been completed yet
+        Object state = this.state;
+        if (isPending(state)) {
+            // create a new Future that will try to transform the value once it is completed
+            Future<U> future = derive();
+
+            // register the Future completion transformer and the error handler
+            if (register(value -> {
                 // try to transform the Future value
                 try {
-                    transformer.apply(value).then(future::complete);
+                    future.follow(transformer.apply(value));
                 } catch (Exception e) {
                     // unable to transform the value, fail the Future
                     future.fail(e);
                 }
-            });
+            }, future::fail, future))
+                return future;
 
-            // register the error handler
-            errorHandlers.add(future::fail);
-            return future;
+            // the Future has been completed in the meantime
+            state = this.state;
+        }
+
+        // check if the completion was unsuccessful
+        if (state instanceof Failure)
+            return derivedFailed(((Failure) state).error);
+
+        // try to transform the future value
+        try {
+            return transformer.apply(decode(state));
+        } catch (Exception e) {
+            // unable to transform the Future, return a failed Future
+            return derivedFailed(e);
         }
     }
 
@@ -867,43 +1430,38 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public <U> @NotNull Future<U> tryTransformAsync(@NotNull ThrowableFunction<T, Future<U>, Throwable> transformer) {
-        synchronized (lock) {
-            // check if the Future is already completed
-            if (completed) {
-                // check if the completion was unsuccessful
-                if (failed) {
-                    Throwable error = this.error;
-                    assert error != null;
-                    return failed(error);
-                }
-
-                // try to transform the future value
-                try {
-                    return transformer.apply(value);
-                } catch (Throwable e) {
-                    // unable to transform the Future, return a failed Future
-                    return failed(e);
-                }
-            }
-
-            // the future hasn't been completed yet, create a new Future
-            // that will try to transform the value once it is completed
-            Future<U> future = new Future<>();
-
-            // register the Future completion transformer
-            completionHandlers.add(value -> {
+        // check if the Future hasn't been completed yet
+        Object state = this.state;
+        if (isPending(state)) {
+            // create a new Future that will try to transform the value once it is completed
+            Future<U> future = derive();
+
+            // register the Future completion transformer and the error handler
+            if (register(value -> {
                 // try to transform the Future value
                 try {
-                    transformer.apply(value).then(future::complete);
+                    future.follow(transformer.apply(value));
                 } catch (Throwable e) {
                     // unable to transform the value, fail the Future
                     future.fail(e);
                 }
-            });
+            }, future::fail, future))
+                return future;
 
-            // register the error handler
-            errorHandlers.add(future::fail);
-            return future;
+            // the Future has been completed in the meantime
+            state = this.state;
+        }
+
+        // check if the completion was unsuccessful
+        if (state instanceof Failure)
+            return derivedFailed(((Failure) state).error);
+
+        // try to transform the future value
+        try {
+            return transformer.apply(decode(state));
+        } catch (Throwable e) {
+            // unable to transform the Future, return a failed Future
+            return derivedFailed(e);
         }
     }
 
@@ -920,30 +1478,25 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public <U> @NotNull Future<U> to(@Nullable U value) {
-        synchronized (lock) {
-            if (completed) {
-                // check if the completion was unsuccessful
-                if (failed) {
-                    Throwable error = this.error;
-                    assert error != null;
-                    return failed(error);
-                }
-
-                else
-                    return completed(value);
-            }
-
+        // check if the Future hasn't been completed yet
+        Object state = this.state;
+        if (isPending(state)) {
             // create a new Future that will supply the specified value
-            Future<U> future = new Future<>();
-
-            // supply the value when this Future completes
-            completionHandlers.add(ignored -> future.complete(value));
+            Future<U> future = derive();
 
-            // proxy the error to the new Future
-            errorHandlers.add(future::fail);
+            // supply the value when this Future completes, and proxy the error to the new Future
+            if (register(ignored -> future.complete(value), future::fail, future))
+                return future;
 
-            return future;
+            // the Future has been completed in the meantime
+            state = this.state;
         }
+
+        // check if the completion was unsuccessful
+        if (state instanceof Failure)
+            return derivedFailed(((Failure) state).error);
+
+        return derivedCompleted(value);
     }
 
     /**
@@ -962,26 +1515,23 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public <U> @NotNull Future<U> to(@NotNull Supplier<@Nullable U> supplier) {
-        synchronized (lock) {
-            if (completed) {
-                // check if the completion was unsuccessful
-                if (failed) {
-                    Throwable error = this.error;
-                    assert error != null;
-                    return failed(error);
-                }
+        // check if the Future hasn't been completed yet
+        Object state = this.state;
+        if (isPending(state)) {
+            Future<U> future = derive();
 
-                else
-                    return completed(supplier.get());
-            }
+            if (register(value -> future.complete(supplier.get()), future::fail, future))
+                return future;
 
-            Future<U> future = new Future<>();
+            // the Future has been completed in the meantime
+            state = this.state;
+        }
 
-            completionHandlers.add(value -> future.complete(supplier.get()));
-            errorHandlers.add(future::fail);
+        // check if the completion was unsuccessful
+        if (state instanceof Failure)
+            return derivedFailed(((Failure) state).error);
 
-            return future;
-        }
+        return derivedCompleted(supplier.get());
     }
 
     /**
@@ -1000,33 +1550,32 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public <U> @NotNull Future<U> tryTo(@NotNull ThrowableSupplier<U, Throwable> supplier) {
-        synchronized (lock) {
-            if (completed) {
-                // check if the completion was unsuccessful
-                if (failed) {
-                    Throwable error = this.error;
-                    assert error != null;
-                    return failed(error);
-                }
-
-                try {
-                    return completed(supplier.get());
-                } catch (Throwable error) {
-                    return failed(error);
-                }
-            }
-
-            Future<U> future = new Future<>();
+        // check if the Future hasn't been completed yet
+        Object state = this.state;
+        if (isPending(state)) {
+            Future<U> future = derive();
 
-            completionHandlers.add(value -> {
+            if (register(value -> {
                 try {
                     future.complete(supplier.get());
                 } catch (Throwable error) {
                     future.fail(error);
                 }
-            });
+            }, null, future))
+                return future;
 
-            return future;
+            // the Future has been completed in the meantime
+            state = this.state;
+        }
+
+        // check if the completion was unsuccessful
+        if (state instanceof Failure)
+            return derivedFailed(((Failure) state).error);
+
+        try {
+            return derivedCompleted(supplier.get());
+        } catch (Throwable error) {
+            return derivedFailed(error);
         }
     }
 
@@ -1046,32 +1595,28 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public <U> @NotNull Future<U> toAsync(@NotNull Supplier<U> supplier) {
-        synchronized (lock) {
-            if (completed) {
-                // check if the completion was unsuccessful
-                if (failed) {
-                    Throwable error = this.error;
-                    assert error != null;
-                    return failed(error);
-                }
-
-                try {
-                    return completed(supplier.get());
-                } catch (Throwable error) {
-                    return failed(error);
-                }
-            }
-
+        // check if the Future hasn't been completed yet
+        Object state = this.state;
+        if (isPending(state)) {
             // create a new Future that will supply the specified value
-            Future<U> future = new Future<>();
+            Future<U> future = derive();
 
-            // supply the value when this Future completes
-            completionHandlers.add(ignored -> Future.completeAsync(supplier).then(future::complete));
+            // supply the value when this Future completes, and proxy the error to the new Future
+            if (register(ignored -> Future.completeAsync(supplier).then(future::complete), future::fail, future))
+                return future;
 
-            // proxy the error to the new Future
-            errorHandlers.add(future::fail);
+            // the Future has been completed in the meantime
+            state = this.state;
+        }
 
-            return future;
+        // check if the completion was unsuccessful
+        if (state instanceof Failure)
+            return derivedFailed(((Failure) state).error);
+
+        try {
+            return derivedCompleted(supplier.get());
+        } catch (Throwable error) {
+            return derivedFailed(error);
         }
     }
 
@@ -1091,34 +1636,30 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public <U> @NotNull Future<U> tryToAsync(@NotNull ThrowableSupplier<U, Throwable> supplier) {
-        synchronized (lock) {
-            if (completed) {
-                // check if the completion was unsuccessful
-                if (failed) {
-                    Throwable error = this.error;
-                    assert error != null;
-                    return failed(error);
-                }
-
-                try {
-                    return completed(supplier.get());
-                } catch (Throwable error) {
-                    return failed(error);
-                }
-            }
-
+        // check if the Future hasn't been completed yet
+        Object state = this.state;
+        if (isPending(state)) {
             // create a new Future that will supply the specified value
-            Future<U> future = new Future<>();
+            Future<U> future = derive();
 
-            // try to supply the value when this Future completes
-            completionHandlers.add(ignored -> Future.tryCompleteAsync(supplier)
+            // try to supply the value when this Future completes, and proxy the error to the new Future
+            if (register(ignored -> Future.tryCompleteAsync(supplier)
                 .then(future::complete)
-                .except(future::fail));
+                .except(future::fail), future::fail, future))
+                return future;
 
-            // proxy the error to the new Future
-            errorHandlers.add(future::fail);
+            // the Future has been completed in the meantime
+            state = this.state;
+        }
 
-            return future;
+        // check if the completion was unsuccessful
+        if (state instanceof Failure)
+            return derivedFailed(((Failure) state).error);
+
+        try {
+            return derivedCompleted(supplier.get());
+        } catch (Throwable error) {
+            return derivedFailed(error);
         }
     }
 
@@ -1137,35 +1678,25 @@ public class Future<T> implements Promise<T> {
      */
     @CheckReturnValue
     public @NotNull Future<Void> callback() {
-        synchronized (lock) {
-            // check if the Future is already completed
-            if (completed) {
-                // check if the completion was unsuccessful
-                if (failed) {
-                    Throwable error = this.error;
-                    assert error != null;
-                    return failed(error);
-                }
+        // check if the Future hasn't been completed yet
+        Object state = this.state;
+        if (isPending(state)) {
+            // create a new Future that will be completed once this Future is completed
+            Future<Void> future = derive();
+
+            // register the Future completion and error handlers
+            if (register(value -> future.complete(null), future::fail, future))
+                return future;
 
-                // try to transform the future value
-                try {
-                    return completed();
-                } catch (Exception e) {
-                    // unable to transform the Future, return a failed Future
-                    return failed(e);
-                }
-            }
+            // the Future has been completed in the meantime
+            state = this.state;
+        }
 
-            // the future hasn't been completed yet, create a new Future
-            // that will try to transform the value once it is completed
-            Future<Void> future = new Future<>();
-            // register the Future completion transformer
-            completionHandlers.add(value -> future.complete(null));
+        // check if the completion was unsuccessful
+        if (state instanceof Failure)
+            return derivedFailed(((Failure) state).error);
 
-            // register the error handler
-            errorHandlers.add(future::fail);
-            return future;
-        }
+        return derivedCompleted(null);
     }
 
     /**
@@ -1202,22 +1733,22 @@ public class Future<T> implements Promise<T> {
      */
     @CheckReturnValue
     public @NotNull Future<Boolean> status() {
-        synchronized (lock) {
-            // check if the Future is already completed
-            if (completed)
-                return completed(!failed);
-
+        // check if the Future hasn't been completed yet
+        Object state = this.state;
+        if (isPending(state)) {
             // create a new Future that will be completed with the status of this Future
-            Future<Boolean> future = new Future<>();
+            Future<Boolean> future = derive();
 
-            // complete the Future with true, if it completes successfully
-            completionHandlers.add(ignored -> future.complete(true));
-
-            // complete the Future with false, if it fails with an exception
-            errorHandlers.add(ignored -> future.complete(false));
+            // complete the Future with true, if it completes successfully,
+            // and with false, if it fails with an exception
+            if (register(ignored -> future.complete(true), ignored -> future.complete(false), future))
+                return future;
 
-            return future;
+            // the Future has been completed in the meantime
+            state = this.state;
         }
+
+        return derivedCompleted(!(state instanceof Failure));
     }
 
     /**
@@ -1235,18 +1766,17 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public @NotNull Future<T> except(@NotNull Consumer<Throwable> action) {
-        synchronized (lock) {
-            // register the action if the Future hasn't been completed yet
-            if (!completed)
-                errorHandlers.add(action);
-
-            // the Future is already completed
-            // call the callback if the completion was unsuccessful
-            else if (failed)
-                action.accept(error);
-
+        // register the action if the Future hasn't been completed yet
+        if (register(null, action))
             return this;
-        }
+
+        // the Future is already completed
+        // call the callback if the completion was unsuccessful
+        Object state = this.state;
+        if (state instanceof Failure)
+            action.accept(((Failure) state).error);
+
+        return this;
     }
 
     /**
@@ -1264,29 +1794,28 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public @NotNull Future<T> tryExcept(@NotNull ThrowableConsumer<Throwable, Throwable> action) {
-        synchronized (lock) {
-            // register the action if the Future hasn't been completed yet
-            if (!completed)
-                errorHandlers.add(error -> {
-                    try {
-                        action.accept(error);
-                    } catch (Throwable ignored) {
-                        // future is already failed, do not fail again
-                    }
-                });
-
-            // the Future is already completed
-            // call the callback if the completion was unsuccessful
-            else if (failed) {
-                try {
-                    action.accept(error);
-                } catch (Throwable ignored) {
-                    // future is already failed, do not fail again
-                }
+        // register the action if the Future hasn't been completed yet
+        if (register(null, error -> {
+            try {
+                action.accept(error);
+            } catch (Throwable ignored) {
+                // future is already failed, do not fail again
             }
-
+        }))
             return this;
+
+        // the Future is already completed
+        // call the callback if the completion was unsuccessful
+        Object state = this.state;
+        if (state instanceof Failure) {
+            try {
+                action.accept(((Failure) state).error);
+            } catch (Throwable ignored) {
+                // future is already failed, do not fail again
+            }
         }
+
+        return this;
     }
 
     /**
@@ -1304,18 +1833,19 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public @NotNull Future<T> exceptAsync(@NotNull Consumer<Throwable> action) {
-        synchronized (lock) {
-            // register the action if the Future hasn't been completed yet
-            if (!completed)
-                errorHandlers.add(error -> executeLockedAsync(() -> action.accept(error)));
-
-            // the Future is already completed
-            // call the callback if the completion was unsuccessful
-            else if (failed)
-                executeLockedAsync(() -> action.accept(error));
-
+        // register the action if the Future hasn't been completed yet
+        if (register(null, error -> executeAsync(() -> action.accept(error))))
             return this;
+
+        // the Future is already completed
+        // call the callback if the completion was unsuccessful
+        Object state = this.state;
+        if (state instanceof Failure) {
+            Throwable error = ((Failure) state).error;
+            executeAsync(() -> action.accept(error));
         }
+
+        return this;
     }
 
     /**
@@ -1352,31 +1882,14 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public @NotNull Future<T> fallback(@NotNull Function<Throwable, T> transformer) {
-        synchronized (lock) {
-            // check if the Future is already completed
-            if (completed) {
-                // check if the completion was successful
-                if (!failed)
-                    return completed(value);
-
-                // try to transform the error to a value
-                try {
-                    return completed(transformer.apply(error));
-                } catch (Exception e) {
-                    // unable to transform the Future, return a failed Future
-                    return failed(e);
-                }
-            }
-
-            // the future hasn't been completed yet, create a new Future
-            // that will try to transform the error once it is failed
-            Future<T> future = new Future<>();
-
-            // register the completion handler
-            completionHandlers.add(future::complete);
-
-            // register the error transformer
-            errorHandlers.add(error -> {
+        // check if the Future hasn't been completed yet
+        Object state = this.state;
+        if (isPending(state)) {
+            // create a new Future that will try to transform the error once it is failed
+            Future<T> future = derive();
+
+            // register the completion handler and the error transformer
+            if (register(future::complete, error -> {
                 // try to transform the Future error
                 try {
                     future.complete(transformer.apply(error));
@@ -1384,9 +1897,23 @@ public class Future<T> implements Promise<T> {
                     // unable to transform the error, fail the Future
                     future.fail(e);
                 }
-            });
+            }, future))
+                return future;
 
-            return future;
+            // the Future has been completed in the meantime
+            state = this.state;
+        }
+
+        // check if the completion was successful
+        if (!(state instanceof Failure))
+            return derivedCompleted(decode(state));
+
+        // try to transform the error to a value
+        try {
+            return derivedCompleted(transformer.apply(((Failure) state).error));
+        } catch (Exception e) {
+            // unable to transform the Future, return a failed Future
+            return derivedFailed(e);
         }
     }
 
@@ -1408,29 +1935,27 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public @NotNull Future<T> fallback(@Nullable T fallbackValue) {
-        synchronized (lock) {
-            // check if the Future is already completed
-            if (completed) {
-                // complete the Future with the fallback value if the
-                // current Future's completion was failed
-                if (failed)
-                    return completed(fallbackValue);
-
-                // the completion was successful, return the completion value
-                return completed(value);
-            }
+        // check if the Future hasn't been completed yet
+        Object state = this.state;
+        if (isPending(state)) {
+            // create a new Future that will use the fallback value if the current Future fails
+            Future<T> future = derive();
+
+            // register the completion handler and the error fallback handler
+            if (register(future::complete, error -> future.complete(fallbackValue), future))
+                return future;
 
-            // the future hasn't been completed yet, create a new Future
-            // that will use the fallback value if the current Future fails
-            Future<T> future = new Future<>();
+            // the Future has been completed in the meantime
+            state = this.state;
+        }
 
-            // register the completion handler
-            completionHandlers.add(future::complete);
+        // complete the Future with the fallback value if the
+        // current Future's completion was failed
+        if (state instanceof Failure)
+            return derivedCompleted(fallbackValue);
 
-            // register the error fallback handler
-            errorHandlers.add(error -> future.complete(fallbackValue));
-            return future;
-        }
+        // the completion was successful, return the completion value
+        return derivedCompleted(decode(state));
     }
 
     /**
@@ -1447,41 +1972,36 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public <U> @NotNull Future<U> cast(@NotNull Class<U> type) {
-        synchronized (lock) {
-            // check if the Future is already completed
-            if (completed) {
-                // return a failed future if this future is already failed
-                if (failed) {
-                    Throwable error = this.error;
-                    assert error != null;
-                    return failed(error);
-                }
-
-                // check if the completed value cannot be cast to the specified type
-                T value = this.value;
-                if (value != null && !value.getClass().isAssignableFrom(type))
-                    return failed(new ClassCastException(value.getClass() + " cannot be casted to " + type));
-
-                // return a completed future if this future is already completed
-                return completed(type.cast(value));
-            }
-
-            // the future hasn't been completed yet, create a new Future
-            // that will cast the completion value if the current Future completes
-            Future<U> future = new Future<>();
-
-            // register the completion handler
-            completionHandlers.add(value -> {
+        // check if the Future hasn't been completed yet
+        Object state = this.state;
+        if (isPending(state)) {
+            // create a new Future that will cast the completion value if the current Future completes
+            Future<U> future = derive();
+
+            // register the completion handler and the error handler
+            if (register(value -> {
                 if (value != null && !value.getClass().isAssignableFrom(type))
                     future.fail(new ClassCastException(value.getClass() + " cannot be casted to " + type));
                 else
                     future.complete(type.cast(value));
-            });
+            }, future::fail, future))
+                return future;
 
-            // register the error fallback handler
-            errorHandlers.add(future::fail);
-            return future;
+            // the Future has been completed in the meantime
+            state = this.state;
         }
+
+        // return a failed future if this future is already failed
+        if (state instanceof Failure)
+            return derivedFailed(((Failure) state).error);
+
+        // check if the completed value cannot be cast to the specified type
+        T value = decode(state);
+        if (value != null && !value.getClass().isAssignableFrom(type))
+            return derivedFailed(new ClassCastException(value.getClass() + " cannot be casted to " + type));
+
+        // return a completed future if this future is already completed
+        return derivedCompleted(type.cast(value));
     }
 
     /**
@@ -1511,19 +2031,18 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public @NotNull Future<T> result(@NotNull BiConsumer<T, Throwable> action) {
-        synchronized (lock) {
-            // call the action if the Future is already completed
-            if (completed) {
-                action.accept(value, error);
-                return this;
-            }
+        // the Future hasn't been completed yet, register the callbacks
+        if (register(value -> action.accept(value, null), error -> action.accept(null, error)))
+            return this;
 
-            // the Future hasn't been completed yet, register the callbacks
-            completionHandlers.add(value -> action.accept(value, null));
-            errorHandlers.add(error -> action.accept(null, error));
+        // call the action if the Future is already completed
+        Object state = this.state;
+        if (state instanceof Failure)
+            action.accept(null, ((Failure) state).error);
+        else
+            action.accept(decode(state), null);
 
-            return this;
-        }
+        return this;
     }
 
     /**
@@ -1555,23 +2074,14 @@ public class Future<T> implements Promise<T> {
      */
     @CanIgnoreReturnValue
     public <U> @NotNull Future<U> result(@NotNull BiFunction<T, Throwable, U> transformer) {
-        synchronized (lock) {
-            // check if the Future is already completed
-            if (completed) {
-                // try to transform the value and create a new Future with it
-                try {
-                    return completed(transformer.apply(value, error));
-                } catch (Exception e) {
-                    // unable to transform the error, create a Failed future
-                    return failed(e);
-                }
-            }
-
-            // the Future hasn't been completed yet, create a new one
-            Future<U> future = new Future<>();
-
-            // register the completion transformer
-            completionHandlers.add(value -> {
+        // check if the Future hasn't been completed yet
+        Object state = this.state;
+        if (isPending(state)) {
+            // create a new Future that will be completed with the transformed result
+            Future<U> future = derive();
+
+            // register the completion and the failure transformers
+            if (register(value -> {
                 // try to transform the value
                 try {
                     future.complete(transformer.apply(value, null));
@@ -1579,10 +2089,7 @@ public class Future<T> implements Promise<T> {
                     // unable to transform the error, fail the Future
                     future.fail(e);
                 }
-            });
-
-            // register the failure transformer
-            errorHandlers.add(error -> {
+            }, error -> {
                 // try to transform the error
                 try {
                     future.complete(transformer.apply(null, error));
@@ -1590,9 +2097,21 @@ public class Future<T> implements Promise<T> {
                     // unable to transform the error, fail the Future
                     future.fail(e);
                 }
-            });
+            }, future))
+                return future;
 
-            return future;
+            // the Future has been completed in the meantime
+            state = this.state;
+        }
+
+        // try to transform the value and create a new Future with it
+        try {
+            if (state instanceof Failure)
+                return derivedCompleted(transformer.apply(null, ((Failure) state).error));
+            return derivedCompleted(transformer.apply(decode(state), null));
+        } catch (Exception e) {
+            // unable to transform the error, create a Failed future
+            return derivedFailed(e);
         }
     }
 
@@ -1605,37 +2124,34 @@ public class Future<T> implements Promise<T> {
      */
     @CheckReturnValue
     public @NotNull Future<T> filter(@NotNull Predicate<T> predicate, @NotNull Supplier<Throwable> error) {
-        synchronized (lock) {
-            // check if the future is already completed
-            if (completed) {
-                // fail the future it was already failed
-                if (failed) {
-                    Throwable completedError = this.error;
-                    assert completedError != null;
-                    return failed(completedError);
-                }
-
-                // fail the future if the predicate did not pass
-                if (!predicate.test(value))
-                    return failed(error.get());
-
-                return completed(value);
-            }
-
+        // check if the Future hasn't been completed yet
+        Object state = this.state;
+        if (isPending(state)) {
             // create a future that will fail if the predicate fails the completion value
-            Future<T> future = new Future<>();
+            Future<T> future = derive();
 
-            completionHandlers.add(value -> {
+            if (register(value -> {
                 if (predicate.test(value))
                     future.complete(value);
                 else
                     future.fail(error.get());
-            });
-
-            errorHandlers.add(future::fail);
+            }, future::fail, future))
+                return future;
 
-            return future;
+            // the Future has been completed in the meantime
+            state = this.state;
         }
+
+        // fail the future it was already failed
+        if (state instanceof Failure)
+            return derivedFailed(((Failure) state).error);
+
+        // fail the future if the predicate did not pass
+        T value = decode(state);
+        if (!predicate.test(value))
+            return derivedFailed(error.get());
+
+        return derivedCompleted(value);
     }
 
     /**
@@ -1657,7 +2173,7 @@ public class Future<T> implements Promise<T> {
      */
     @CheckReturnValue
     public @NotNull Future<T> filter(Predicate<T> predicate) {
-        return filter(predicate, () -> new FutureExecutionException("Predicate failed for value `" + value + "`"));
+        return filter(predicate, () -> new FutureExecutionException("Predicate failed for value `" + getNow(null) + "`"));
     }
 
     /*
@@ -1672,39 +2188,38 @@ public class Future<T> implements Promise<T> {
      */
     @CheckReturnValue
     public @NotNull Future<T> failIf(Function<T, @Nullable Throwable> predicate) {
-        synchronized (lock) {
-            // check if the future is already completed
-            if (completed) {
-                // check if the future is already failed
-                if (failed) {
-                    Throwable error = this.error;
-                    assert error != null;
-                    return failed(error);
-                }
-
-                // run the predicate and test if the future should fail
-                Throwable error = predicate.apply(value);
-                if (error != null)
-                    return failed(error);
-
-                // future passed the predicate, return the completion value
-                return completed(value);
-            }
-
-            Future<T> future = new Future<>();
+        // check if the Future hasn't been completed yet
+        Object state = this.state;
+        if (isPending(state)) {
+            Future<T> future = derive();
 
             // the future isn't completed yet
-            completionHandlers.add(value -> {
+            if (register(value -> {
                 // run the predicate and test if the future should fail
                 Throwable error = predicate.apply(value);
                 if (error != null)
                     future.fail(error);
                 // future passed the predicate, complete with the value
                 future.complete(value);
-            });
+            }, null, future))
+                return future;
 
-            return future;
+            // the Future has been completed in the meantime
+            state = this.state;
         }
+
+        // check if the future is already failed
+        if (state instanceof Failure)
+            return derivedFailed(((Failure) state).error);
+
+        // run the predicate and test if the future should fail
+        T value = decode(state);
+        Throwable error = predicate.apply(value);
+        if (error != null)
+            return derivedFailed(error);
+
+        // future passed the predicate, return the completion value
+        return derivedCompleted(value);
     }
 
     /**
@@ -1719,39 +2234,38 @@ public class Future<T> implements Promise<T> {
      */
     @CheckReturnValue
     public @NotNull Future<T> failIf(BiFunction<T, Throwable, @Nullable Throwable> predicate) {
-        synchronized (lock) {
-            // check if the future is already completed
-            if (completed) {
-                // check if the future is already failed
-                if (failed) {
-                    Throwable error = this.error;
-                    assert error != null;
-                    return failed(error);
-                }
+        // check if the Future hasn't been completed yet
+        Object state = this.state;
+        if (isPending(state)) {
+            Future<T> future = derive();
 
+            // the future isn't completed yet
+            if (register(value -> {
                 // run the predicate and test if the future should fail
-                Throwable error = predicate.apply(value, this.error);
-                if (error != null)
-                    return failed(error);
-
-                // future passed the predicate, return the completion value
-                return completed(value);
-            }
-
-            Future<T> future = new Future<>();
-
-            // the future isn't completed yet
-            completionHandlers.add(value -> {
-                // run the predicate and test if the future should fail
-                Throwable error = predicate.apply(value, this.error);
+                Throwable error = predicate.apply(value, null);
                 if (error != null)
                     future.fail(error);
                 // future passed the predicate, complete with the value
                 future.complete(value);
-            });
+            }, null, future))
+                return future;
 
-            return future;
+            // the Future has been completed in the meantime
+            state = this.state;
         }
+
+        // check if the future is already failed
+        if (state instanceof Failure)
+            return derivedFailed(((Failure) state).error);
+
+        // run the predicate and test if the future should fail
+        T value = decode(state);
+        Throwable error = predicate.apply(value, null);
+        if (error != null)
+            return derivedFailed(error);
+
+        // future passed the predicate, return the completion value
+        return derivedCompleted(value);
     }
 
     /**
@@ -1760,56 +2274,52 @@ public class Future<T> implements Promise<T> {
      * timeout has passed, the new Future will be completed with this Future's result value.
      * <p>
      * If this Future completes unsuccessfully, the new Future will be completed with the same exception.
+     * <p>
+     * The timeout is scheduled on the timer of the context of this Future, or on the shared {@link #timer},
+     * and it is cancelled as soon as this Future completes. The timeout failure is handed off to the executor
+     * of the context, or to the global executor, therefore the handlers of the new Future do not run on the timer.
      *
      * @param timeout the time to wait (in milliseconds) until a {@link FutureTimeoutException} is thrown.
      * @return a new Future
      */
     @CheckReturnValue
     public @NotNull Future<T> timeout(long timeout) {
-        synchronized (lock) {
-            // create a new Future to send the timeout result to
-            Future<T> future = new Future<>();
-            // check if the future is already completed
-            if (completed) {
-                // check if the completion was successful
-                if (!failed)
-                    return completed(value);
-
-                // future was failed, retrieve the error
-                Throwable error = this.error;
-                assert error != null;
-                return failed(error);
-            }
+        // check if the future is already completed
+        Object state = this.state;
+        if (!isPending(state)) {
+            // check if the completion was successful
+            if (!(state instanceof Failure))
+                return derivedCompleted(decode(state));
 
-            // create a new thread to run the timeout countdown on
-            ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
-            // register the completion handler
-            completionHandlers.add(value -> {
-                // complete the timeout future
-                future.complete(value);
-                // shutdown the timeout task
-                executor.shutdownNow();
-            });
+            // future was failed, retrieve the error
+            return derivedFailed(((Failure) state).error);
+        }
 
-            // register the error handler
-            errorHandlers.add(error -> {
-                // fail the timeout future
-                future.fail(error);
-                // shutdown the timeout task
-                executor.shutdownNow();
-            });
-
-            // execute the completion using the timeout delay
-            executor.schedule(() -> {
-                // fail the future if it hasn't been completed yet, and the
-                // timeout limit has exceeded
-                future.fail(new FutureTimeoutException(timeout));
-                // execution has been finished, shutdown the executor
-                executor.shutdown();
-
-            }, timeout, TimeUnit.MILLISECONDS);
-            return future;
+        // create a new Future to send the timeout result to
+        Future<T> future = derive();
+
+        // fail the future on the executor of the context, if it hasn't been completed yet,
+        // and the timeout limit has exceeded
+        FutureContext context = this.context;
+        ScheduledFuture<?> task = schedule(
+            context != null ? context.getTimer() : getContextTimer(), getTimerExecutor(context),
+            () -> future.fail(new FutureTimeoutException(timeout)), timeout, TimeUnit.MILLISECONDS
+        );
+
+        // register the completion and error handlers, that cancel the pending timeout task
+        if (!register(value -> {
+            task.cancel(false);
+            future.complete(value);
+        }, error -> {
+            task.cancel(false);
+            future.fail(error);
+        }, future)) {
+            // the Future has been completed in the meantime
+            task.cancel(false);
+            return mock();
         }
+
+        return future;
     }
 
     /**
@@ -1828,38 +2338,53 @@ public class Future<T> implements Promise<T> {
         return timeout(TimeUnit.MILLISECONDS.convert(timeout, unit));
     }
 
+    /**
+     * Create a new Future, that will be completed unsuccessfully using a {@link FutureTimeoutException}
+     * if the default timeout of the context of this Future has elapsed without a response.
+     * <p>
+     * The context of this Future, or the {@link FutureContext#current() current} context is used to resolve the
+     * default timeout. If there is no context, or the context does not have a default timeout, this Future
+     * is returned instead.
+     *
+     * @return a new Future, or this Future if there is no default timeout
+     *
+     * @see FutureContext#withDefaultTimeout(long, TimeUnit)
+     */
+    @CheckReturnValue
+    public @NotNull Future<T> timeout() {
+        FutureContext context = this.context;
+        if (context == null)
+            context = FutureContext.current();
+
+        // check if there is a default timeout to apply
+        if (context == null || context.getDefaultTimeout() <= 0)
+            return this;
+
+        return timeout(context.getDefaultTimeout());
+    }
+
     /**
      * Create a new Future which acts the same way this Future does.
      * @return a new Future
      */
     @CheckReturnValue
     public @NotNull Future<T> mock() {
-        synchronized (lock) {
-            // create a new Future
-            Future<T> future = new Future<>();
-            // check if the Future is already completed
-            if (completed) {
-                // check if the completion was failed
-                if (failed) {
-                    Throwable error = this.error;
-                    assert error != null;
-                    future.fail(error);
-                }
-                    // handle successful completion
-                else
-                    future.complete(value);
-            }
-
-            // the Future hasn't been completed yet
-            else {
-                // register the completion handler
-                completionHandlers.add(future::complete);
-                // register the error handler
-                errorHandlers.add(future::fail);
-            }
+        // create a new Future
+        Future<T> future = derive();
 
+        // register the completion and error handlers, if the Future hasn't been completed yet
+        if (register(future::complete, future::fail, future))
             return future;
-        }
+
+        // check if the completion was failed
+        Object state = this.state;
+        if (state instanceof Failure)
+            future.fail(((Failure) state).error);
+        // handle successful completion
+        else
+            future.complete(decode(state));
+
+        return future;
     }
 
     /**
@@ -1884,35 +2409,22 @@ public class Future<T> implements Promise<T> {
      */
     @CheckReturnValue
     public <U> @NotNull Future<T> chain(@NotNull Future<U> other) {
-        synchronized (lock) {
-            Future<T> future = new Future<>();
-
-            // check if the Future is already completed
-            if (completed) {
-                // do not complete the other Future if this Future fails
-                if (failed) {
-                    Throwable error = this.error;
-                    assert error != null;
-                    future.fail(error);
-                }
-                // try to complete the other Future if this Future was already completed
-                else other
-                    .then(value -> future.complete(this.value))
-                    .except(future::fail);
-            }
-
-            // the Future hasn't been completed yet
-            else {
-                // try to complete the other Future, when this Future will complete
-                completionHandlers.add(value -> other
-                    .then(ignored -> future.complete(value))
-                    .except(future::fail));
-                // fail the new Future if this Future fails
-                errorHandlers.add(future::fail);
-            }
+        Future<T> future = derive();
 
+        // try to complete the other Future, when this Future will complete,
+        // and fail the new Future if this Future fails
+        if (register(value -> future.completeAfter(other, value), future::fail, future))
             return future;
-        }
+
+        // do not complete the other Future if this Future fails
+        Object state = this.state;
+        if (state instanceof Failure)
+            future.fail(((Failure) state).error);
+        // try to complete the other Future if this Future was already completed
+        else
+            future.completeAfter(other, decode(state));
+
+        return future;
     }
 
     /**
@@ -1924,7 +2436,7 @@ public class Future<T> implements Promise<T> {
      */
     @CheckReturnValue
     public boolean isCompleted() {
-        return completed;
+        return !isPending(state);
     }
 
     /**
@@ -1936,7 +2448,54 @@ public class Future<T> implements Promise<T> {
      */
     @CheckReturnValue
     public boolean isFailed() {
-        return failed;
+        return state instanceof Failure;
+    }
+
+    /**
+     * Retrieve the context, that is used to perform the asynchronous operations of this Future.
+     *
+     * @return the context of this Future, or <code>null</code> if the context is resolved for each operation
+     */
+    @CheckReturnValue
+    public @Nullable FutureContext getContext() {
+        return context;
+    }
+
+    /**
+     * Create a new, incomplete Future, that is derived from this Future, and is bound to the same context,
+     * so that the context follows the chain of the derived Futures.
+     *
+     * @param <U> the type of the derived Future
+     * @return a new Future bound to the context of this Future
+     */
+    private <U> @NotNull Future<U> derive() {
+        return new Future<>(context);
+    }
+
+    /**
+     * Create a new Future, that is bound to the context of this Future, and is completed with the specified value.
+     *
+     * @param value the completion value
+     * @param <U> the type of the derived Future
+     * @return a new completed Future bound to the context of this Future
+     */
+    private <U> @NotNull Future<U> derivedCompleted(@Nullable U value) {
+        Future<U> future = derive();
+        future.complete(value);
+        return future;
+    }
+
+    /**
+     * Create a new Future, that is bound to the context of this Future, and is failed with the specified error.
+     *
+     * @param error the completion error
+     * @param <U> the type of the derived Future
+     * @return a new failed Future bound to the context of this Future
+     */
+    private <U> @NotNull Future<U> derivedFailed(@NotNull Throwable error) {
+        Future<U> future = derive();
+        future.fail(error);
+        return future;
     }
 
     /**
@@ -1951,36 +2510,55 @@ public class Future<T> implements Promise<T> {
      */
     public @NotNull CompletableFuture<T> toJavaFuture() {
         CompletableFuture<T> future = new CompletableFuture<>();
-        synchronized (lock) {
-            // check if the Future is already completed
-            if (completed) {
-                if (failed)
-                    future.completeExceptionally(error);
-                else
-                    future.complete(value);
-                return future;
-            }
 
-            // handle pending Future completion
-            completionHandlers.add(future::complete);
-            errorHandlers.add(future::completeExceptionally);
-        }
+        // handle pending Future completion
+        if (register(future::complete, future::completeExceptionally))
+            return future;
+
+        // the Future is already completed
+        Object state = this.state;
+        if (state instanceof Failure)
+            future.completeExceptionally(((Failure) state).error);
+        else
+            future.complete(decode(state));
+
         return future;
     }
 
     /**
-     * Perform a task whilst the value is locked.
+     * Perform a task asynchronously on the executor of the context of this Future,
+     * or on the executor of the caller's context.
      *
      * @param task the task to perform
      */
-    private void executeLockedAsync(@NotNull Runnable task) {
+    private void executeAsync(@NotNull Runnable task) {
+        // restore the context of the caller around the task
+        task = ContextSnapshot.capture().wrap(task);
+
+        // use the context of the Future, if it is bound to one
+        FutureContext context = this.context;
+        if (context != null) {
+            context.execute(task);
+            return;
+        }
+
         // use the executor of the caller's context to run the task on
-        getExecutor(Thread.currentThread().getStackTrace()).execute(() -> {
-            // lock the Future operations and run the task
-            synchronized (lock) {
-                task.run();
-            }
-        });
+        getExecutor().execute(task);
+    }
+
+    /**
+     * Create an asynchronous task, that completes this Future using the specified body.
+     * <p>
+     * The task becomes the upstream of this Future, therefore cancelling the Future may interrupt the task.
+     * The body is not run at all, if the Future has been completed before the task is started.
+     *
+     * @param body the body of the task
+     * @return a new asynchronous task
+     */
+    private @NotNull Runnable task(@NotNull Runnable body) {
+        AsyncTask task = new AsyncTask(this, body);
+        upstream = task;
+        return task;
     }
 
     /**
@@ -1996,8 +2574,8 @@ public class Future<T> implements Promise<T> {
         Future<T> future = new Future<>();
 
         // set the future state
-        future.value = value;
-        future.completed = true;
+        future.state = value == null ? NULL : value;
+        future.report(future.state);
 
         return future;
     }
@@ -2014,7 +2592,8 @@ public class Future<T> implements Promise<T> {
         Future<T> future = new Future<>();
 
         // set the future state
-        future.completed = true;
+        future.state = NULL;
+        future.report(future.state);
 
         return future;
     }
@@ -2032,8 +2611,9 @@ public class Future<T> implements Promise<T> {
         Future<T> future = new Future<>();
 
         // set the future state
-        future.value = value.get();
-        future.completed = true;
+        T result = value.get();
+        future.state = result == null ? NULL : result;
+        future.report(future.state);
 
         return future;
     }
@@ -2051,9 +2631,8 @@ public class Future<T> implements Promise<T> {
         Future<T> future = new Future<>();
 
         // set the future state
-        future.error = error;
-        future.completed = true;
-        future.failed = true;
+        future.state = new Failure(error);
+        future.report(future.state);
 
         return future;
     }
@@ -2079,13 +2658,13 @@ public class Future<T> implements Promise<T> {
         Future<T> future = new Future<>();
 
         // complete the future on the executor thread
-        executor.execute(() -> {
+        executor.execute(future.task(() -> {
             try {
                 future.complete(result);
             } catch (Exception e) {
                 future.fail(e);
             }
-        });
+        }));
         return future;
 
     }
@@ -2111,12 +2690,12 @@ public class Future<T> implements Promise<T> {
         Future<T> future = new Future<>();
 
         // complete the future on the executor thread
-        executor.execute(() -> {
+        executor.execute(future.task(() -> {
             try {
                 future.complete(result.get());
             } catch (Exception ignored) {
             }
-        });
+        }));
 
         return future;
     }
@@ -2144,13 +2723,13 @@ public class Future<T> implements Promise<T> {
         Future<T> future = new Future<>();
 
         // complete the future on the executor thread
-        executor.execute(() -> {
+        executor.execute(future.task(() -> {
             try {
                 future.complete(result.get());
             } catch (Throwable e) {
                 future.fail(e);
             }
-        });
+        }));
 
         return future;
     }
@@ -2175,13 +2754,13 @@ public class Future<T> implements Promise<T> {
         Future<T> future = new Future<>();
 
         // use the executor of the caller class context to run the completion on
-        getExecutor(Thread.currentThread().getStackTrace()).execute(() -> {
+        getExecutor().execute(future.task(() -> {
             // complete the future
             try {
                 future.complete(result);
             } catch (Exception ignored) {
             }
-        });
+        }));
 
         return future;
     }
@@ -2206,13 +2785,13 @@ public class Future<T> implements Promise<T> {
         Future<T> future = new Future<>();
 
         // use the executor of the caller class context to run the completion on
-        getExecutor(Thread.currentThread().getStackTrace()).execute(() -> {
+        getExecutor().execute(future.task(() -> {
             // complete the future
             try {
                 future.complete(result.get());
             } catch (Exception ignored) {
             }
-        });
+        }));
 
         return future;
     }
@@ -2237,14 +2816,14 @@ public class Future<T> implements Promise<T> {
         Future<T> future = new Future<>();
 
         // use the executor of the caller class context to run the completion on
-        getExecutor(Thread.currentThread().getStackTrace()).execute(() -> {
+        getExecutor().execute(future.task(() -> {
             // complete the future
             try {
                 future.complete(result.get());
             } catch (Throwable e) {
                 future.fail(e);
             }
-        });
+        }));
 
         return future;
     }
@@ -2268,13 +2847,13 @@ public class Future<T> implements Promise<T> {
         Future<Void> future = new Future<>();
 
         // use the executor of the caller class context to run the completion on
-        getExecutor(Thread.currentThread().getStackTrace()).execute(() -> {
+        getExecutor().execute(future.task(() -> {
             try {
                 task.run();
                 future.complete(null);
             } catch (Exception ignored) {
             }
-        });
+        }));
 
         return future;
     }
@@ -2298,14 +2877,14 @@ public class Future<T> implements Promise<T> {
         Future<Void> future = new Future<>();
 
         // use the executor of the caller class context to run the completion on
-        getExecutor(Thread.currentThread().getStackTrace()).execute(() -> {
+        getExecutor().execute(future.task(() -> {
             try {
                 task.run();
                 future.complete(null);
             } catch (Throwable e) {
                 future.fail(e);
             }
-        });
+        }));
 
         return future;
     }
@@ -2329,13 +2908,13 @@ public class Future<T> implements Promise<T> {
         // create an empty future
         Future<Void> future = new Future<>();
 
-        executor.execute(() -> {
+        executor.execute(future.task(() -> {
             try {
                 task.run();
                 future.complete(null);
             } catch (Exception ignored) {
             }
-        });
+        }));
 
         return future;
     }
@@ -2361,13 +2940,133 @@ public class Future<T> implements Promise<T> {
         // create an empty future
         Future<Void> future = new Future<>();
 
-        executor.execute(() -> {
+        executor.execute(future.task(() -> {
             try {
                 task.run();
                 future.complete(null);
             } catch (Throwable ignored) {
             }
-        });
+        }));
+
+        return future;
+    }
+
+    /**
+     * Create a new Future, that will be completed automatically on the executor of the specified context
+     * using the specified value.
+     * <p>
+     * The created Future is bound to the context, therefore its asynchronous operations are also performed
+     * using the context.
+     *
+     * @param result the value that is used to complete the Future with
+     * @param context the context used to complete the Future on
+     * @param <T> the type of the future
+     * @return a new Future
+     */
+    @CanIgnoreReturnValue
+    public static <T> @NotNull Future<T> completeAsync(@NotNull Supplier<T> result, @NotNull FutureContext context) {
+        // create an empty future, that is bound to the context
+        Future<T> future = new Future<>(context);
+
+        // complete the future on the context thread
+        context.execute(future.task(() -> {
+            try {
+                future.complete(result.get());
+            } catch (Exception ignored) {
+            }
+        }));
+
+        return future;
+    }
+
+    /**
+     * Create a new Future, that will be completed automatically on the executor of the specified context
+     * using the specified value.
+     * <p>
+     * The created Future is bound to the context, therefore its asynchronous operations are also performed
+     * using the context.
+     * <p>
+     * If the supplier throws an exception, the Future will be completed with the exception.
+     *
+     * @param result the value that is used to complete the Future with
+     * @param context the context used to complete the Future on
+     * @param <T> the type of the future
+     * @return a new Future
+     */
+    @CanIgnoreReturnValue
+    public static <T> @NotNull Future<T> tryCompleteAsync(
+        @NotNull ThrowableSupplier<T, Throwable> result, @NotNull FutureContext context
+    ) {
+        // create an empty future, that is bound to the context
+        Future<T> future = new Future<>(context);
+
+        // complete the future on the context thread
+        context.execute(future.task(() -> {
+            try {
+                future.complete(result.get());
+            } catch (Throwable e) {
+                future.fail(e);
+            }
+        }));
+
+        return future;
+    }
+
+    /**
+     * Create a new Future, that will be completed automatically on the executor of the specified context,
+     * after running the specified task.
+     * <p>
+     * The created Future is bound to the context, therefore its asynchronous operations are also performed
+     * using the context.
+     *
+     * @param task the task to run to complete the future
+     * @param context the context used to complete the Future on
+     * @return a new Future
+     */
+    @CanIgnoreReturnValue
+    public static @NotNull Future<Void> completeAsync(@NotNull Runnable task, @NotNull FutureContext context) {
+        // create an empty future, that is bound to the context
+        Future<Void> future = new Future<>(context);
+
+        context.execute(future.task(() -> {
+            try {
+                task.run();
+                future.complete(null);
+            } catch (Exception ignored) {
+            }
+        }));
+
+        return future;
+    }
+
+    /**
+     * Create a new Future, that will be completed automatically on the executor of the specified context,
+     * after running the specified task.
+     * <p>
+     * The created Future is bound to the context, therefore its asynchronous operations are also performed
+     * using the context.
+     * <p>
+     * If the task throws an exception, the Future will be completed with the exception.
+     *
+     * @param task the task to run to complete the future
+     * @param context the context used to complete the Future on
+     * @return a new Future
+     */
+    @CanIgnoreReturnValue
+    public static @NotNull Future<Void> tryCompleteAsync(
+        @NotNull ThrowableRunnable<Throwable> task, @NotNull FutureContext context
+    ) {
+        // create an empty future, that is bound to the context
+        Future<Void> future = new Future<>(context);
+
+        context.execute(future.task(() -> {
+            try {
+                task.run();
+                future.complete(null);
+            } catch (Throwable e) {
+                future.fail(e);
+            }
+        }));
 
         return future;
     }
@@ -2435,17 +3134,7 @@ public class Future<T> implements Promise<T> {
     ) {
         Future<T> future = new Future<>();
 
-        FutureResolver<T> completer = new FutureResolver<T>() {
-            @Override
-            public boolean onComplete(@Nullable T result) {
-                return future.complete(result);
-            }
-
-            @Override
-            public boolean onFail(@NotNull Throwable error) {
-                return future.fail(error);
-            }
-        };
+        FutureResolver<T> completer = new FutureCompleter<>(future);
         callback.accept(completer);
 
         return future;
@@ -2469,17 +3158,7 @@ public class Future<T> implements Promise<T> {
     ) {
         Future<T> future = new Future<>();
 
-        FutureResolver<T> completer = new FutureResolver<T>() {
-            @Override
-            public boolean onComplete(@Nullable T result) {
-                return future.complete(result);
-            }
-
-            @Override
-            public boolean onFail(@NotNull Throwable error) {
-                return future.fail(error);
-            }
-        };
+        FutureResolver<T> completer = new FutureCompleter<>(future);
 
         try {
             callback.accept(completer);
@@ -2511,19 +3190,9 @@ public class Future<T> implements Promise<T> {
     ) {
         Future<T> future = new Future<>();
 
-        FutureResolver<T> completer = new FutureResolver<T>() {
-            @Override
-            public boolean onComplete(@Nullable T result) {
-                return future.complete(result);
-            }
-
-            @Override
-            public boolean onFail(@NotNull Throwable error) {
-                return future.fail(error);
-            }
-        };
+        FutureResolver<T> completer = new FutureCompleter<>(future);
 
-        executor.execute(() -> callback.accept(completer));
+        executor.execute(ContextSnapshot.capture().wrap(() -> callback.accept(completer)));
 
         return future;
     }
@@ -2542,7 +3211,7 @@ public class Future<T> implements Promise<T> {
      * @param <T> the type of the Future
      */
     public static <T> @NotNull Future<T> resolveAsync(@NotNull Consumer<FutureResolver<T>> callback) {
-        return resolveAsync(callback, getExecutor(Thread.currentThread().getStackTrace()));
+        return resolveAsync(callback, getExecutor());
     }
 
     /**
@@ -2566,25 +3235,15 @@ public class Future<T> implements Promise<T> {
     ) {
         Future<T> future = new Future<>();
 
-        FutureResolver<T> completer = new FutureResolver<T>() {
-            @Override
-            public boolean onComplete(@Nullable T result) {
-                return future.complete(result);
-            }
-
-            @Override
-            public boolean onFail(@NotNull Throwable error) {
-                return future.fail(error);
-            }
-        };
+        FutureResolver<T> completer = new FutureCompleter<>(future);
 
-        executor.execute(() -> {
+        executor.execute(ContextSnapshot.capture().wrap(() -> {
             try {
                 callback.accept(completer);
             } catch (Throwable e) {
                 future.fail(e);
             }
-        });
+        }));
 
         return future;
     }
@@ -2605,39 +3264,91 @@ public class Future<T> implements Promise<T> {
     public static <T> @NotNull Future<T> tryResolveAsync(
         @NotNull ThrowableConsumer<FutureResolver<T>, Throwable> callback
     ) {
-        return tryResolveAsync(callback, getExecutor(Thread.currentThread().getStackTrace()));
+        return tryResolveAsync(callback, getExecutor());
+    }
+
+    /**
+     * Create a new Future, will be asynchronously completed using the specified future completer.
+     * <p>
+     * This can be used to complete a Future from an external context, such as a callback.
+     * <p>
+     * The callback is called on the executor of the specified context with a new {@link FutureResolver} value.
+     * The created Future is bound to the context, therefore its asynchronous operations are also performed
+     * using the context.
+     *
+     * @param callback the callback to pass the Future completer to
+     * @param context the context used to complete the Future on
+     * @return a new Future
+     * @param <T> the type of the Future
+     */
+    public static <T> @NotNull Future<T> resolveAsync(
+        @NotNull Consumer<FutureResolver<T>> callback, @NotNull FutureContext context
+    ) {
+        Future<T> future = new Future<>(context);
+
+        FutureResolver<T> completer = new FutureCompleter<>(future);
+
+        context.execute(ContextSnapshot.capture().wrap(() -> callback.accept(completer)));
+
+        return future;
+    }
+
+    /**
+     * Create a new Future, will be asynchronously completed using the specified future completer.
+     * <p>
+     * This can be used to complete a Future from an external context, such as a callback.
+     * <p>
+     * The callback is called on the executor of the specified context with a new {@link FutureResolver} value.
+     * The created Future is bound to the context, therefore its asynchronous operations are also performed
+     * using the context.
+     * <p>
+     * If the callback throws an exception, the Future will be completed with the exception.
+     *
+     * @param callback the callback to pass the Future completer to
+     * @param context the context used to complete the Future on
+     * @return a new Future
+     * @param <T> the type of the Future
+     */
+    public static <T> @NotNull Future<T> tryResolveAsync(
+        @NotNull ThrowableConsumer<FutureResolver<T>, Throwable> callback, @NotNull FutureContext context
+    ) {
+        Future<T> future = new Future<>(context);
+
+        FutureResolver<T> completer = new FutureCompleter<>(future);
+
+        context.execute(ContextSnapshot.capture().wrap(() -> {
+            try {
+                callback.accept(completer);
+            } catch (Throwable e) {
+                future.fail(e);
+            }
+        }));
+
+        return future;
     }
 
     /**
      * Create a new Future, that will be completed when each of the specified futures are completed.
      * <p>
      * If any of the specified futures fail, the new Future will be failed with the exception.
+     * If no futures are specified, the new Future is completed immediately.
      * <p>
-     * The futures completion callbacks are executed parallel.
+     * Cancelling the new Future cancels the specified futures, that are not needed by anything else.
      *
      * @param futures the futures to wait for
      * @return a new Future
      */
     public static @NotNull Future<Void> all(@NotNull Future<?>... futures) {
-        Future<Void> future = new Future<>();
-        AtomicInteger counter = new AtomicInteger(futures.length);
-
-        for (Future<?> f : futures) {
-            f.then(val -> {
-                if (counter.decrementAndGet() == 0)
-                    future.complete(null);
-            }).except(future::fail);
-        }
-
-        return future;
+        return new Aggregate<Void>(futures, false, true, false).start();
     }
 
     /**
      * Create a new Future, that will be completed when each of the specified futures are completed.
      * <p>
      * If any of the specified futures fail, the new Future will be failed with the exception.
+     * If no futures are specified, the new Future is completed immediately.
      * <p>
-     * The futures completion callbacks are executed parallel.
+     * Cancelling the new Future cancels the specified futures, that are not needed by anything else.
      *
      * @param futures the futures to wait for
      * @return a new Future
@@ -2647,28 +3358,372 @@ public class Future<T> implements Promise<T> {
     }
 
     /**
-     * Resolve the executor for the specified stack trace.
+     * Create a new Future, that will be completed with the list of the completion values of the specified futures,
+     * when each of them are completed.
+     * <p>
+     * The values are ordered by the position of their futures in the collection. If any of the specified futures
+     * fail, the new Future will be failed with the first exception, after each of the futures have completed.
+     * <p>
+     * Cancelling the new Future cancels the specified futures, that are not needed by anything else.
      *
-     * @param stackTrace the stack trace of the method to be checked
-     * @return the executor for the stack trace or the global executor
+     * @param futures the futures to wait for
+     * @param <T> the type of the future values
+     * @return a new Future of the completion values
+     *
+     * @see #allOf(Collection, boolean)
      */
     @CheckReturnValue
-    private static @NotNull Executor getExecutor(@NotNull StackTraceElement @NotNull [] stackTrace) {
-        // validate that the class key and executor resolver functions are not set to null
-        Validator.notNull(contextKeyMapper, "context key mapper");
-        Validator.notNull(contextExecutorMapper, "context executor mapper");
-
-        // retrieve the global executor if the stack trace may not contain the caller class
-        if (stackTrace.length <= 2)
-            return globalExecutor;
+    public static <T> @NotNull Future<List<T>> allOf(@NotNull Collection<Future<T>> futures) {
+        return allOf(futures, false);
+    }
 
-        // resolve the class type of the method's caller
-        Class<?> type;
-        try {
-            type = Class.forName(stackTrace[2].getClassName());
-        } catch (ClassNotFoundException ignored) {
-            return globalExecutor;
-        }
+    /**
+     * Create a new Future, that will be completed with the list of the completion values of the specified futures,
+     * when each of them are completed.
+     * <p>
+     * The values are ordered by the position of their futures in the collection.
+     * <p>
+     * If <code>failFast</code> is <code>true</code>, the new Future is failed as soon as any of the specified
+     * futures fail, and the remaining futures are cancelled, as their results are no longer needed. Otherwise,
+     * the new Future waits for each of the futures, and fails with the first exception.
+     *
+     * @param futures the futures to wait for
+     * @param failFast <code>true</code> if the first failure should fail the new Future immediately
+     * @param <T> the type of the future values
+     * @return a new Future of the completion values
+     */
+    @CheckReturnValue
+    public static <T> @NotNull Future<List<T>> allOf(@NotNull Collection<Future<T>> futures, boolean failFast) {
+        return new Aggregate<List<T>>(futures.toArray(new Future<?>[0]), true, failFast, failFast).start();
+    }
+
+    /**
+     * Create a new Future, that will be completed with the result of the first completed future of the specified
+     * futures, regardless of whether it has completed successfully or unsuccessfully.
+     * <p>
+     * If no futures are specified, the new Future is failed with an {@link IllegalArgumentException}.
+     * <p>
+     * Cancelling the new Future cancels the specified futures, that are not needed by anything else.
+     *
+     * @param futures the futures to wait for
+     * @return a new Future
+     */
+    @CheckReturnValue
+    public static @NotNull Future<Object> any(@NotNull Future<?>... futures) {
+        return new Race<>(futures, false, false).start();
+    }
+
+    /**
+     * Create a new Future, that will be completed with the result of the first completed future of the specified
+     * futures, regardless of whether it has completed successfully or unsuccessfully.
+     * <p>
+     * If no futures are specified, the new Future is failed with an {@link IllegalArgumentException}.
+     * <p>
+     * Cancelling the new Future cancels the specified futures, that are not needed by anything else.
+     *
+     * @param futures the futures to wait for
+     * @return a new Future
+     */
+    @CheckReturnValue
+    public static @NotNull Future<Object> any(@NotNull Collection<Future<?>> futures) {
+        return any(futures.toArray(new Future<?>[0]));
+    }
+
+    /**
+     * Create a new Future, that will be completed with the result of the first completed future of the specified
+     * futures, regardless of whether it has completed successfully or unsuccessfully.
+     * <p>
+     * If no futures are specified, the new Future is failed with an {@link IllegalArgumentException}.
+     *
+     * @param futures the futures to race
+     * @param <T> the type of the futures
+     * @return a new Future
+     *
+     * @see #race(Collection, boolean)
+     */
+    @CheckReturnValue
+    public static <T> @NotNull Future<T> race(@NotNull Collection<Future<T>> futures) {
+        return race(futures, false);
+    }
+
+    /**
+     * Create a new Future, that will be completed with the result of the first completed future of the specified
+     * futures, regardless of whether it has completed successfully or unsuccessfully.
+     * <p>
+     * If <code>cancelLosers</code> is <code>true</code>, the remaining futures are cancelled, after the race
+     * has been settled, as their results are no longer needed.
+     * <p>
+     * If no futures are specified, the new Future is failed with an {@link IllegalArgumentException}.
+     *
+     * @param futures the futures to race
+     * @param cancelLosers <code>true</code> if the losing futures should be cancelled
+     * @param <T> the type of the futures
+     * @return a new Future
+     */
+    @CheckReturnValue
+    public static <T> @NotNull Future<T> race(@NotNull Collection<Future<T>> futures, boolean cancelLosers) {
+        return new Race<T>(futures.toArray(new Future<?>[0]), false, cancelLosers).start();
+    }
+
+    /**
+     * Create a new Future, that will be completed with the value of the first successfully completed future
+     * of the specified futures.
+     * <p>
+     * If each of the futures fail, the new Future is failed with a {@link FutureAggregateException}, that holds
+     * the errors of the futures. If no futures are specified, the new Future is failed with an
+     * {@link IllegalArgumentException}.
+     *
+     * @param futures the futures to race
+     * @param <T> the type of the futures
+     * @return a new Future
+     *
+     * @see #firstSuccessful(Collection, boolean)
+     */
+    @CheckReturnValue
+    public static <T> @NotNull Future<T> firstSuccessful(@NotNull Collection<Future<T>> futures) {
+        return firstSuccessful(futures, false);
+    }
+
+    /**
+     * Create a new Future, that will be completed with the value of the first successfully completed future
+     * of the specified futures.
+     * <p>
+     * If <code>cancelLosers</code> is <code>true</code>, the remaining futures are cancelled, after the first
+     * successful completion, as their results are no longer needed.
+     * <p>
+     * If each of the futures fail, the new Future is failed with a {@link FutureAggregateException}, that holds
+     * the errors of the futures. If no futures are specified, the new Future is failed with an
+     * {@link IllegalArgumentException}.
+     *
+     * @param futures the futures to race
+     * @param cancelLosers <code>true</code> if the losing futures should be cancelled
+     * @param <T> the type of the futures
+     * @return a new Future
+     */
+    @CheckReturnValue
+    public static <T> @NotNull Future<T> firstSuccessful(@NotNull Collection<Future<T>> futures, boolean cancelLosers) {
+        return new Race<T>(futures.toArray(new Future<?>[0]), true, cancelLosers).start();
+    }
+
+    /**
+     * Create a new Future, that will be completed with the first successful result of the specified task, that is
+     * speculatively executed multiple times to cut the tail latency of slow operations.
+     * <p>
+     * The first attempt is performed immediately on the executor of the caller's context. If it hasn't completed
+     * after the specified delay, another attempt is started, until <code>maxAttempts</code> attempts are running.
+     * If every running attempt has failed, the next attempt is started without waiting for the delay.
+     * The attempts are scheduled on the shared timer of the context.
+     * <p>
+     * The first successful attempt completes the new Future, and the losing attempts are cancelled, therefore
+     * their threads are interrupted, if they are still running. If each of the attempts fail, the new Future
+     * is failed with a {@link FutureAggregateException}, that holds the errors of the attempts.
+     * <p>
+     * Cancelling the new Future cancels the running attempts, and the attempts, that are not yet started.
+     * <pre>
+     * Future.hedge(() -> replica.read(key), 50, TimeUnit.MILLISECONDS, 3)
+     *     .then(value -> System.out.println("read " + value));
+     * </pre>
+     *
+     * @param task the task, that produces the completion value
+     * @param delay the delay between starting the attempts
+     * @param unit the unit of the delay
+     * @param maxAttempts the maximum number of attempts
+     * @param <T> the type of the Future
+     * @return a new Future
+     *
+     * @throws IllegalArgumentException the delay is negative, or the maximum number of attempts is less than 1
+     */
+    @CanIgnoreReturnValue
+    public static <T> @NotNull Future<T> hedge(
+        @NotNull ThrowableSupplier<T, Throwable> task, long delay, @NotNull TimeUnit unit, int maxAttempts
+    ) {
+        if (delay < 0)
+            throw new IllegalArgumentException("Hedge delay must not be negative");
+        if (maxAttempts < 1)
+            throw new IllegalArgumentException("Hedge must have at least one attempt");
+
+        return new Hedge<>(task, unit.toNanos(delay), maxAttempts, getExecutor(), getContextTimer()).start();
+    }
+
+    /**
+     * Create a new Future, that will be completed with the result of the Future produced by the specified operation,
+     * retrying the operation according to the specified policy, if it fails.
+     * <p>
+     * The first attempt is performed immediately on the caller thread. The retries are scheduled on the shared
+     * timer of the context, therefore no thread is blocked whilst waiting for the backoff delay, and they are
+     * performed on the executor of the context, or on the global executor. If the operation throws an exception,
+     * instead of returning a Future, the attempt is considered to be failed.
+     * <p>
+     * If the policy does not allow retrying anymore, the new Future is failed with the error of the last attempt.
+     * Cancelling the new Future cancels the running attempt, and stops retrying.
+     *
+     * @param operation the operation, that produces the Future of an attempt
+     * @param policy the policy, that determines whether and when to retry
+     * @param <T> the type of the Future
+     * @return a new Future
+     *
+     * @see #retryAsync(ThrowableSupplier, RetryPolicy)
+     */
+    @CanIgnoreReturnValue
+    public static <T> @NotNull Future<T> retry(
+        @NotNull ThrowableSupplier<@NotNull Future<T>, Throwable> operation, @NotNull RetryPolicy policy
+    ) {
+        return new Retry<>(operation, policy, getContextTimer(), getTimerExecutor(null)).start();
+    }
+
+    /**
+     * Create a new Future, that will be completed with the result of the specified task, retrying the task
+     * according to the specified policy, if it fails.
+     * <p>
+     * Each attempt is performed on the executor of the caller's context. The retries are scheduled on the shared
+     * timer of the context, therefore no thread is blocked whilst waiting for the backoff delay.
+     * <p>
+     * If the policy does not allow retrying anymore, the new Future is failed with the error of the last attempt.
+     * Cancelling the new Future cancels the running attempt, and stops retrying.
+     * <pre>
+     * Future.retryAsync(() -> client.fetch(id), RetryPolicy.fixed(1, TimeUnit.SECONDS))
+     *     .then(response -> handle(response));
+     * </pre>
+     *
+     * @param task the task, that produces the completion value
+     * @param policy the policy, that determines whether and when to retry
+     * @param <T> the type of the Future
+     * @return a new Future
+     */
+    @CanIgnoreReturnValue
+    public static <T> @NotNull Future<T> retryAsync(
+        @NotNull ThrowableSupplier<T, Throwable> task, @NotNull RetryPolicy policy
+    ) {
+        Executor executor = getExecutor();
+        return retry(() -> tryCompleteAsync(task, executor), policy);
+    }
+
+    /**
+     * Create a new Future, that maps each element of the specified items to a Future using the specified mapper,
+     * keeping at most the specified number of the mapped Futures in flight at the same time.
+     * <p>
+     * The iterator of the items is consumed lazily, the next element is only requested, when a mapped Future has
+     * completed, and there is room for another one. Therefore, the items may be a large, or even a generated sequence,
+     * without flooding the executor with every task at once.
+     * <p>
+     * The new Future is completed with the results in the order of the items. If any of the mapped Futures fail,
+     * or the mapper throws an exception, the new Future fails immediately, and the remaining in-flight Futures are
+     * cancelled. Cancelling the new Future cancels the in-flight Futures, and stops consuming the items.
+     * <pre>
+     * Future.mapConcurrent(userIds, id -> Future.tryCompleteAsync(() -> database.loadUser(id)), 64)
+     *     .then(users -> System.out.println("loaded " + users.size() + " users"));
+     * </pre>
+     *
+     * @param items the items to be mapped
+     * @param mapper the function, that produces the Future of an item
+     * @param maxInFlight the maximum number of the pending mapped Futures
+     * @param <T> the type of the items
+     * @param <R> the type of the results
+     * @return a new Future of the results
+     *
+     * @throws IllegalArgumentException the maximum number of the in-flight Futures is less than 1
+     */
+    @CanIgnoreReturnValue
+    public static <T, R> @NotNull Future<List<R>> mapConcurrent(
+        @NotNull Iterable<T> items, @NotNull ThrowableFunction<T, @NotNull Future<R>, Throwable> mapper, int maxInFlight
+    ) {
+        return mapConcurrent(items, mapper, maxInFlight, true);
+    }
+
+    /**
+     * Create a new Future, that maps each element of the specified items to a Future using the specified mapper,
+     * keeping at most the specified number of the mapped Futures in flight at the same time.
+     * <p>
+     * The iterator of the items is consumed lazily, the next element is only requested, when a mapped Future has
+     * completed, and there is room for another one.
+     * <p>
+     * If <code>ordered</code> is <code>true</code>, the results are listed in the order of the items, otherwise
+     * they are listed in the order of completion, which spares tracking the index of each item.
+     * <p>
+     * If any of the mapped Futures fail, or the mapper throws an exception, the new Future fails immediately,
+     * and the remaining in-flight Futures are cancelled. Cancelling the new Future cancels the in-flight Futures,
+     * and stops consuming the items.
+     *
+     * @param items the items to be mapped
+     * @param mapper the function, that produces the Future of an item
+     * @param maxInFlight the maximum number of the pending mapped Futures
+     * @param ordered <code>true</code> to list the results in the order of the items,
+     * <code>false</code> to list them in the order of completion
+     * @param <T> the type of the items
+     * @param <R> the type of the results
+     * @return a new Future of the results
+     *
+     * @throws IllegalArgumentException the maximum number of the in-flight Futures is less than 1
+     */
+    @CanIgnoreReturnValue
+    public static <T, R> @NotNull Future<List<R>> mapConcurrent(
+        @NotNull Iterable<T> items, @NotNull ThrowableFunction<T, @NotNull Future<R>, Throwable> mapper,
+        int maxInFlight, boolean ordered
+    ) {
+        if (maxInFlight < 1)
+            throw new IllegalArgumentException("Maximum in-flight Futures must be positive");
+
+        return new MapConcurrent<>(items.iterator(), mapper, maxInFlight, ordered).start();
+    }
+
+    /**
+     * Create a new Future, that runs the specified task on the executor of the caller's context, as soon as
+     * the specified rate limiter grants a permit for it.
+     * <p>
+     * Waiting for the permit does not occupy any thread, the task is only submitted to the executor, when the permit
+     * is granted. Cancelling the new Future before that, stops waiting for the permit, and the task is never run.
+     * <pre>
+     * AsyncRateLimiter limiter = AsyncRateLimiter.create(20);
+     *
+     * Future.throttled(() -> api.lookup(name), limiter)
+     *     .then(result -> System.out.println("found " + result));
+     * </pre>
+     *
+     * @param task the task, that produces the completion value
+     * @param limiter the rate limiter, that grants the permits of the task
+     * @param <T> the type of the Future
+     * @return a new Future
+     */
+    @CanIgnoreReturnValue
+    public static <T> @NotNull Future<T> throttled(
+        @NotNull ThrowableSupplier<T, Throwable> task, @NotNull AsyncRateLimiter limiter
+    ) {
+        Executor executor = getExecutor();
+        return limiter.acquire().transformAsync(ignored -> tryCompleteAsync(task, executor));
+    }
+
+    /**
+     * Resolve the executor for the context of the caller class.
+     * <p>
+     * If a {@link FutureContext} is installed for the current thread, its executor is returned without
+     * resolving the caller. If the {@link #contextLookup} is set to {@link ContextLookup#GLOBAL}, the caller is not resolved at all,
+     * and the global executor is returned immediately.
+     * <p>
+     * Components, that run tasks on behalf of their creator later, from threads of their own, should resolve
+     * the executor once, when they are created, because the caller cannot be resolved from a timer thread.
+     *
+     * @return the executor for the caller context or the global executor
+     */
+    @CheckReturnValue
+    public static @NotNull Executor getExecutor() {
+        // use the context, that is installed for the current thread
+        FutureContext current = FutureContext.current();
+        if (current != null)
+            return current.getExecutor();
+
+        // skip the context lookup, if it is disabled
+        if (contextLookup == ContextLookup.GLOBAL)
+            return globalExecutor;
+
+        // validate that the class key and executor resolver functions are not set to null
+        Validator.notNull(contextKeyMapper, "context key mapper");
+        Validator.notNull(contextExecutorMapper, "context executor mapper");
+
+        // resolve the class type of the method's caller
+        // retrieve the global executor if the caller class could not be resolved
+        Class<?> type = CallerResolver.resolve();
+        if (type == null)
+            return globalExecutor;
 
         // resolve the key to cache the class executor with
         Object key = contextKeyMapper.apply(type);
@@ -2692,6 +3747,59 @@ public class Future<T> implements Promise<T> {
         return globalExecutor;
     }
 
+    /**
+     * Resolve the timer of the context, that is installed for the current thread.
+     *
+     * @return the timer of the current context or the shared timer
+     */
+    @CheckReturnValue
+    static @NotNull ScheduledExecutorService getContextTimer() {
+        FutureContext current = FutureContext.current();
+        return current != null ? current.getTimer() : timer;
+    }
+
+    /**
+     * Resolve the executor, that the tasks of the timers hand the completions off to.
+     * <p>
+     * The caller is not resolved, as the executor is usually resolved on the hot path of creating a Future.
+     *
+     * @param context the context of the Future, or <code>null</code> to use the context of the current thread
+     * @return the executor of the context or the global executor
+     */
+    @CheckReturnValue
+    static @NotNull Executor getTimerExecutor(@Nullable FutureContext context) {
+        if (context == null)
+            context = FutureContext.current();
+        return context != null ? context.getExecutor() : globalExecutor;
+    }
+
+    /**
+     * Schedule the specified task on the specified timer, and hand it off to the specified executor, when it is due.
+     * <p>
+     * The timers have a single thread, that is shared by every Future, therefore the completions, and the handlers
+     * they trigger, must not run on it, otherwise a slow handler would delay every other timer task. If the executor
+     * rejects the task, it runs on the timer thread instead, so that the completion is not lost.
+     *
+     * @param timer the timer to schedule the task on
+     * @param executor the executor, that runs the task
+     * @param task the task to run after the delay
+     * @param delay the delay of the task
+     * @param unit the unit of the delay
+     * @return the scheduled hand-off of the task
+     */
+    static @NotNull ScheduledFuture<?> schedule(
+        @NotNull ScheduledExecutorService timer, @NotNull Executor executor, @NotNull Runnable task,
+        long delay, @NotNull TimeUnit unit
+    ) {
+        return timer.schedule(() -> {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        }, delay, unit);
+    }
+
     /**
      * Convert a Java {@link CompletableFuture} to a Future.
      * <p>
@@ -2713,4 +3821,1437 @@ public class Future<T> implements Promise<T> {
         });
         return newFuture;
     }
+
+    /**
+     * Represents a node of the lock-free stack of the handlers, that are registered to a pending Future.
+     * <p>
+     * A single node holds both the successful and the unsuccessful completion handler of a registration.
+     */
+    private static final class Completion implements Upstream {
+        /**
+         * The successful completion handler, or <code>null</code> if the registration ignores completions.
+         */
+        private final @Nullable Consumer<?> completionHandler;
+
+        /**
+         * The failed completion handler, or <code>null</code> if the registration ignores failures.
+         */
+        private final @Nullable Consumer<?> errorHandler;
+
+        /**
+         * The next node of the stack, which was registered before this node.
+         */
+        private @Nullable Completion next;
+
+        /**
+         * The Future, that the node is registered to, or <code>null</code> if the node does not complete
+         * a dependent Future.
+         */
+        private @Nullable Future<?> source;
+
+        /**
+         * Indicates, whether the dependent Future of the node has been cancelled,
+         * therefore the handlers should not be called anymore.
+         */
+        private volatile boolean released;
+
+        /**
+         * Create a new completion node.
+         *
+         * @param completionHandler the successful completion handler
+         * @param errorHandler the failed completion handler
+         */
+        private Completion(@Nullable Consumer<?> completionHandler, @Nullable Consumer<?> errorHandler) {
+            // bind the handlers to the context of the registering thread
+            ContextSnapshot snapshot = ContextSnapshot.capture();
+            this.completionHandler = snapshot.wrap(completionHandler);
+            this.errorHandler = snapshot.wrap(errorHandler);
+        }
+
+        /**
+         * Release the node from its source Future, because the dependent Future has been cancelled.
+         *
+         * @param mayInterruptIfRunning ignored, the source is notified by the caller
+         * @return the upstream of the source, if the source has been cancelled as well
+         */
+        @Override
+        public @Nullable Upstream cancel(boolean mayInterruptIfRunning) {
+            Future<?> source = this.source;
+            return source != null ? source.release(this) : null;
+        }
+
+        /**
+         * Reverse the order of the specified stack in place, so that the nodes are ordered by their registration.
+         * <p>
+         * This must only be called by the thread, that has detached the stack from the Future.
+         *
+         * @param head the head of the stack
+         * @return the head of the reversed stack
+         */
+        private static @Nullable Completion reverse(@Nullable Completion head) {
+            Completion previous = null;
+            while (head != null) {
+                Completion next = head.next;
+                head.next = previous;
+                previous = head;
+                head = next;
+            }
+            return previous;
+        }
+    }
+
+    /**
+     * Represents the source of the completion of a Future, that should be notified, when the Future is cancelled.
+     */
+    private interface Upstream {
+        /**
+         * The source, that does not need to be notified about the cancellation.
+         */
+        @NotNull Upstream NONE = mayInterruptIfRunning -> null;
+
+        /**
+         * Notify the source, that the Future, which it completes, has been cancelled.
+         *
+         * @param mayInterruptIfRunning <code>true</code> if the thread completing the Future should be interrupted
+         * @return the next source, that should be notified as a result, or <code>null</code> if there is none
+         */
+        @Nullable Upstream cancel(boolean mayInterruptIfRunning);
+    }
+
+    /**
+     * Represents an asynchronous task, that completes a Future, and can be interrupted, when the Future is cancelled.
+     */
+    private static final class AsyncTask implements Runnable, Upstream {
+        /**
+         * The atomic updater used to perform lock-free modifications of the {@link #runner} of the task.
+         */
+        private static final @NotNull AtomicReferenceFieldUpdater<AsyncTask, Object> RUNNER =
+            AtomicReferenceFieldUpdater.newUpdater(AsyncTask.class, Object.class, "runner");
+
+        /**
+         * The placeholder runner state, that indicates, that the task has finished running.
+         */
+        private static final @NotNull Object DONE = new Object();
+
+        /**
+         * The placeholder runner state, that indicates, that the runner thread is being interrupted.
+         */
+        private static final @NotNull Object INTERRUPTING = new Object();
+
+        /**
+         * The Future, that is completed by the task.
+         */
+        private final @NotNull Future<?> future;
+
+        /**
+         * The body of the task, that completes the Future.
+         */
+        private final @NotNull Runnable body;
+
+        /**
+         * The thread, that is running the task, or <code>null</code> if the task hasn't been started yet.
+         * After the task has finished, this is {@link #DONE}.
+         */
+        private volatile @Nullable Object runner;
+
+        /**
+         * Create a new asynchronous task.
+         *
+         * @param future the Future, that is completed by the task
+         * @param body the body of the task
+         */
+        private AsyncTask(@NotNull Future<?> future, @NotNull Runnable body) {
+            this.future = future;
+            // bind the body to the context of the submitting thread
+            this.body = ContextSnapshot.capture().wrap(body);
+        }
+
+        /**
+         * Run the body of the task, unless the Future has already been completed, or cancelled.
+         */
+        @Override
+        public void run() {
+            // do not run the body, if the result is not needed anymore
+            Thread thread = Thread.currentThread();
+            if (future.isCompleted() || !RUNNER.compareAndSet(this, null, thread))
+                return;
+
+            try {
+                body.run();
+            } finally {
+                // wait for a pending interrupt, so that it cannot leak to the next task of the thread
+                if (!RUNNER.compareAndSet(this, thread, DONE)) {
+                    while (runner == INTERRUPTING)
+                        SpinWait.onSpinWait();
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        /**
+         * Interrupt the thread of the task, if the task is running, and interrupting is allowed.
+         *
+         * @param mayInterruptIfRunning <code>true</code> if the thread of the task should be interrupted
+         */
+        @Override
+        public @Nullable Upstream cancel(boolean mayInterruptIfRunning) {
+            Object runner = this.runner;
+            if (!mayInterruptIfRunning || !(runner instanceof Thread))
+                return null;
+
+            // interrupt the thread, only if it is still running the task
+            if (RUNNER.compareAndSet(this, runner, INTERRUPTING)) {
+                try {
+                    ((Thread) runner).interrupt();
+                } finally {
+                    this.runner = DONE;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Represents a resolver, that completes a Future, and runs the registered actions upon its cancellation.
+     *
+     * @param <T> the type of the future value
+     */
+    private static final class FutureCompleter<T> extends FutureResolver<T> implements Upstream {
+        /**
+         * The Future, that is completed by the resolver.
+         */
+        private final @NotNull Future<T> future;
+
+        /**
+         * The actions, that are run when the Future is cancelled, or <code>null</code> if they have already run.
+         */
+        private @Nullable Collection<@NotNull Runnable> cancelActions = new ArrayList<>(1);
+
+        /**
+         * Create a new future resolver.
+         *
+         * @param future the Future, that is completed by the resolver
+         */
+        private FutureCompleter(@NotNull Future<T> future) {
+            this.future = future;
+            future.upstream = this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean onComplete(@Nullable T value) {
+            return future.complete(value);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean onFail(@NotNull Throwable error) {
+            return future.fail(error);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isCancelled() {
+            return future.isCancelled();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onCancel(@NotNull Runnable action) {
+            synchronized (this) {
+                // register the action, if the Future hasn't been cancelled yet
+                Collection<Runnable> actions = cancelActions;
+                if (actions != null) {
+                    actions.add(action);
+                    return;
+                }
+            }
+            // the Future has already been cancelled, run the action immediately
+            action.run();
+        }
+
+        /**
+         * Run the registered cancellation actions.
+         *
+         * @param mayInterruptIfRunning ignored, the resolver does not own a thread to interrupt
+         * @return always <code>null</code>, the resolver has no source to notify
+         */
+        @Override
+        public @Nullable Upstream cancel(boolean mayInterruptIfRunning) {
+            Collection<Runnable> actions;
+            synchronized (this) {
+                actions = cancelActions;
+                cancelActions = null;
+            }
+            if (actions == null)
+                return null;
+            for (Runnable action : actions) {
+                try {
+                    action.run();
+                } catch (Throwable ignored) {
+                    // the future is already cancelled, the error cannot be propagated
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Represents the shared state of a combinator, that tracks the completion of its input futures.
+     * <p>
+     * Each input is tracked by a single handler node, that reports the completion along with the position
+     * of the input. Cancelling the combined Future releases the handler nodes of the inputs.
+     *
+     * @param <R> the type of the combined Future
+     */
+    private abstract static class Combinator<R> implements Upstream {
+        /**
+         * The Future, that is completed by the combinator.
+         */
+        protected final @NotNull Future<R> future = new Future<>();
+
+        /**
+         * The input futures to track.
+         */
+        protected final @NotNull Future<?> @NotNull [] inputs;
+
+        /**
+         * The handler nodes, that were registered to the pending inputs.
+         */
+        private final @Nullable Completion @NotNull [] nodes;
+
+        /**
+         * Create a new combinator.
+         *
+         * @param inputs the input futures to track
+         */
+        protected Combinator(@NotNull Future<?> @NotNull [] inputs) {
+            this.inputs = inputs;
+            this.nodes = new Completion[inputs.length];
+        }
+
+        /**
+         * Start tracking each of the inputs.
+         *
+         * @return the combined Future
+         */
+        protected final @NotNull Future<R> start() {
+            // there is nothing to track
+            if (inputs.length == 0) {
+                empty();
+                return future;
+            }
+
+            for (int i = 0; i < inputs.length; i++) {
+                // stop registering handlers, once the result has been decided
+                if (future.isCompleted())
+                    break;
+                track(inputs[i], i);
+            }
+
+            // expose the tracker for the cancellation, after each node has been registered
+            future.upstream = this;
+            if (future.isCancelled())
+                cancel(false);
+            return future;
+        }
+
+        /**
+         * Register a handler node to the specified input, or handle its result, if it is already completed.
+         *
+         * @param input the input future
+         * @param index the position of the input
+         */
+        private void track(@NotNull Future<?> input, int index) {
+            Consumer<Object> onComplete = value -> complete(index, value);
+            Consumer<Throwable> onFail = error -> fail(index, error);
+            Completion node = new Completion(onComplete, onFail);
+            node.source = input;
+            nodes[index] = node;
+            if (input.push(node))
+                return;
+
+            // the input is already completed
+            nodes[index] = null;
+            Object state = input.state;
+            if (state instanceof Failure)
+                fail(index, ((Failure) state).error);
+            else
+                complete(index, decode(state));
+        }
+
+        /**
+         * Cancel each of the inputs, except for the specified one.
+         *
+         * @param except the input, that should not be cancelled, or <code>null</code> to cancel every input
+         */
+        protected final void cancelInputs(@Nullable Future<?> except) {
+            for (Future<?> input : inputs) {
+                if (input != except)
+                    input.cancel(true);
+            }
+        }
+
+        /**
+         * Handle the case, when there are no inputs to track.
+         */
+        protected abstract void empty();
+
+        /**
+         * Handle the successful completion of the specified input.
+         *
+         * @param index the position of the input
+         * @param value the completion value
+         */
+        protected abstract void complete(int index, @Nullable Object value);
+
+        /**
+         * Handle the failure of the specified input.
+         *
+         * @param index the position of the input
+         * @param error the error of the input
+         */
+        protected abstract void fail(int index, @NotNull Throwable error);
+
+        /**
+         * Release the handler nodes of the inputs, because the combined Future has been cancelled.
+         *
+         * @param mayInterruptIfRunning <code>true</code> if the threads completing the inputs should be interrupted
+         * @return always <code>null</code>, the inputs are notified by the combinator itself
+         */
+        @Override
+        public @Nullable Upstream cancel(boolean mayInterruptIfRunning) {
+            for (Completion node : nodes) {
+                if (node != null)
+                    propagate(node.cancel(mayInterruptIfRunning), mayInterruptIfRunning);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Represents the shared state of an all-of combinator, that waits for each of its inputs.
+     * <p>
+     * The completion values are stored in a preallocated array indexed by the position of the input.
+     * The aggregate Future is completed exactly once.
+     *
+     * @param <R> the type of the aggregate Future
+     */
+    private static final class Aggregate<R> extends Combinator<R> {
+        /**
+         * The atomic updater used to count down the {@link #remaining} inputs.
+         */
+        @SuppressWarnings("rawtypes")
+        private static final @NotNull AtomicIntegerFieldUpdater<Aggregate> REMAINING =
+            AtomicIntegerFieldUpdater.newUpdater(Aggregate.class, "remaining");
+
+        /**
+         * The atomic updater used to record the first {@link #error} of the inputs.
+         */
+        @SuppressWarnings("rawtypes")
+        private static final @NotNull AtomicReferenceFieldUpdater<Aggregate, Throwable> ERROR =
+            AtomicReferenceFieldUpdater.newUpdater(Aggregate.class, Throwable.class, "error");
+
+        /**
+         * The completion values of the inputs, or <code>null</code> if the values are not collected.
+         */
+        private final @Nullable Object @Nullable [] values;
+
+        /**
+         * Indicates, whether the first failure should fail the aggregate Future immediately.
+         */
+        private final boolean failFast;
+
+        /**
+         * Indicates, whether the remaining inputs should be cancelled, when the aggregate Future fails fast.
+         */
+        private final boolean cancelRemaining;
+
+        /**
+         * The number of the inputs, that haven't been completed yet.
+         */
+        private volatile int remaining;
+
+        /**
+         * The first error, that occurred whilst completing the inputs.
+         */
+        private volatile @Nullable Throwable error;
+
+        /**
+         * Create a new aggregate tracker.
+         *
+         * @param inputs the input futures to wait for
+         * @param collect <code>true</code> if the completion values should be collected
+         * @param failFast <code>true</code> if the first failure should fail the aggregate Future immediately
+         * @param cancelRemaining <code>true</code> if the remaining inputs should be cancelled upon failing fast
+         */
+        private Aggregate(
+            @NotNull Future<?> @NotNull [] inputs, boolean collect, boolean failFast, boolean cancelRemaining
+        ) {
+            super(inputs);
+            this.values = collect ? new Object[inputs.length] : null;
+            this.failFast = failFast;
+            this.cancelRemaining = cancelRemaining;
+            this.remaining = inputs.length;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void empty() {
+            finish();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void complete(int index, @Nullable Object value) {
+            Object[] values = this.values;
+            if (values != null)
+                values[index] = value;
+            if (REMAINING.decrementAndGet(this) == 0)
+                finish();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void fail(int index, @NotNull Throwable error) {
+            // fail the aggregate immediately, and cancel the remaining inputs, as they are no longer needed
+            if (failFast) {
+                if (future.fail(error) && cancelRemaining)
+                    cancelInputs(null);
+                return;
+            }
+
+            // keep the first error, and wait for the remaining inputs
+            ERROR.compareAndSet(this, null, error);
+            if (REMAINING.decrementAndGet(this) == 0)
+                finish();
+        }
+
+        /**
+         * Complete the aggregate Future, after each of the inputs have been completed.
+         */
+        @SuppressWarnings("unchecked")
+        private void finish() {
+            Throwable error = this.error;
+            if (error != null) {
+                future.fail(error);
+                return;
+            }
+            Object[] values = this.values;
+            future.complete(values != null ? (R) Collections.unmodifiableList(Arrays.asList(values)) : null);
+        }
+    }
+
+    /**
+     * Represents the shared state of a racing combinator, that is completed by the first of its inputs.
+     * <p>
+     * If only successful completions are accepted, the errors of the inputs are stored in a preallocated array
+     * indexed by the position of the input, and they are aggregated, if each of the inputs fail.
+     *
+     * @param <R> the type of the winning Future
+     */
+    private static final class Race<R> extends Combinator<R> {
+        /**
+         * The atomic updater used to count down the {@link #remaining} inputs.
+         */
+        @SuppressWarnings("rawtypes")
+        private static final @NotNull AtomicIntegerFieldUpdater<Race> REMAINING =
+            AtomicIntegerFieldUpdater.newUpdater(Race.class, "remaining");
+
+        /**
+         * The errors of the failed inputs, or <code>null</code> if failures also settle the race.
+         */
+        private final @Nullable Throwable @Nullable [] errors;
+
+        /**
+         * Indicates, whether the losing inputs should be cancelled, after the race has been settled.
+         */
+        private final boolean cancelLosers;
+
+        /**
+         * The number of the inputs, that haven't failed yet.
+         */
+        private volatile int remaining;
+
+        /**
+         * Create a new race tracker.
+         *
+         * @param inputs the input futures to race
+         * @param successOnly <code>true</code> if only the successful completions should settle the race
+         * @param cancelLosers <code>true</code> if the losing inputs should be cancelled
+         */
+        private Race(@NotNull Future<?> @NotNull [] inputs, boolean successOnly, boolean cancelLosers) {
+            super(inputs);
+            this.errors = successOnly ? new Throwable[inputs.length] : null;
+            this.cancelLosers = cancelLosers;
+            this.remaining = inputs.length;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void empty() {
+            future.fail(new IllegalArgumentException("No futures to race"));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void complete(int index, @Nullable Object value) {
+            if (future.complete((R) value) && cancelLosers)
+                cancelInputs(inputs[index]);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void fail(int index, @NotNull Throwable error) {
+            // settle the race with the first failure, if failures are accepted
+            Throwable[] errors = this.errors;
+            if (errors == null) {
+                if (future.fail(error) && cancelLosers)
+                    cancelInputs(inputs[index]);
+                return;
+            }
+
+            // keep the error, and fail the race, if each of the inputs have failed
+            errors[index] = error;
+            if (REMAINING.decrementAndGet(this) == 0)
+                future.fail(new FutureAggregateException("Each of the futures have failed", Arrays.asList(errors)));
+        }
+    }
+
+    /**
+     * Represents the shared state of a hedged task, that starts speculative attempts after a delay,
+     * and completes with the first successful attempt.
+     *
+     * @param <T> the type of the task result
+     */
+    private static final class Hedge<T> implements Upstream {
+        /**
+         * The atomic updater used to count the {@link #launched} attempts.
+         */
+        @SuppressWarnings("rawtypes")
+        private static final @NotNull AtomicIntegerFieldUpdater<Hedge> LAUNCHED =
+            AtomicIntegerFieldUpdater.newUpdater(Hedge.class, "launched");
+
+        /**
+         * The atomic updater used to count the {@link #failed} attempts.
+         */
+        @SuppressWarnings("rawtypes")
+        private static final @NotNull AtomicIntegerFieldUpdater<Hedge> FAILED =
+            AtomicIntegerFieldUpdater.newUpdater(Hedge.class, "failed");
+
+        /**
+         * The Future, that is completed by the first successful attempt.
+         */
+        private final @NotNull Future<T> future = new Future<>();
+
+        /**
+         * The task, that produces the completion value.
+         */
+        private final @NotNull ThrowableSupplier<T, Throwable> task;
+
+        /**
+         * The delay between starting the attempts, in nanoseconds.
+         */
+        private final long delay;
+
+        /**
+         * The executor, that performs the attempts.
+         */
+        private final @NotNull Executor executor;
+
+        /**
+         * The scheduler, that starts the delayed attempts.
+         */
+        private final @NotNull ScheduledExecutorService timer;
+
+        /**
+         * The futures of the started attempts, indexed by the order of the attempts.
+         */
+        private final @Nullable Future<T> @NotNull [] attempts;
+
+        /**
+         * The errors of the failed attempts, indexed by the order of the attempts.
+         */
+        private final @Nullable Throwable @NotNull [] errors;
+
+        /**
+         * The number of the attempts, that have been started.
+         */
+        private volatile int launched;
+
+        /**
+         * The number of the attempts, that have failed.
+         */
+        private volatile int failed;
+
+        /**
+         * The scheduled start of the next attempt, or <code>null</code> if there is none.
+         */
+        private volatile @Nullable ScheduledFuture<?> scheduled;
+
+        /**
+         * Create a new hedged task.
+         *
+         * @param task the task, that produces the completion value
+         * @param delay the delay between starting the attempts, in nanoseconds
+         * @param maxAttempts the maximum number of attempts
+         * @param executor the executor, that performs the attempts
+         * @param timer the scheduler, that starts the delayed attempts
+         */
+        @SuppressWarnings("unchecked")
+        private Hedge(
+            @NotNull ThrowableSupplier<T, Throwable> task, long delay, int maxAttempts,
+            @NotNull Executor executor, @NotNull ScheduledExecutorService timer
+        ) {
+            this.task = task;
+            this.delay = delay;
+            this.executor = executor;
+            this.timer = timer;
+            this.attempts = (Future<T>[]) new Future<?>[maxAttempts];
+            this.errors = new Throwable[maxAttempts];
+        }
+
+        /**
+         * Start the first attempt.
+         *
+         * @return the Future of the hedged task
+         */
+        private @NotNull Future<T> start() {
+            future.upstream = this;
+            launch(0);
+            return future;
+        }
+
+        /**
+         * Start the attempt of the specified index, and schedule the one after it, unless the result has already
+         * been decided, or the attempt has already been started.
+         * <p>
+         * The attempt is claimed atomically, therefore the scheduled start of an attempt, that has been started
+         * early, because the previous attempts have failed, does not start another attempt ahead of its delay.
+         *
+         * @param index the index of the attempt to start
+         * @return <code>true</code> if the attempt has been started, <code>false</code> otherwise
+         */
+        @CanIgnoreReturnValue
+        private boolean launch(int index) {
+            if (future.isCompleted() || index >= attempts.length || !LAUNCHED.compareAndSet(this, index, index + 1))
+                return false;
+
+            // create the attempt, and track its completion
+            Future<T> attempt = new Future<>();
+            attempts[index] = attempt;
+            attempt.register(this::succeed, error -> fail(index, error));
+
+            // schedule the next attempt, in case this one turns out to be slow
+            if (index + 1 < attempts.length) {
+                Runnable next = ContextSnapshot.capture().wrap(() -> launch(index + 1));
+                scheduled = timer.schedule(next, delay, TimeUnit.NANOSECONDS);
+            }
+
+            try {
+                executor.execute(attempt.task(() -> {
+                    try {
+                        attempt.complete(task.get());
+                    } catch (Throwable e) {
+                        attempt.fail(e);
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                // a rejected attempt counts as a failed one
+                attempt.fail(e);
+            }
+
+            // the result might have been decided, before the attempt was published
+            if (future.isCompleted())
+                attempt.cancel(true);
+            return true;
+        }
+
+        /**
+         * Complete the hedged task with the result of the winning attempt, and cancel the losing attempts.
+         *
+         * @param value the result of the attempt
+         */
+        private void succeed(@Nullable T value) {
+            if (future.complete(value))
+                cancelAttempts(true);
+        }
+
+        /**
+         * Record the failure of the specified attempt.
+         *
+         * @param index the index of the attempt
+         * @param error the error of the attempt
+         */
+        private void fail(int index, @NotNull Throwable error) {
+            errors[index] = error;
+            int failed = FAILED.incrementAndGet(this);
+
+            // fail the hedged task, if each of the attempts have failed
+            if (failed == attempts.length) {
+                future.fail(new FutureAggregateException("Each of the attempts have failed", Arrays.asList(errors)));
+                return;
+            }
+
+            // start the next attempt immediately, if there are no attempts in flight,
+            // and cancel its scheduled start, which would not start it anymore
+            ScheduledFuture<?> scheduled = this.scheduled;
+            int launched = this.launched;
+            if (failed == launched && launch(launched) && scheduled != null)
+                scheduled.cancel(false);
+        }
+
+        /**
+         * Cancel the scheduled attempt, and each of the started attempts, that haven't completed yet.
+         *
+         * @param mayInterruptIfRunning <code>true</code> if the threads of the attempts should be interrupted
+         */
+        private void cancelAttempts(boolean mayInterruptIfRunning) {
+            ScheduledFuture<?> scheduled = this.scheduled;
+            if (scheduled != null)
+                scheduled.cancel(false);
+            for (Future<T> attempt : attempts) {
+                if (attempt != null)
+                    attempt.cancel(mayInterruptIfRunning);
+            }
+        }
+
+        /**
+         * Cancel the attempts, because the Future of the hedged task has been cancelled.
+         *
+         * @param mayInterruptIfRunning <code>true</code> if the threads of the attempts should be interrupted
+         * @return always <code>null</code>, the attempts are cancelled by the hedge itself
+         */
+        @Override
+        public @Nullable Upstream cancel(boolean mayInterruptIfRunning) {
+            cancelAttempts(mayInterruptIfRunning);
+            return null;
+        }
+    }
+
+    /**
+     * Represents the shared state of a retried operation, that schedules the attempts according to a policy.
+     *
+     * @param <T> the type of the operation result
+     */
+    private static final class Retry<T> implements Upstream {
+        /**
+         * The Future, that is completed by the first successful attempt.
+         */
+        private final @NotNull Future<T> future = new Future<>();
+
+        /**
+         * The operation, that produces the Future of an attempt.
+         */
+        private final @NotNull ThrowableSupplier<@NotNull Future<T>, Throwable> operation;
+
+        /**
+         * The policy, that determines whether and when to retry.
+         */
+        private final @NotNull RetryPolicy policy;
+
+        /**
+         * The scheduler, that starts the delayed attempts.
+         */
+        private final @NotNull ScheduledExecutorService timer;
+
+        /**
+         * The executor, that performs the delayed attempts, instead of the thread of the timer.
+         */
+        private final @NotNull Executor executor;
+
+        /**
+         * The number of the attempts, that have been started.
+         */
+        private int attempts;
+
+        /**
+         * The previous delay between the attempts in milliseconds.
+         */
+        private long delay;
+
+        /**
+         * The Future of the running attempt, or <code>null</code> if no attempt is running.
+         */
+        private volatile @Nullable Future<T> attempt;
+
+        /**
+         * The scheduled start of the next attempt, or <code>null</code> if there is none.
+         */
+        private volatile @Nullable ScheduledFuture<?> scheduled;
+
+        /**
+         * Create a new retried operation.
+         *
+         * @param operation the operation, that produces the Future of an attempt
+         * @param policy the policy, that determines whether and when to retry
+         * @param timer the scheduler, that starts the delayed attempts
+         * @param executor the executor, that performs the delayed attempts
+         */
+        private Retry(
+            @NotNull ThrowableSupplier<@NotNull Future<T>, Throwable> operation, @NotNull RetryPolicy policy,
+            @NotNull ScheduledExecutorService timer, @NotNull Executor executor
+        ) {
+            this.operation = operation;
+            this.policy = policy;
+            this.timer = timer;
+            this.executor = executor;
+        }
+
+        /**
+         * Start the first attempt.
+         *
+         * @return the Future of the retried operation
+         */
+        private @NotNull Future<T> start() {
+            future.upstream = this;
+            run();
+            return future;
+        }
+
+        /**
+         * Perform the next attempt of the operation.
+         * <p>
+         * The attempts never overlap, therefore the counters are only accessed by a single thread at a time.
+         */
+        private void run() {
+            if (future.isCompleted())
+                return;
+            attempts++;
+
+            // obtain the future of the attempt, the operation throwing counts as a failed attempt
+            Future<T> attempt;
+            try {
+                attempt = operation.get();
+            } catch (Throwable e) {
+                fail(e);
+                return;
+            }
+            this.attempt = attempt;
+
+            if (!attempt.register(this::complete, this::fail)) {
+                // the attempt is already completed
+                Object state = attempt.state;
+                if (state instanceof Failure)
+                    fail(((Failure) state).error);
+                else
+                    complete(decode(state));
+                return;
+            }
+
+            // the operation might have been cancelled, before the attempt was published
+            if (future.isCancelled())
+                attempt.cancel(true);
+        }
+
+        /**
+         * Complete the retried operation with the result of the successful attempt.
+         *
+         * @param value the result of the attempt
+         */
+        private void complete(@Nullable T value) {
+            if (future.complete(value))
+                policy.getListener().onSuccess(attempts);
+        }
+
+        /**
+         * Handle the failure of the running attempt, and schedule the next attempt, if the policy allows it.
+         *
+         * @param error the error of the attempt
+         */
+        private void fail(@NotNull Throwable error) {
+            this.attempt = null;
+            if (future.isCompleted())
+                return;
+
+            // give up, if the policy does not allow retrying anymore
+            if (!policy.shouldRetry(attempts, error)) {
+                if (future.fail(error))
+                    policy.getListener().onFailure(attempts, error);
+                return;
+            }
+
+            // schedule the next attempt after the backoff delay
+            delay = policy.nextDelay(attempts, delay);
+            policy.getListener().onRetry(attempts, error, delay);
+            Runnable next = ContextSnapshot.capture().wrap(this::run);
+            scheduled = schedule(timer, executor, next, delay, TimeUnit.MILLISECONDS);
+
+            // the operation might have been cancelled, before the attempt was scheduled
+            if (future.isCancelled())
+                scheduled.cancel(false);
+        }
+
+        /**
+         * Stop retrying, and cancel the running attempt, because the Future of the operation has been cancelled.
+         *
+         * @param mayInterruptIfRunning <code>true</code> if the thread of the running attempt should be interrupted
+         * @return always <code>null</code>, the attempt is cancelled by the retry itself
+         */
+        @Override
+        public @Nullable Upstream cancel(boolean mayInterruptIfRunning) {
+            ScheduledFuture<?> scheduled = this.scheduled;
+            if (scheduled != null)
+                scheduled.cancel(false);
+            Future<T> attempt = this.attempt;
+            if (attempt != null)
+                attempt.cancel(mayInterruptIfRunning);
+            return null;
+        }
+    }
+
+    /**
+     * Represents a bounded-concurrency mapping of the elements of an iterator to Futures.
+     * <p>
+     * The iterator is only consumed by the drain loop, that is entered by a single thread at a time. The completion
+     * of a mapped Future re-enters the loop, or signals the thread, that is already running it, therefore Futures,
+     * that are completed synchronously by the mapper, do not deepen the stack.
+     *
+     * @param <T> the type of the items
+     * @param <R> the type of the results
+     */
+    private static final class MapConcurrent<T, R> implements Upstream {
+        /**
+         * The atomic updater used to count the pending requests of the {@link #drain()} loop.
+         */
+        @SuppressWarnings("rawtypes")
+        private static final @NotNull AtomicIntegerFieldUpdater<MapConcurrent> WIP =
+            AtomicIntegerFieldUpdater.newUpdater(MapConcurrent.class, "wip");
+
+        /**
+         * The Future, that is completed with the results of the mapped Futures.
+         */
+        private final @NotNull Future<List<R>> future = new Future<>();
+
+        /**
+         * The iterator of the items to be mapped.
+         */
+        private final @NotNull Iterator<T> iterator;
+
+        /**
+         * The function, that produces the Future of an item.
+         */
+        private final @NotNull ThrowableFunction<T, @NotNull Future<R>, Throwable> mapper;
+
+        /**
+         * The maximum number of the pending mapped Futures.
+         */
+        private final int maxInFlight;
+
+        /**
+         * Indicates, whether the results are listed in the order of the items.
+         */
+        private final boolean ordered;
+
+        /**
+         * The results of the mapped Futures, guarded by this object.
+         */
+        private final @NotNull List<R> results = new ArrayList<>();
+
+        /**
+         * The pending mapped Futures, indexed by the position of their items, guarded by this object.
+         */
+        private final @NotNull Map<@NotNull Integer, @NotNull Future<R>> inFlight = new HashMap<>();
+
+        /**
+         * The number of the items, that have been taken from the iterator, guarded by this object.
+         */
+        private int started;
+
+        /**
+         * Indicates, whether the iterator has no more items, guarded by this object.
+         */
+        private boolean exhausted;
+
+        /**
+         * The number of the pending requests of the drain loop.
+         */
+        private volatile int wip;
+
+        /**
+         * Create a new bounded-concurrency mapping.
+         *
+         * @param iterator the iterator of the items to be mapped
+         * @param mapper the function, that produces the Future of an item
+         * @param maxInFlight the maximum number of the pending mapped Futures
+         * @param ordered <code>true</code> to list the results in the order of the items
+         */
+        private MapConcurrent(
+            @NotNull Iterator<T> iterator, @NotNull ThrowableFunction<T, @NotNull Future<R>, Throwable> mapper,
+            int maxInFlight, boolean ordered
+        ) {
+            this.iterator = iterator;
+            this.mapper = mapper;
+            this.maxInFlight = maxInFlight;
+            this.ordered = ordered;
+        }
+
+        /**
+         * Start mapping the first items.
+         *
+         * @return the Future of the results
+         */
+        private @NotNull Future<List<R>> start() {
+            future.upstream = this;
+            drain();
+            return future;
+        }
+
+        /**
+         * Map the next items, until the limit of the in-flight Futures is reached, or the iterator is exhausted.
+         * <p>
+         * If the loop is already running on another thread, or further up the stack, the request is only counted,
+         * and the running loop performs another pass.
+         */
+        private void drain() {
+            if (WIP.getAndIncrement(this) != 0)
+                return;
+
+            int missed = 1;
+            do {
+                while (!future.isCompleted()) {
+                    // stop, if there is no room for another future
+                    synchronized (this) {
+                        if (exhausted || inFlight.size() >= maxInFlight)
+                            break;
+                    }
+
+                    // take the next item, the iterator is only accessed by the drain loop
+                    T item;
+                    try {
+                        if (!iterator.hasNext()) {
+                            finish();
+                            break;
+                        }
+                        item = iterator.next();
+                    } catch (Throwable e) {
+                        fail(e);
+                        return;
+                    }
+
+                    // map the item to its future, the mapper throwing fails the mapping
+                    Future<R> mapped;
+                    try {
+                        mapped = mapper.apply(item);
+                    } catch (Throwable e) {
+                        fail(e);
+                        return;
+                    }
+
+                    // reserve the slot of the result, before the future may complete
+                    int index;
+                    synchronized (this) {
+                        index = started++;
+                        if (ordered)
+                            results.add(null);
+                        inFlight.put(index, mapped);
+                    }
+
+                    if (!mapped.register(value -> complete(index, value), this::fail)) {
+                        // the future is already completed
+                        Object state = mapped.state;
+                        if (state instanceof Failure) {
+                            fail(((Failure) state).error);
+                            return;
+                        }
+                        complete(index, decode(state));
+                    }
+                }
+                missed = WIP.addAndGet(this, -missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Store the result of the mapped Future of the specified item, and continue mapping the next items.
+         *
+         * @param index the position of the item
+         * @param value the result of the mapped Future
+         */
+        private void complete(int index, @Nullable R value) {
+            boolean done;
+            synchronized (this) {
+                if (inFlight.remove(index) == null)
+                    return;
+                if (ordered)
+                    results.set(index, value);
+                else
+                    results.add(value);
+                done = exhausted && inFlight.isEmpty();
+            }
+
+            if (done)
+                future.complete(Collections.unmodifiableList(results));
+            else
+                drain();
+        }
+
+        /**
+         * Mark the iterator as exhausted, and complete the mapping, if there are no more pending Futures.
+         */
+        private void finish() {
+            boolean done;
+            synchronized (this) {
+                exhausted = true;
+                done = inFlight.isEmpty();
+            }
+            if (done)
+                future.complete(Collections.unmodifiableList(results));
+        }
+
+        /**
+         * Fail the mapping with the specified error, and cancel the remaining in-flight Futures.
+         *
+         * @param error the error of the mapped Future, or the mapper
+         */
+        private void fail(@NotNull Throwable error) {
+            if (future.fail(error))
+                cancel(true);
+        }
+
+        /**
+         * Stop consuming the items, and cancel the in-flight Futures.
+         *
+         * @param mayInterruptIfRunning <code>true</code> if the threads of the in-flight Futures should be interrupted
+         * @return always <code>null</code>, the in-flight Futures are cancelled by the mapping itself
+         */
+        @Override
+        public @Nullable Upstream cancel(boolean mayInterruptIfRunning) {
+            List<Future<R>> pending;
+            synchronized (this) {
+                exhausted = true;
+                pending = new ArrayList<>(inFlight.values());
+                inFlight.clear();
+            }
+            for (Future<R> mapped : pending)
+                mapped.cancel(mayInterruptIfRunning);
+            return null;
+        }
+    }
+
+    /**
+     * Represents the global listener and leak detector, that are replaced together, so that they can be read
+     * using a single volatile read.
+     */
+    private static final class Instrumentation {
+        /**
+         * The instrumentation, that has neither a listener, nor a leak detector.
+         */
+        private static final @NotNull Instrumentation NONE = new Instrumentation(null, null);
+
+        /**
+         * The global listener, or <code>null</code> if the instrumentation is disabled.
+         */
+        private final @Nullable FutureListener listener;
+
+        /**
+         * The leak detector, or <code>null</code> if the leak detection is disabled.
+         */
+        private final @Nullable FutureLeakDetector leakDetector;
+
+        /**
+         * Create a new instrumentation.
+         *
+         * @param listener the global listener
+         * @param leakDetector the leak detector
+         */
+        private Instrumentation(@Nullable FutureListener listener, @Nullable FutureLeakDetector leakDetector) {
+            this.listener = listener;
+            this.leakDetector = leakDetector;
+        }
+    }
+
+    /**
+     * Represents the instrumentation of a Future, that reports its lifecycle to a {@link FutureListener},
+     * and to a {@link FutureLeakDetector}, if the Future is sampled.
+     * <p>
+     * A probe is only allocated, if a listener or a leak detector is installed, when the Future is created.
+     * Otherwise, the cost of the instrumentation is the volatile read of the global {@link #instrumentation}.
+     */
+    private static final class Probe {
+        /**
+         * The listener, that is notified about the lifecycle of the Future, or <code>null</code> if there is none.
+         */
+        private final @Nullable FutureListener listener;
+
+        /**
+         * The tracker of the leak detector, or <code>null</code> if the Future is not sampled.
+         */
+        private final FutureLeakDetector.@Nullable Leak leak;
+
+        /**
+         * The time in nanoseconds, when the Future was created.
+         */
+        private final long created;
+
+        /**
+         * Create a new probe.
+         *
+         * @param listener the listener of the Future
+         * @param leak the tracker of the leak detector
+         */
+        private Probe(@Nullable FutureListener listener, FutureLeakDetector.@Nullable Leak leak) {
+            this.listener = listener;
+            this.leak = leak;
+            this.created = System.nanoTime();
+        }
+
+        /**
+         * Create a probe for the specified Future, and report its creation, if a listener is installed.
+         *
+         * @param future the created Future
+         * @param context the context of the Future, that may override the global listener
+         * @return a new probe, or <code>null</code> if neither a listener, nor a leak detector is installed
+         */
+        private static @Nullable Probe attach(@NotNull Future<?> future, @Nullable FutureContext context) {
+            Instrumentation instrumentation = Future.instrumentation;
+            FutureListener listener = context != null ? context.getListener() : null;
+            if (listener == null)
+                listener = instrumentation.listener;
+
+            // track the Future, if it is sampled by the leak detector
+            FutureLeakDetector detector = instrumentation.leakDetector;
+            FutureLeakDetector.Leak leak = detector != null ? detector.track(future) : null;
+            if (listener == null && leak == null)
+                return null;
+
+            if (listener != null) {
+                try {
+                    listener.onCreate(future);
+                } catch (Throwable ignored) {
+                    // the listener must not prevent creating the future
+                }
+            }
+            return new Probe(listener, leak);
+        }
+
+        /**
+         * Report the completion of the specified Future.
+         *
+         * @param future the completed Future
+         * @param result the encoded completion value or the {@link Failure} of the Future
+         */
+        private void report(@NotNull Future<?> future, @NotNull Object result) {
+            // cancellations are intentional, they need not be observed
+            Throwable error = result instanceof Failure ? ((Failure) result).error : null;
+            boolean cancelled = error instanceof CancellationException;
+            if (leak != null) {
+                if (error == null || cancelled)
+                    leak.complete();
+                else
+                    leak.fail(error);
+            }
+
+            if (listener == null)
+                return;
+            long nanos = System.nanoTime() - created;
+            try {
+                if (error == null)
+                    listener.onComplete(future, nanos);
+                else if (cancelled)
+                    listener.onCancel(future, nanos);
+                else
+                    listener.onFail(future, error, nanos);
+            } catch (Throwable ignored) {
+                // the listener must not prevent completing the future
+            }
+        }
+
+        /**
+         * Record, that the failure of the Future is observed.
+         */
+        private void observe() {
+            if (leak != null)
+                leak.observe();
+        }
+    }
+
+    /**
+     * Represents the per-thread queue of the completion handlers, that are waiting to be called.
+     * <p>
+     * The queue holds pairs of a completed Future and the stack of its handlers.
+     */
+    private static final class Trampoline {
+        /**
+         * The queue of the completed Futures and their handler stacks.
+         */
+        private final @NotNull ArrayDeque<@NotNull Object> queue = new ArrayDeque<>();
+
+        /**
+         * Indicates, whether the thread is currently running the dispatch loop.
+         */
+        private boolean running;
+
+        /**
+         * Call the queued handlers, including the ones queued by the handlers themselves, until the queue is empty.
+         */
+        private void drain() {
+            Object next;
+            while ((next = queue.poll()) != null)
+                ((Future<?>) next).handle((Completion) queue.poll());
+        }
+    }
+
+    /**
+     * Represents a node of the lock-free stack of the threads, that are waiting for the completion of a Future.
+     */
+    private static final class Waiter {
+        /**
+         * The waiting thread, or <code>null</code> if the thread has been woken up or it has stopped waiting.
+         */
+        private volatile @Nullable Thread thread;
+
+        /**
+         * The next node of the stack, which started waiting before this node.
+         */
+        private volatile @Nullable Waiter next;
+
+        /**
+         * Create a new waiter node.
+         *
+         * @param thread the waiting thread
+         */
+        private Waiter(@NotNull Thread thread) {
+            this.thread = thread;
+        }
+    }
+
+    /**
+     * Represents the state of a Future, that was completed unsuccessfully.
+     */
+    private static final class Failure {
+        /**
+         * The error that occurred whilst executing and caused a future failure.
+         */
+        private final @NotNull Throwable error;
+
+        /**
+         * Create a new failure state.
+         *
+         * @param error the completion error
+         */
+        private Failure(@NotNull Throwable error) {
+            this.error = error;
+        }
+    }
 }
@@ -0,0 +1,40 @@
+package com.atlas.futura.concurrent.future;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents a future exception caused by the failure of each of the futures of a combinator,
+ * such as {@link Future#firstSuccessful(java.util.Collection)}.
+ * <p>
+ * The errors of the futures are attached as suppressed exceptions as well, so that they are printed
+ * along with the stack trace of this exception.
+ */
+@Getter
+public class FutureAggregateException extends FutureExecutionException {
+    /**
+     * The serialization version of the exception.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The errors of the failed futures, ordered by the position of the futures.
+     */
+    private final @NotNull List<@NotNull Throwable> errors;
+
+    /**
+     * Initialize the future aggregate exception.
+     *
+     * @param message the exception cause description
+     * @param errors the errors of the failed futures
+     */
+    public FutureAggregateException(@NotNull String message, @NotNull List<@NotNull Throwable> errors) {
+        super(message);
+        this.errors = Collections.unmodifiableList(errors);
+        for (Throwable error : errors)
+            addSuppressed(error);
+    }
+}
@@ -0,0 +1,33 @@
+package com.atlas.futura.concurrent.future;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Represents a future exception caused by cancelling a {@link Future} before it could complete.
+ * <p>
+ * The exception extends {@link CancellationException}, so that it can be handled the same way as
+ * the cancellation of other Java futures.
+ */
+public class FutureCancellationException extends CancellationException {
+    /**
+     * The serialization version of the exception.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Initialize the future cancellation exception.
+     */
+    public FutureCancellationException() {
+    }
+
+    /**
+     * Initialize the future cancellation exception.
+     *
+     * @param message the exception cause description
+     */
+    public FutureCancellationException(@NotNull String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,227 @@
+package com.atlas.futura.concurrent.future;
+
+import com.google.errorprone.annotations.CheckReturnValue;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents an explicit execution context of {@link Future} operations, that binds an executor, a timer and
+ * a default timeout together.
+ * <p>
+ * A context can be captured and passed to the {@link Future} factory methods explicitly, or it can be installed
+ * for the current thread using {@link #enter()}. Asynchronous operations resolve the installed context before
+ * falling back to the caller class lookup, therefore modules, that bind their context once, do not pay for
+ * resolving the executor on every call.
+ * <p>
+ * Tasks, that are executed by a context, run with the context installed, so that the continuations they create
+ * are dispatched on the same context.
+ * <pre>
+ * FutureContext context = FutureContext.of(pluginExecutor)
+ *     .withDefaultTimeout(3, TimeUnit.SECONDS);
+ *
+ * Future.completeAsync(() -> loadUser(id), context)
+ *     .timeout()
+ *     .thenAsync(user -> greet(user));
+ * </pre>
+ *
+ * @author AdvancedAntiSkid
+ *
+ * @since 1.0
+ */
+@Getter
+public final class FutureContext {
+    /**
+     * The context, that is installed for the current thread.
+     */
+    private static final @NotNull ThreadLocal<@Nullable FutureContext> CURRENT = new ThreadLocal<>();
+
+    /**
+     * The executor, that is used to perform the asynchronous tasks of the context.
+     */
+    private final @NotNull Executor executor;
+
+    /**
+     * The scheduler, that is used to run the delayed tasks of the context, such as timeouts.
+     */
+    private final @NotNull ScheduledExecutorService timer;
+
+    /**
+     * The default timeout in milliseconds, that is applied by {@link Future#timeout()}.
+     * The value of <code>0</code> indicates, that there is no default timeout.
+     */
+    private final long defaultTimeout;
+
+    /**
+     * The listener, that is notified about the lifecycle of the Futures bound to this context, overriding the
+     * global listener, or <code>null</code> if the global listener should be used.
+     */
+    private final @Nullable FutureListener listener;
+
+    /**
+     * Create a new future context.
+     *
+     * @param executor the executor of the asynchronous tasks
+     * @param timer the scheduler of the delayed tasks
+     * @param defaultTimeout the default timeout in milliseconds
+     * @param listener the listener of the Futures of the context
+     */
+    private FutureContext(
+        @NotNull Executor executor, @NotNull ScheduledExecutorService timer, long defaultTimeout,
+        @Nullable FutureListener listener
+    ) {
+        this.executor = executor;
+        this.timer = timer;
+        this.defaultTimeout = defaultTimeout;
+        this.listener = listener;
+    }
+
+    /**
+     * Create a new context, that will perform its asynchronous tasks on the specified executor.
+     * <p>
+     * The context uses the shared timer of the {@link Future}, and it does not have a default timeout.
+     *
+     * @param executor the executor of the asynchronous tasks
+     * @return a new future context
+     */
+    @CheckReturnValue
+    public static @NotNull FutureContext of(@NotNull Executor executor) {
+        return new FutureContext(executor, Future.getTimer(), 0L, null);
+    }
+
+    /**
+     * Create a copy of this context, that uses the specified scheduler for the delayed tasks.
+     *
+     * @param timer the scheduler of the delayed tasks
+     * @return a new future context
+     */
+    @CheckReturnValue
+    public @NotNull FutureContext withTimer(@NotNull ScheduledExecutorService timer) {
+        return new FutureContext(executor, timer, defaultTimeout, listener);
+    }
+
+    /**
+     * Create a copy of this context, that uses the specified default timeout.
+     * <p>
+     * The timeout of <code>0</code> indicates, that there is no default timeout.
+     *
+     * @param timeout the default timeout
+     * @param unit the unit of the timeout
+     * @return a new future context
+     */
+    @CheckReturnValue
+    public @NotNull FutureContext withDefaultTimeout(long timeout, @NotNull TimeUnit unit) {
+        if (timeout < 0)
+            throw new IllegalArgumentException("Default timeout must not be negative");
+        return new FutureContext(executor, timer, unit.toMillis(timeout), listener);
+    }
+
+    /**
+     * Create a copy of this context, that notifies the specified listener about the lifecycle of the Futures,
+     * that are bound to the context, instead of the global listener of {@link Future}.
+     *
+     * @param listener the listener of the Futures of the context
+     * @return a new future context
+     */
+    @CheckReturnValue
+    public @NotNull FutureContext withListener(@NotNull FutureListener listener) {
+        return new FutureContext(executor, timer, defaultTimeout, listener);
+    }
+
+    /**
+     * Execute the specified task on the executor of this context, with this context installed for the thread
+     * of the task.
+     *
+     * @param task the task to execute
+     */
+    public void execute(@NotNull Runnable task) {
+        executor.execute(() -> run(task));
+    }
+
+    /**
+     * Run the specified task on the current thread, with this context installed for the duration of the task.
+     *
+     * @param task the task to run
+     */
+    public void run(@NotNull Runnable task) {
+        FutureContext previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            task.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Install this context for the current thread, until the returned scope is closed.
+     * <p>
+     * The scope should be used in a try-with-resources block, so that the previous context is restored.
+     * <pre>
+     * try (FutureContext.Scope ignored = context.enter()) {
+     *     Future.completeAsync(() -> doSomething()); // runs on the executor of the context
+     * }
+     * </pre>
+     *
+     * @return the scope of the installed context
+     */
+    @CheckReturnValue
+    public @NotNull Scope enter() {
+        FutureContext previous = CURRENT.get();
+        CURRENT.set(this);
+        return new Scope(previous);
+    }
+
+    /**
+     * Retrieve the context, that is installed for the current thread.
+     *
+     * @return the current context, or <code>null</code> if no context is installed
+     */
+    @CheckReturnValue
+    public static @Nullable FutureContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Restore the specified context for the current thread.
+     *
+     * @param previous the context to restore, or <code>null</code> to clear the current context
+     */
+    private static void restore(@Nullable FutureContext previous) {
+        if (previous == null)
+            CURRENT.remove();
+        else
+            CURRENT.set(previous);
+    }
+
+    /**
+     * Represents a scope, in which a {@link FutureContext} is installed for the current thread.
+     */
+    public static final class Scope implements AutoCloseable {
+        /**
+         * The context, that was installed before entering the scope.
+         */
+        private final @Nullable FutureContext previous;
+
+        /**
+         * Create a new context scope.
+         *
+         * @param previous the context, that was installed before entering the scope
+         */
+        private Scope(@Nullable FutureContext previous) {
+            this.previous = previous;
+        }
+
+        /**
+         * Exit the scope, and restore the context, that was installed before entering the scope.
+         */
+        @Override
+        public void close() {
+            restore(previous);
+        }
+    }
+}
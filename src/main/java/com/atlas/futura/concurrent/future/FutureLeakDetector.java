@@ -0,0 +1,264 @@
+package com.atlas.futura.concurrent.future;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Represents a sampling detector, that reports the {@link Future}s, which have been garbage-collected
+ * without being completed, such as the Futures of a {@link FutureResolver}, that forgot to call back,
+ * and the failed Futures, which have been garbage-collected without their error being observed.
+ * <p>
+ * The failure of a Future is observed, if a failure handler is registered on it, including the handlers of the
+ * derived Futures, that take over the failure, or if the error is retrieved using {@link Future#get()}.
+ * <p>
+ * Only the sampled Futures are tracked, and their creation site is only captured for them, therefore the overhead
+ * can be bounded by the sample rate. The detector is held together with the global {@link FutureListener},
+ * therefore while neither is installed, the cost is a single volatile read per created Future.
+ * <pre>
+ * Future.setLeakDetector(new FutureLeakDetector(0.01));
+ * </pre>
+ *
+ * @author AdvancedAntiSkid
+ *
+ * @since 1.0
+ */
+public final class FutureLeakDetector {
+    /**
+     * The queue of the tracked Futures, that have been garbage-collected.
+     */
+    private static final @NotNull ReferenceQueue<Future<?>> QUEUE = new ReferenceQueue<>();
+
+    static {
+        // start the thread, that reports the collected Futures
+        Thread reaper = new Thread(FutureLeakDetector::reap, "futura-leak-detector");
+        reaper.setDaemon(true);
+        reaper.start();
+    }
+
+    /**
+     * The probability of tracking a created Future, between <code>0</code> and <code>1</code>.
+     */
+    @Getter
+    private final double sampleRate;
+
+    /**
+     * The handler, that is called with the detected leaks.
+     */
+    private final @NotNull Consumer<@NotNull FutureLeakException> reporter;
+
+    /**
+     * The tracked Futures, that have not been disposed yet. This keeps the references reachable until
+     * their Futures are collected.
+     */
+    private final @NotNull Set<@NotNull Leak> tracked = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The counter of the Futures, that have been collected without being completed.
+     */
+    private final @NotNull LongAdder leaked = new LongAdder();
+
+    /**
+     * The counter of the Futures, that have been collected without their failure being observed.
+     */
+    private final @NotNull LongAdder unobserved = new LongAdder();
+
+    /**
+     * Create a new leak detector, that prints the detected leaks to the standard error.
+     *
+     * @param sampleRate the probability of tracking a created Future, between <code>0</code> and <code>1</code>
+     */
+    public FutureLeakDetector(double sampleRate) {
+        this(sampleRate, leak -> leak.printStackTrace());
+    }
+
+    /**
+     * Create a new leak detector.
+     *
+     * @param sampleRate the probability of tracking a created Future, between <code>0</code> and <code>1</code>
+     * @param reporter the handler, that is called with the detected leaks on the thread of the detector
+     */
+    public FutureLeakDetector(double sampleRate, @NotNull Consumer<@NotNull FutureLeakException> reporter) {
+        if (sampleRate < 0.0 || sampleRate > 1.0)
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1");
+        this.sampleRate = sampleRate;
+        this.reporter = reporter;
+    }
+
+    /**
+     * Retrieve the number of the Futures, that have been garbage-collected without being completed.
+     *
+     * @return the number of the leaked Futures
+     */
+    public long getLeaked() {
+        return leaked.sum();
+    }
+
+    /**
+     * Retrieve the number of the failed Futures, that have been garbage-collected without their error
+     * being observed.
+     *
+     * @return the number of the unobserved failures
+     */
+    public long getUnobservedFailures() {
+        return unobserved.sum();
+    }
+
+    /**
+     * Start tracking the specified Future, if it is sampled.
+     *
+     * @param future the created Future
+     * @return the tracker of the Future, or <code>null</code> if the Future is not sampled
+     */
+    @Nullable Leak track(@NotNull Future<?> future) {
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate)
+            return null;
+
+        Leak leak = new Leak(this, future);
+        tracked.add(leak);
+        return leak;
+    }
+
+    /**
+     * Report the collected Futures, that have not been disposed, for the lifetime of the application.
+     */
+    private static void reap() {
+        while (true) {
+            Reference<? extends Future<?>> reference;
+            try {
+                reference = QUEUE.remove();
+            } catch (InterruptedException e) {
+                continue;
+            }
+            ((Leak) reference).report();
+        }
+    }
+
+    /**
+     * Represents the tracker of a sampled Future, that is enqueued, when the Future is garbage-collected.
+     */
+    static final class Leak extends PhantomReference<Future<?>> {
+        /**
+         * The detector, that tracks the Future.
+         */
+        private final @NotNull FutureLeakDetector detector;
+
+        /**
+         * The exception, that captured the creation site of the Future.
+         */
+        private final @NotNull Throwable site;
+
+        /**
+         * The failure of the Future, or <code>null</code> if the Future has not failed.
+         */
+        private volatile @Nullable Throwable error;
+
+        /**
+         * Indicates, whether the failure of the Future has been observed.
+         */
+        private volatile boolean observed;
+
+        /**
+         * Create a new tracker.
+         *
+         * @param detector the detector, that tracks the Future
+         * @param future the tracked Future
+         */
+        private Leak(@NotNull FutureLeakDetector detector, @NotNull Future<?> future) {
+            super(future, QUEUE);
+            this.detector = detector;
+            this.site = new Throwable();
+        }
+
+        /**
+         * Record the successful completion, or the cancellation of the Future.
+         */
+        void complete() {
+            dispose();
+        }
+
+        /**
+         * Record the failure of the Future.
+         *
+         * @param error the failure of the Future
+         */
+        void fail(@NotNull Throwable error) {
+            this.error = error;
+            // the failure might have been observed before it happened
+            if (observed)
+                dispose();
+        }
+
+        /**
+         * Record, that the failure of the Future has been observed.
+         */
+        void observe() {
+            if (observed)
+                return;
+            observed = true;
+            // the Future might have already failed
+            if (error != null)
+                dispose();
+        }
+
+        /**
+         * Stop tracking the Future, because it has been completed properly.
+         */
+        private void dispose() {
+            if (detector.tracked.remove(this))
+                clear();
+        }
+
+        /**
+         * Report the Future, which has been garbage-collected, unless it has been disposed.
+         */
+        private void report() {
+            if (!detector.tracked.remove(this))
+                return;
+
+            Throwable error = this.error;
+            FutureLeakException leak;
+            if (error == null) {
+                detector.leaked.increment();
+                leak = new FutureLeakException("Future was garbage-collected without being completed", null);
+            } else {
+                detector.unobserved.increment();
+                leak = new FutureLeakException("Future was garbage-collected without its failure being observed", error);
+            }
+            // the creation site of the Future is the stack trace of the report
+            leak.setStackTrace(trim(site.getStackTrace()));
+
+            try {
+                detector.reporter.accept(leak);
+            } catch (Throwable ignored) {
+                // the reporter must not stop the detector
+            }
+        }
+
+        /**
+         * Remove the frames of the detector from the specified creation site, so that it starts with
+         * the constructor of the Future.
+         *
+         * @param trace the captured stack trace
+         * @return the stack trace of the creation site
+         */
+        private static @NotNull StackTraceElement @NotNull [] trim(@NotNull StackTraceElement @NotNull [] trace) {
+            for (int i = 0; i < trace.length; i++) {
+                StackTraceElement element = trace[i];
+                if (element.getClassName().equals(Future.class.getName()) && element.getMethodName().equals("<init>"))
+                    return Arrays.copyOfRange(trace, i, trace.length);
+            }
+            return trace;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.atlas.futura.concurrent.future;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An exception, that reports a {@link Future}, which has been garbage-collected without being completed,
+ * or without its failure being observed. The stack trace of the exception is the creation site of the Future,
+ * and the unobserved failure can be retrieved with {@link #getCause()}.
+ *
+ * @author AdvancedAntiSkid
+ *
+ * @since 1.0
+ *
+ * @see FutureLeakDetector
+ */
+public class FutureLeakException extends RuntimeException {
+    /**
+     * The serialization version of the exception.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Initialize the future leak exception.
+     *
+     * @param message the exception cause description
+     * @param cause the unobserved failure of the Future, or <code>null</code> if the Future was never completed
+     */
+    public FutureLeakException(@NotNull String message, @Nullable Throwable cause) {
+        super(message, cause);
+    }
+}
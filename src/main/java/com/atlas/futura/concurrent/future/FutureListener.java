@@ -0,0 +1,59 @@
+package com.atlas.futura.concurrent.future;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a listener, that is notified about the lifecycle of the {@link Future}s.
+ * <p>
+ * A listener can be installed globally using {@link Future#setListener(FutureListener)}, or for the Futures of
+ * a single context using {@link FutureContext#withListener(FutureListener)}. The global listener is held together
+ * with the {@link FutureLeakDetector}, therefore while neither is installed, the instrumentation costs a single
+ * volatile read per created Future.
+ * <p>
+ * The listener is resolved, when the Future is created, and it is called on the threads, that create and complete
+ * the Futures, therefore the implementations must be thread-safe and fast. Each method has an empty default
+ * implementation, so that only the interesting events need to be implemented.
+ *
+ * @author AdvancedAntiSkid
+ *
+ * @since 1.0
+ *
+ * @see FutureMetrics
+ */
+public interface FutureListener {
+    /**
+     * Called, when a new Future has been created.
+     *
+     * @param future the created Future
+     */
+    default void onCreate(@NotNull Future<?> future) {
+    }
+
+    /**
+     * Called, when a Future has been completed successfully.
+     *
+     * @param future the completed Future
+     * @param nanos the time elapsed between the creation and the completion of the Future in nanoseconds
+     */
+    default void onComplete(@NotNull Future<?> future, long nanos) {
+    }
+
+    /**
+     * Called, when a Future has been failed with an error, other than a cancellation.
+     *
+     * @param future the failed Future
+     * @param error the error of the Future
+     * @param nanos the time elapsed between the creation and the failure of the Future in nanoseconds
+     */
+    default void onFail(@NotNull Future<?> future, @NotNull Throwable error, long nanos) {
+    }
+
+    /**
+     * Called, when a Future has been cancelled.
+     *
+     * @param future the cancelled Future
+     * @param nanos the time elapsed between the creation and the cancellation of the Future in nanoseconds
+     */
+    default void onCancel(@NotNull Future<?> future, long nanos) {
+    }
+}
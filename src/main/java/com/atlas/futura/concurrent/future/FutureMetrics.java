@@ -0,0 +1,251 @@
+package com.atlas.futura.concurrent.future;
+
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents a {@link FutureListener}, that counts the lifecycle events of the Futures, and records a histogram
+ * of the time elapsed between their creation and completion.
+ * <p>
+ * The counters are {@link LongAdder}s, therefore recording the events does not contend between the threads.
+ * The histogram has logarithmic buckets, each bucket counts the latencies up to the next power of two
+ * nanoseconds, which gives a bounded relative error with a fixed amount of memory.
+ * <p>
+ * The metrics can be exposed using JMX, by registering them as an MXBean.
+ * <pre>
+ * FutureMetrics metrics = new FutureMetrics();
+ * metrics.register("default");
+ * Future.setListener(metrics);
+ * </pre>
+ *
+ * @author AdvancedAntiSkid
+ *
+ * @since 1.0
+ */
+public final class FutureMetrics implements FutureListener, FutureMetricsMXBean {
+    /**
+     * The number of the buckets of the latency histogram, one for each possible bit length of the latency.
+     */
+    private static final int BUCKETS = 64;
+
+    /**
+     * The counter of the created Futures.
+     */
+    private final @NotNull LongAdder created = new LongAdder();
+
+    /**
+     * The counter of the successfully completed Futures.
+     */
+    private final @NotNull LongAdder completed = new LongAdder();
+
+    /**
+     * The counter of the failed Futures.
+     */
+    private final @NotNull LongAdder failed = new LongAdder();
+
+    /**
+     * The counter of the cancelled Futures.
+     */
+    private final @NotNull LongAdder cancelled = new LongAdder();
+
+    /**
+     * The sum of the latencies of the completions in nanoseconds.
+     */
+    private final @NotNull LongAdder totalLatency = new LongAdder();
+
+    /**
+     * The maximum latency of the completions in nanoseconds.
+     */
+    private final @NotNull LongAccumulator maxLatency = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * The buckets of the latency histogram.
+     */
+    private final @NotNull LongAdder @NotNull [] histogram = new LongAdder[BUCKETS];
+
+    /**
+     * The name, that the metrics are registered with, or <code>null</code> if they are not registered.
+     */
+    private volatile @Nullable ObjectName name;
+
+    /**
+     * Create new, empty Future metrics.
+     */
+    public FutureMetrics() {
+        for (int i = 0; i < BUCKETS; i++)
+            histogram[i] = new LongAdder();
+    }
+
+    @Override
+    public void onCreate(@NotNull Future<?> future) {
+        created.increment();
+    }
+
+    @Override
+    public void onComplete(@NotNull Future<?> future, long nanos) {
+        completed.increment();
+        record(nanos);
+    }
+
+    @Override
+    public void onFail(@NotNull Future<?> future, @NotNull Throwable error, long nanos) {
+        failed.increment();
+        record(nanos);
+    }
+
+    @Override
+    public void onCancel(@NotNull Future<?> future, long nanos) {
+        cancelled.increment();
+        record(nanos);
+    }
+
+    /**
+     * Record the specified latency of a completion.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    private void record(long nanos) {
+        if (nanos < 0)
+            nanos = 0;
+        totalLatency.add(nanos);
+        maxLatency.accumulate(nanos);
+        histogram[Math.min(BUCKETS - 1, BUCKETS - Long.numberOfLeadingZeros(nanos))].increment();
+    }
+
+    @Override
+    public long getCreated() {
+        return created.sum();
+    }
+
+    @Override
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    @Override
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    @Override
+    public long getCancelled() {
+        return cancelled.sum();
+    }
+
+    @Override
+    public long getPending() {
+        // read the completions first, so that a concurrent completion is never counted without its creation
+        long done = completed.sum() + failed.sum() + cancelled.sum();
+        return Math.max(0L, created.sum() - done);
+    }
+
+    @Override
+    public double getMeanLatencyNanos() {
+        long count = completed.sum() + failed.sum() + cancelled.sum();
+        return count == 0 ? 0.0 : (double) totalLatency.sum() / count;
+    }
+
+    @Override
+    public long getMaxLatencyNanos() {
+        return maxLatency.get();
+    }
+
+    @Override
+    public long getLatencyP50Nanos() {
+        return getLatencyPercentile(0.5);
+    }
+
+    @Override
+    public long getLatencyP99Nanos() {
+        return getLatencyPercentile(0.99);
+    }
+
+    /**
+     * Estimate the specified percentile of the latencies using the histogram.
+     *
+     * @param percentile the percentile between <code>0</code> and <code>1</code>
+     * @return the upper bound of the bucket of the percentile in nanoseconds,
+     * or <code>0</code> if nothing has been recorded
+     */
+    public long getLatencyPercentile(double percentile) {
+        if (percentile < 0.0 || percentile > 1.0)
+            throw new IllegalArgumentException("Percentile must be between 0 and 1");
+
+        long[] counts = getLatencyHistogram();
+        long total = 0;
+        for (long count : counts)
+            total += count;
+        if (total == 0)
+            return 0L;
+
+        // find the first bucket, where the cumulative count reaches the percentile
+        long threshold = (long) Math.ceil(total * percentile);
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += counts[i];
+            if (cumulative >= threshold && cumulative > 0)
+                return i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public long @NotNull [] getLatencyHistogram() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+            counts[i] = histogram[i].sum();
+        return counts;
+    }
+
+    @Override
+    public void reset() {
+        created.reset();
+        completed.reset();
+        failed.reset();
+        cancelled.reset();
+        totalLatency.reset();
+        maxLatency.reset();
+        for (LongAdder bucket : histogram)
+            bucket.reset();
+    }
+
+    /**
+     * Register the metrics as an MXBean of the platform MBean server, with the object name of
+     * <code>com.atlas.futura:type=FutureMetrics,name=&lt;name&gt;</code>.
+     *
+     * @param name the name of the metrics
+     *
+     * @throws IllegalStateException the metrics have already been registered
+     */
+    @SneakyThrows
+    public synchronized void register(@NotNull String name) {
+        if (this.name != null)
+            throw new IllegalStateException("Future metrics have already been registered");
+
+        ObjectName objectName = new ObjectName("com.atlas.futura:type=FutureMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        this.name = objectName;
+    }
+
+    /**
+     * Unregister the metrics from the platform MBean server, if they have been registered.
+     */
+    @SneakyThrows
+    public synchronized void unregister() {
+        ObjectName name = this.name;
+        if (name == null)
+            return;
+        this.name = null;
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (server.isRegistered(name))
+            server.unregisterMBean(name);
+    }
+}
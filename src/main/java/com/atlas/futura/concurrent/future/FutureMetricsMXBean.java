@@ -0,0 +1,87 @@
+package com.atlas.futura.concurrent.future;
+
+/**
+ * Represents the management interface of the {@link FutureMetrics}, that is exposed using JMX.
+ *
+ * @author AdvancedAntiSkid
+ *
+ * @since 1.0
+ */
+public interface FutureMetricsMXBean {
+    /**
+     * Retrieve the number of the created Futures.
+     *
+     * @return the number of the created Futures
+     */
+    long getCreated();
+
+    /**
+     * Retrieve the number of the successfully completed Futures.
+     *
+     * @return the number of the completed Futures
+     */
+    long getCompleted();
+
+    /**
+     * Retrieve the number of the failed Futures, excluding the cancelled ones.
+     *
+     * @return the number of the failed Futures
+     */
+    long getFailed();
+
+    /**
+     * Retrieve the number of the cancelled Futures.
+     *
+     * @return the number of the cancelled Futures
+     */
+    long getCancelled();
+
+    /**
+     * Retrieve the number of the Futures, that have been created, but not completed yet.
+     *
+     * @return the number of the pending Futures
+     */
+    long getPending();
+
+    /**
+     * Retrieve the mean time between the creation and the completion of the Futures.
+     *
+     * @return the mean latency in nanoseconds
+     */
+    double getMeanLatencyNanos();
+
+    /**
+     * Retrieve the longest time between the creation and the completion of a Future.
+     *
+     * @return the maximum latency in nanoseconds
+     */
+    long getMaxLatencyNanos();
+
+    /**
+     * Retrieve the estimated median of the latencies.
+     *
+     * @return the upper bound of the median latency in nanoseconds
+     */
+    long getLatencyP50Nanos();
+
+    /**
+     * Retrieve the estimated 99th percentile of the latencies.
+     *
+     * @return the upper bound of the 99th percentile latency in nanoseconds
+     */
+    long getLatencyP99Nanos();
+
+    /**
+     * Retrieve the number of the completions in each bucket of the latency histogram.
+     * The bucket at index <code>i</code> counts the latencies below <code>2^i</code> nanoseconds, that are
+     * not counted by the previous buckets.
+     *
+     * @return the counts of the histogram buckets
+     */
+    long[] getLatencyHistogram();
+
+    /**
+     * Reset each counter and the histogram to zero.
+     */
+    void reset();
+}
@@ -106,4 +106,28 @@ public abstract class FutureResolver<T> implements Resolver {
             error = new FutureExecutionException("Lazy resolver error was not provided.");
         return fail(error);
     }
+
+    /**
+     * Indicates whether the Future of this resolver has been cancelled, therefore the result is no longer needed.
+     * <p>
+     * Long-running producers may check this periodically to stop early.
+     *
+     * @return <code>true</code> if the Future was cancelled, <code>false</code> otherwise
+     */
+    public boolean isCancelled() {
+        return false;
+    }
+
+    /**
+     * Register an action to be called, when the Future of this resolver is cancelled.
+     * <p>
+     * This can be used to release the resources of an external operation, such as closing a connection.
+     * If the Future has already been cancelled, the action is called immediately.
+     * <p>
+     * Resolvers, that are not bound to a cancellable Future, ignore the action.
+     *
+     * @param action the action to call upon cancellation
+     */
+    public void onCancel(@NotNull Runnable action) {
+    }
 }
@@ -0,0 +1,391 @@
+package com.atlas.futura.concurrent.future;
+
+import com.atlas.futura.function.ThrowableSupplier;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.annotations.CheckReturnValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Represents a scope of structured concurrency, that owns the child {@link Future}s forked inside it.
+ * <p>
+ * If any of the children fails, the scope is shut down, and every other pending child is cancelled, so that
+ * the siblings of a failed operation do not keep running in vain. Closing the scope cancels the children, that
+ * are still pending, and waits until each of their tasks has exited, therefore no task of the scope outlives
+ * the <code>try</code> block.
+ * <p>
+ * The tasks are run on the executor of the caller's context, which uses virtual threads, when they are supported
+ * by the JVM, and a thread pool otherwise.
+ * <pre>
+ * try (FutureScope scope = FutureScope.open()) {
+ *     Future&lt;User&gt; user = scope.fork(() -> users.load(id));
+ *     Future&lt;List&lt;Order&gt;&gt; orders = scope.fork(() -> orders.loadAll(id));
+ *
+ *     scope.join().get();
+ *     return new Profile(user.get(), orders.get());
+ * }
+ * </pre>
+ *
+ * @author AdvancedAntiSkid
+ *
+ * @since 1.0
+ */
+public final class FutureScope implements AutoCloseable {
+    /**
+     * The executor, that runs the forked tasks.
+     */
+    private final @NotNull Executor executor;
+
+    /**
+     * The children, that have not settled yet, guarded by this object.
+     */
+    private final @NotNull Set<@NotNull Child<?>> pending = new HashSet<>();
+
+    /**
+     * The Futures returned by {@link #join()}, that are waiting for the pending children, guarded by this object.
+     */
+    private final @NotNull List<@NotNull Future<Void>> joiners = new ArrayList<>();
+
+    /**
+     * The error of the first failed child, or <code>null</code> if no child has failed.
+     */
+    private volatile @Nullable Throwable failure;
+
+    /**
+     * Indicates, whether the pending children are being cancelled, because a child has failed,
+     * or the scope has been closed.
+     */
+    private volatile boolean shutdown;
+
+    /**
+     * Indicates, whether the scope has been closed, guarded by this object.
+     */
+    private boolean closed;
+
+    /**
+     * Create a new scope.
+     *
+     * @param executor the executor, that runs the forked tasks
+     */
+    private FutureScope(@NotNull Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Open a new scope, that runs the forked tasks on the executor of the caller's context.
+     *
+     * @return a new scope
+     */
+    @CheckReturnValue
+    public static @NotNull FutureScope open() {
+        return new FutureScope(Future.getExecutor());
+    }
+
+    /**
+     * Open a new scope, that runs the forked tasks on the specified executor.
+     *
+     * @param executor the executor, that runs the forked tasks
+     * @return a new scope
+     */
+    @CheckReturnValue
+    public static @NotNull FutureScope open(@NotNull Executor executor) {
+        return new FutureScope(executor);
+    }
+
+    /**
+     * Fork a new child, that runs the specified task on the executor of the scope.
+     * <p>
+     * If the scope has already been shut down by a failed child, the task is not run, and the returned Future
+     * is cancelled.
+     *
+     * @param task the task, that produces the completion value
+     * @param <T> the type of the Future
+     * @return the Future of the child
+     *
+     * @throws IllegalStateException the scope has already been closed
+     */
+    @CanIgnoreReturnValue
+    public <T> @NotNull Future<T> fork(@NotNull ThrowableSupplier<T, Throwable> task) {
+        Child<T> child = new Child<>(this);
+        register(child);
+
+        // do not start the task, if the scope has already been shut down, the child is cancelled upon attaching
+        if (shutdown)
+            return child.attach(new Future<>());
+        return child.attach(Future.tryCompleteAsync(() -> child.run(task), executor));
+    }
+
+    /**
+     * Track the specified Future as a child of the scope.
+     * <p>
+     * The Future is cancelled, when the scope is shut down, and closing the scope waits for its completion.
+     *
+     * @param future the Future to be tracked
+     * @param <T> the type of the Future
+     * @return the specified Future
+     *
+     * @throws IllegalStateException the scope has already been closed
+     */
+    @CanIgnoreReturnValue
+    public <T> @NotNull Future<T> track(@NotNull Future<T> future) {
+        Child<T> child = new Child<>(this);
+        child.state.set(Child.EXITED);
+        register(child);
+        return child.attach(future);
+    }
+
+    /**
+     * Create a new Future, that is completed, when each of the children forked so far have settled.
+     * <p>
+     * If any of the children has failed, the new Future fails with the error of the first failed child.
+     * The children, that were cancelled by the scope itself, are not considered to be failed.
+     *
+     * @return the Future of the combined result of the children
+     */
+    @CheckReturnValue
+    public @NotNull Future<Void> join() {
+        Future<Void> joiner = new Future<>();
+        synchronized (this) {
+            if (!pending.isEmpty()) {
+                joiners.add(joiner);
+                return joiner;
+            }
+        }
+        resolve(joiner);
+        return joiner;
+    }
+
+    /**
+     * Retrieve the error of the first failed child.
+     *
+     * @return the error of the first failed child, or <code>null</code> if no child has failed
+     */
+    @CheckReturnValue
+    public @Nullable Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * Close the scope, cancel the pending children, and wait until each of their tasks has exited.
+     * <p>
+     * The scope does not accept new children afterward. If the closing thread is interrupted whilst waiting,
+     * it keeps waiting, and its interrupt status is restored afterward.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        shutdown();
+
+        // wait for the cancelled tasks to exit
+        boolean interrupted = false;
+        synchronized (this) {
+            while (!pending.isEmpty()) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Register the specified child as pending.
+     *
+     * @param child the child to be registered
+     *
+     * @throws IllegalStateException the scope has already been closed
+     */
+    private synchronized void register(@NotNull Child<?> child) {
+        if (closed)
+            throw new IllegalStateException("Future scope has already been closed");
+        pending.add(child);
+    }
+
+    /**
+     * Record the error of the failed child, and shut down the scope, if this is the first failure.
+     *
+     * @param error the error of the child
+     */
+    private void fail(@NotNull Throwable error) {
+        synchronized (this) {
+            if (failure != null)
+                return;
+            failure = error;
+        }
+        shutdown();
+    }
+
+    /**
+     * Cancel each of the pending children.
+     */
+    private void shutdown() {
+        shutdown = true;
+        List<Child<?>> children;
+        synchronized (this) {
+            children = new ArrayList<>(pending);
+        }
+        for (Child<?> child : children)
+            child.cancel();
+    }
+
+    /**
+     * Remove the settled child, and resolve the joiners, if there are no more pending children.
+     *
+     * @param child the settled child
+     */
+    private void settle(@NotNull Child<?> child) {
+        List<Future<Void>> resolved;
+        synchronized (this) {
+            if (!pending.remove(child) || !pending.isEmpty())
+                return;
+            notifyAll();
+            resolved = new ArrayList<>(joiners);
+            joiners.clear();
+        }
+        for (Future<Void> joiner : resolved)
+            resolve(joiner);
+    }
+
+    /**
+     * Complete the specified joiner with the combined result of the children.
+     *
+     * @param joiner the Future of the combined result
+     */
+    private void resolve(@NotNull Future<Void> joiner) {
+        Throwable failure = this.failure;
+        if (failure != null)
+            joiner.fail(failure);
+        else
+            joiner.complete(null);
+    }
+
+    /**
+     * Represents a child of the scope.
+     * <p>
+     * A child settles, when its Future has completed, and its task is not running anymore. A task, that has
+     * not started before its Future was cancelled, is prevented from starting at all.
+     *
+     * @param <T> the type of the Future
+     */
+    private static final class Child<T> {
+        /**
+         * The state of a child, whose task has not started yet.
+         */
+        private static final int NEW = 0;
+
+        /**
+         * The state of a child, whose task is running.
+         */
+        private static final int RUNNING = 1;
+
+        /**
+         * The state of a child, whose task has exited, or will never run.
+         */
+        private static final int EXITED = 2;
+
+        /**
+         * The state of the task of the child.
+         */
+        private final @NotNull AtomicInteger state = new AtomicInteger(NEW);
+
+        /**
+         * Indicates, whether the child has settled.
+         */
+        private final @NotNull AtomicBoolean settled = new AtomicBoolean();
+
+        /**
+         * The scope, that owns the child.
+         */
+        private final @NotNull FutureScope scope;
+
+        /**
+         * The Future of the child, or <code>null</code> if it has not been attached yet.
+         */
+        private volatile @Nullable Future<T> future;
+
+        /**
+         * Create a new child.
+         *
+         * @param scope the scope, that owns the child
+         */
+        private Child(@NotNull FutureScope scope) {
+            this.scope = scope;
+        }
+
+        /**
+         * Run the specified task of the child, unless it has been cancelled before it could start.
+         *
+         * @param task the task of the child
+         * @return the completion value of the task
+         *
+         * @throws Throwable the task has failed
+         */
+        private @Nullable T run(@NotNull ThrowableSupplier<T, Throwable> task) throws Throwable {
+            if (!state.compareAndSet(NEW, RUNNING))
+                throw new FutureCancellationException("Future scope has been shut down");
+            try {
+                return task.get();
+            } finally {
+                state.set(EXITED);
+                Future<T> future = this.future;
+                if (future != null && future.isCompleted())
+                    settle();
+            }
+        }
+
+        /**
+         * Attach the specified Future to the child, and observe its completion.
+         *
+         * @param future the Future of the child
+         * @return the specified Future
+         */
+        private @NotNull Future<T> attach(@NotNull Future<T> future) {
+            this.future = future;
+            future.result((value, error) -> {
+                if (error != null && !(error instanceof CancellationException))
+                    scope.fail(error);
+
+                // the task will never start, if it has not started yet
+                state.compareAndSet(NEW, EXITED);
+                if (state.get() == EXITED)
+                    settle();
+            });
+
+            // the scope might have been shut down, before the future was attached
+            if (scope.shutdown)
+                cancel();
+            return future;
+        }
+
+        /**
+         * Cancel the Future of the child, and interrupt its task, if it is running.
+         */
+        private void cancel() {
+            Future<T> future = this.future;
+            if (future != null)
+                future.cancel(true);
+        }
+
+        /**
+         * Settle the child, if it has not settled yet.
+         */
+        private void settle() {
+            if (settled.compareAndSet(false, true))
+                scope.settle(this);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.atlas.futura.concurrent.future;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Represents a utility, that performs the lock-free modifications of the state of the {@link Future}s.
+ * <p>
+ * This is the Java 8 implementation, that uses an {@link AtomicReferenceFieldUpdater}. On Java 9 and above,
+ * the multi-release JAR replaces it with an implementation, that uses a <code>VarHandle</code>, which avoids
+ * the receiver type checks of the field updater.
+ */
+final class FutureState {
+    /**
+     * The atomic updater used to perform lock-free modifications of the state of the Future.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final @NotNull AtomicReferenceFieldUpdater<Future, Object> STATE =
+        AtomicReferenceFieldUpdater.newUpdater(Future.class, Object.class, "state");
+
+    /**
+     * Atomically set the state of the specified Future, if it is the expected state.
+     *
+     * @param future the Future to update
+     * @param expected the expected current state
+     * @param update the new state
+     * @return <code>true</code> if the state was updated, <code>false</code> otherwise
+     */
+    static boolean compareAndSet(@NotNull Future<?> future, @Nullable Object expected, @Nullable Object update) {
+        return STATE.compareAndSet(future, expected, update);
+    }
+}
@@ -0,0 +1,321 @@
+package com.atlas.futura.concurrent.future;
+
+import com.atlas.futura.function.ThrowableFunction;
+import com.atlas.futura.function.ThrowableSupplier;
+import com.google.errorprone.annotations.CheckReturnValue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * Represents an asynchronous stream of elements, that are pulled one at a time using {@link Future}s.
+ * <p>
+ * Unlike a {@link Future}, that models exactly one value, a stream may produce any number of elements, such as
+ * the pages of a query, or the chunks of a file. The stream is pull-based: an element is only produced, when it is
+ * requested by {@link #next()}, and the next element is only requested, when the Future of the previous one has
+ * completed. Therefore, a slow consumer never gets flooded by a fast producer, the demand of the consumer is
+ * what drives the stream.
+ * <p>
+ * The end of the stream is signalled by completing the Future of the next element with <code>null</code>,
+ * therefore the elements of a stream must not be <code>null</code>. A failed Future fails the stream.
+ * <p>
+ * The operators, such as {@link #map(Function)} and {@link #filter(Predicate)} run on the thread, that completes
+ * the element of the upstream. The sources, such as {@link #generate(ThrowableSupplier)} produce their elements
+ * on the executor of the caller's context. The terminal operations, such as {@link #toList()} return a Future of
+ * their result, and cancelling that Future cancels the stream.
+ * <pre>
+ * FutureStream&lt;Page&gt; pages = () -> client.nextPage();
+ *
+ * pages.flatMap(page -> FutureStream.fromIterable(page.getItems()))
+ *     .filter(Item::isActive)
+ *     .buffer(100)
+ *     .forEach(batch -> database.saveAll(batch))
+ *     .then(ignored -> System.out.println("import finished"));
+ * </pre>
+ *
+ * @param <T> the type of the elements
+ *
+ * @author AdvancedAntiSkid
+ *
+ * @since 1.0
+ */
+@FunctionalInterface
+public interface FutureStream<T> {
+    /**
+     * Request the next element of the stream.
+     * <p>
+     * This method must not be called again, until the Future of the previous element has completed.
+     *
+     * @return the Future of the next element, or of <code>null</code> if the stream has ended
+     */
+    @CheckReturnValue
+    @NotNull Future<@Nullable T> next();
+
+    /**
+     * Cancel the stream, and release the resources of its source.
+     * <p>
+     * This is called by the terminal operations, when the stream fails, or their result is cancelled.
+     * The default implementation does nothing.
+     */
+    default void cancel() {
+    }
+
+    /**
+     * Create a new stream, that transforms each element of this stream using the specified mapper.
+     * <p>
+     * The mapper runs on the thread, that completes the element of this stream, and it must not return
+     * <code>null</code>.
+     *
+     * @param mapper the function, that transforms the elements
+     * @param <R> the type of the transformed elements
+     * @return a new stream
+     */
+    @CheckReturnValue
+    default <R> @NotNull FutureStream<R> map(@NotNull Function<? super T, ? extends R> mapper) {
+        return new StreamOperators.Mapping<>(this, mapper);
+    }
+
+    /**
+     * Create a new stream, that transforms each element of this stream to a Future using the specified mapper,
+     * and emits the completion values of the Futures.
+     * <p>
+     * The next element of this stream is only requested, when the Future of the previous element has completed.
+     *
+     * @param mapper the function, that produces the Future of the transformed element
+     * @param <R> the type of the transformed elements
+     * @return a new stream
+     */
+    @CheckReturnValue
+    default <R> @NotNull FutureStream<R> mapAsync(
+        @NotNull ThrowableFunction<T, @NotNull Future<R>, Throwable> mapper
+    ) {
+        return new StreamOperators.AsyncMapping<>(this, mapper);
+    }
+
+    /**
+     * Create a new stream, that only emits the elements of this stream, that match the specified predicate.
+     *
+     * @param predicate the predicate, that the emitted elements match
+     * @return a new stream
+     */
+    @CheckReturnValue
+    default @NotNull FutureStream<T> filter(@NotNull Predicate<? super T> predicate) {
+        return new StreamOperators.Filter<>(this, predicate);
+    }
+
+    /**
+     * Create a new stream, that transforms each element of this stream to a stream, and emits the elements
+     * of these streams one after the other.
+     *
+     * @param mapper the function, that transforms an element to a stream
+     * @param <R> the type of the emitted elements
+     * @return a new stream
+     */
+    @CheckReturnValue
+    default <R> @NotNull FutureStream<R> flatMap(@NotNull Function<? super T, ? extends FutureStream<R>> mapper) {
+        return new StreamOperators.FlatMap<>(this, mapper);
+    }
+
+    /**
+     * Create a new stream, that collects the elements of this stream into lists of the specified size.
+     * <p>
+     * The last list may be smaller, if this stream ends before it is filled.
+     *
+     * @param size the number of the elements of a list
+     * @return a new stream
+     *
+     * @throws IllegalArgumentException the size is less than 1
+     */
+    @CheckReturnValue
+    default @NotNull FutureStream<List<T>> buffer(int size) {
+        if (size < 1)
+            throw new IllegalArgumentException("Buffer size must be positive");
+        return new StreamOperators.Buffer<>(this, size);
+    }
+
+    /**
+     * Create a new stream, that collects the elements of this stream into lists, that span the specified period.
+     * <p>
+     * A window is opened by its first element, and it is emitted, when the time span elapses, even if this stream
+     * has not produced any further elements since then.
+     *
+     * @param timespan the time span of a window
+     * @param unit the unit of the time span
+     * @return a new stream
+     */
+    @CheckReturnValue
+    default @NotNull FutureStream<List<T>> window(long timespan, @NotNull TimeUnit unit) {
+        return window(timespan, unit, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Create a new stream, that collects the elements of this stream into lists, that span the specified period,
+     * or contain at most the specified number of elements.
+     * <p>
+     * A window is opened by its first element, and it is emitted, when the time span elapses, or when it reaches
+     * the maximum size, whichever happens first. The windows are timed using the shared timer of the caller's
+     * context, and the expired windows are emitted on the executor of the caller's context, or on the global
+     * executor.
+     *
+     * @param timespan the time span of a window
+     * @param unit the unit of the time span
+     * @param maxSize the maximum number of the elements of a window
+     * @return a new stream
+     *
+     * @throws IllegalArgumentException the time span is negative, or the maximum size is less than 1
+     */
+    @CheckReturnValue
+    default @NotNull FutureStream<List<T>> window(long timespan, @NotNull TimeUnit unit, int maxSize) {
+        if (timespan < 0)
+            throw new IllegalArgumentException("Window time span must not be negative");
+        if (maxSize < 1)
+            throw new IllegalArgumentException("Window size must be positive");
+        return new StreamOperators.Window<>(
+            this, unit.toNanos(timespan), maxSize, Future.getContextTimer(), Future.getTimerExecutor(null)
+        );
+    }
+
+    /**
+     * Reduce the elements of this stream using the specified collector.
+     * <p>
+     * If the stream fails, the returned Future fails with the same error. Cancelling the returned Future
+     * stops pulling the elements, and cancels the stream.
+     *
+     * @param collector the collector, that reduces the elements
+     * @param <A> the type of the mutable accumulation
+     * @param <R> the type of the result
+     * @return the Future of the result
+     */
+    @CheckReturnValue
+    default <A, R> @NotNull Future<R> collect(@NotNull Collector<? super T, A, R> collector) {
+        return Future.resolve(resolver -> new StreamOperators.Collect<>(this, collector, resolver).drain());
+    }
+
+    /**
+     * Collect the elements of this stream into a list.
+     *
+     * @return the Future of the list of the elements
+     */
+    @CheckReturnValue
+    default @NotNull Future<List<T>> toList() {
+        return collect(Collectors.toList());
+    }
+
+    /**
+     * Call the specified action for each element of this stream.
+     * <p>
+     * The next element is only requested, after the action has returned for the previous one.
+     *
+     * @param action the action to call for the elements
+     * @return the Future, that is completed, when the stream has ended
+     */
+    @CheckReturnValue
+    default @NotNull Future<Void> forEach(@NotNull Consumer<? super T> action) {
+        return collect(Collector.<T, Void>of(() -> null, (ignored, value) -> action.accept(value), (a, b) -> a));
+    }
+
+    /**
+     * Count the elements of this stream.
+     *
+     * @return the Future of the number of the elements
+     */
+    @CheckReturnValue
+    default @NotNull Future<Long> count() {
+        return collect(Collectors.counting());
+    }
+
+    /**
+     * Reduce the elements of this stream using the specified identity value and accumulator.
+     *
+     * @param identity the initial value of the reduction
+     * @param accumulator the function, that combines the reduced value with the next element
+     * @return the Future of the reduced value
+     */
+    @CheckReturnValue
+    default @NotNull Future<T> reduce(@NotNull T identity, @NotNull BinaryOperator<T> accumulator) {
+        return collect(Collectors.reducing(identity, accumulator));
+    }
+
+    /**
+     * Request the first element of this stream, and cancel the stream afterward.
+     *
+     * @return the Future of the first element, or of <code>null</code> if the stream is empty
+     */
+    @CheckReturnValue
+    default @NotNull Future<T> first() {
+        return next().result((value, error) -> {
+            cancel();
+        });
+    }
+
+    /**
+     * Create a new stream, that has no elements.
+     *
+     * @param <T> the type of the elements
+     * @return a new empty stream
+     */
+    @CheckReturnValue
+    static <T> @NotNull FutureStream<T> empty() {
+        return Future::completed;
+    }
+
+    /**
+     * Create a new stream of the specified elements.
+     *
+     * @param values the elements of the stream
+     * @param <T> the type of the elements
+     * @return a new stream
+     */
+    @SafeVarargs
+    @CheckReturnValue
+    static <T> @NotNull FutureStream<T> of(@NotNull T @NotNull ... values) {
+        return fromIterable(Arrays.asList(values));
+    }
+
+    /**
+     * Create a new stream of the elements of the specified iterable.
+     * <p>
+     * The elements are taken from the iterator synchronously, on the thread, that requests them.
+     * If the iterator throws an exception, the stream fails with it.
+     *
+     * @param iterable the iterable of the elements
+     * @param <T> the type of the elements
+     * @return a new stream
+     */
+    @CheckReturnValue
+    static <T> @NotNull FutureStream<T> fromIterable(@NotNull Iterable<T> iterable) {
+        Iterator<T> iterator = iterable.iterator();
+        return () -> Future.tryComplete(() -> iterator.hasNext() ? iterator.next() : null);
+    }
+
+    /**
+     * Create a new stream, whose elements are produced by the specified supplier on the executor of the
+     * caller's context.
+     * <p>
+     * This is meant for the sources, that block whilst producing an element, such as reading the lines of a file.
+     * The supplier returning <code>null</code> ends the stream, and the supplier throwing an exception fails it.
+     * <pre>
+     * FutureStream&lt;String&gt; lines = FutureStream.generate(reader::readLine);
+     * </pre>
+     *
+     * @param supplier the supplier of the elements
+     * @param <T> the type of the elements
+     * @return a new stream
+     */
+    @CheckReturnValue
+    static <T> @NotNull FutureStream<T> generate(@NotNull ThrowableSupplier<@Nullable T, Throwable> supplier) {
+        Executor executor = Future.getExecutor();
+        return () -> Future.tryCompleteAsync(supplier, executor);
+    }
+}
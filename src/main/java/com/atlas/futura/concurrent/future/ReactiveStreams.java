@@ -0,0 +1,482 @@
+package com.atlas.futura.concurrent.future;
+
+import com.google.errorprone.annotations.CheckReturnValue;
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Represents a utility class for converting between {@link FutureStream}s and Reactive Streams {@link Publisher}s.
+ * <p>
+ * The Reactive Streams API is an optional dependency, this class may only be used, if it is present at runtime.
+ * On Java 9 and above, the publishers can be further converted to <code>java.util.concurrent.Flow</code> publishers
+ * using <code>org.reactivestreams.FlowAdapters</code>.
+ * <pre>
+ * Publisher&lt;Row&gt; rows = ReactiveStreams.toPublisher(FutureStream.generate(cursor::next));
+ *
+ * FutureStream&lt;Event&gt; events = ReactiveStreams.fromPublisher(client.events(), 64);
+ * </pre>
+ *
+ * @author AdvancedAntiSkid
+ *
+ * @since 1.0
+ */
+@UtilityClass
+public class ReactiveStreams {
+    /**
+     * The default number of the elements, that are requested from a publisher in advance.
+     */
+    private final int DEFAULT_PREFETCH = 32;
+
+    /**
+     * Create a new publisher, that emits the elements of the specified stream.
+     * <p>
+     * The elements are only pulled from the stream, when the subscriber has signalled demand for them.
+     * The publisher may only be subscribed once, further subscribers are rejected with an
+     * {@link IllegalStateException}. Cancelling the subscription cancels the stream.
+     *
+     * @param stream the stream of the elements
+     * @param <T> the type of the elements
+     * @return a new publisher
+     */
+    @CheckReturnValue
+    public <T> @NotNull Publisher<T> toPublisher(@NotNull FutureStream<T> stream) {
+        return new StreamPublisher<>(stream);
+    }
+
+    /**
+     * Create a new stream, that emits the elements of the specified publisher.
+     * <p>
+     * The publisher is subscribed, when the first element is requested from the stream.
+     *
+     * @param publisher the publisher of the elements
+     * @param <T> the type of the elements
+     * @return a new stream
+     */
+    @CheckReturnValue
+    public <T> @NotNull FutureStream<T> fromPublisher(@NotNull Publisher<T> publisher) {
+        return fromPublisher(publisher, DEFAULT_PREFETCH);
+    }
+
+    /**
+     * Create a new stream, that emits the elements of the specified publisher.
+     * <p>
+     * The publisher is subscribed, when the first element is requested from the stream. The stream requests
+     * the specified number of elements in advance, and replenishes the demand in batches, as the elements are
+     * consumed, therefore at most <code>prefetch</code> elements are buffered at a time.
+     *
+     * @param publisher the publisher of the elements
+     * @param prefetch the number of the elements to request in advance
+     * @param <T> the type of the elements
+     * @return a new stream
+     *
+     * @throws IllegalArgumentException the prefetch is less than 1
+     */
+    @CheckReturnValue
+    public <T> @NotNull FutureStream<T> fromPublisher(@NotNull Publisher<T> publisher, int prefetch) {
+        if (prefetch < 1)
+            throw new IllegalArgumentException("Prefetch must be positive");
+        return new PublisherStream<>(publisher, prefetch);
+    }
+
+    /**
+     * Represents a publisher, that emits the elements of a {@link FutureStream} to a single subscriber.
+     *
+     * @param <T> the type of the elements
+     */
+    private static final class StreamPublisher<T> implements Publisher<T> {
+        /**
+         * The stream of the elements.
+         */
+        private final @NotNull FutureStream<T> stream;
+
+        /**
+         * Indicates, whether the publisher has already been subscribed.
+         */
+        private final @NotNull AtomicBoolean subscribed = new AtomicBoolean();
+
+        /**
+         * Create a new stream publisher.
+         *
+         * @param stream the stream of the elements
+         */
+        private StreamPublisher(@NotNull FutureStream<T> stream) {
+            this.stream = stream;
+        }
+
+        /**
+         * Subscribe the specified subscriber to the elements of the stream.
+         *
+         * @param subscriber the subscriber of the elements
+         */
+        @Override
+        public void subscribe(@NotNull Subscriber<? super T> subscriber) {
+            Objects.requireNonNull(subscriber, "subscriber");
+
+            // reject the subscriber, if the stream has already been handed out
+            if (!subscribed.compareAndSet(false, true)) {
+                subscriber.onSubscribe(new Subscription() {
+                    @Override
+                    public void request(long n) {
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+                subscriber.onError(new IllegalStateException("Stream publisher may only be subscribed once"));
+                return;
+            }
+
+            subscriber.onSubscribe(new StreamSubscription<>(stream, subscriber));
+        }
+    }
+
+    /**
+     * Represents a subscription, that pulls the elements of a {@link FutureStream}, as long as the subscriber
+     * has demand for them.
+     * <p>
+     * The signals of the subscriber are only called by the {@link StreamLoop}, therefore they never overlap.
+     *
+     * @param <T> the type of the elements
+     */
+    private static final class StreamSubscription<T> extends StreamLoop implements Subscription {
+        /**
+         * The atomic updater used to track the {@link #demand} of the subscriber.
+         */
+        @SuppressWarnings("rawtypes")
+        private static final @NotNull AtomicLongFieldUpdater<StreamSubscription> DEMAND =
+            AtomicLongFieldUpdater.newUpdater(StreamSubscription.class, "demand");
+
+        /**
+         * The stream of the elements.
+         */
+        private final @NotNull FutureStream<T> stream;
+
+        /**
+         * The subscriber of the elements.
+         */
+        private final @NotNull Subscriber<? super T> subscriber;
+
+        /**
+         * The number of the elements, that the subscriber has requested, but not yet received.
+         */
+        private volatile long demand;
+
+        /**
+         * Indicates, whether the subscription has been cancelled.
+         */
+        private volatile boolean cancelled;
+
+        /**
+         * The error of an invalid request, that is waiting to be signalled by the loop.
+         */
+        private volatile @Nullable Throwable invalid;
+
+        /**
+         * Indicates, whether a terminal signal has been sent to the subscriber, only accessed by the loop.
+         */
+        private boolean done;
+
+        /**
+         * Create a new stream subscription.
+         *
+         * @param stream the stream of the elements
+         * @param subscriber the subscriber of the elements
+         */
+        private StreamSubscription(@NotNull FutureStream<T> stream, @NotNull Subscriber<? super T> subscriber) {
+            this.stream = stream;
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * Add the specified number of elements to the demand of the subscriber.
+         *
+         * @param n the number of the requested elements
+         */
+        @Override
+        public void request(long n) {
+            // the specification requires signalling the invalid requests as errors
+            if (n <= 0) {
+                invalid = new IllegalArgumentException("Requested elements must be positive, but was " + n);
+                drain();
+                return;
+            }
+
+            // add the demand, capping it at the unbounded demand
+            long current;
+            long updated;
+            do {
+                current = demand;
+                updated = current + n;
+                if (updated < 0)
+                    updated = Long.MAX_VALUE;
+            } while (!DEMAND.compareAndSet(this, current, updated));
+            drain();
+        }
+
+        /**
+         * Stop emitting the elements, and cancel the stream.
+         */
+        @Override
+        public void cancel() {
+            if (cancelled)
+                return;
+            cancelled = true;
+            stream.cancel();
+        }
+
+        @Override
+        void tick() {
+            Throwable invalid = this.invalid;
+            if (invalid == null || done || cancelled)
+                return;
+            done = true;
+            stream.cancel();
+            subscriber.onError(invalid);
+        }
+
+        @Override
+        @Nullable Future<?> request() {
+            return done || cancelled || demand == 0 ? null : stream.next();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void accept(@Nullable Object value) {
+            if (done || cancelled)
+                return;
+
+            if (value == null) {
+                done = true;
+                subscriber.onComplete();
+                return;
+            }
+
+            if (demand != Long.MAX_VALUE)
+                DEMAND.decrementAndGet(this);
+            subscriber.onNext((T) value);
+        }
+
+        @Override
+        void reject(@NotNull Throwable error) {
+            if (done || cancelled)
+                return;
+            done = true;
+            subscriber.onError(error);
+        }
+    }
+
+    /**
+     * Represents a stream, that buffers the elements of a {@link Publisher}, and hands them out, as they are
+     * requested.
+     *
+     * @param <T> the type of the elements
+     */
+    private static final class PublisherStream<T> implements FutureStream<T>, Subscriber<T> {
+        /**
+         * The publisher of the elements.
+         */
+        private final @NotNull Publisher<T> publisher;
+
+        /**
+         * The number of the elements to request in advance.
+         */
+        private final int prefetch;
+
+        /**
+         * The number of the consumed elements, after which the demand is replenished.
+         */
+        private final int limit;
+
+        /**
+         * The elements, that have been received, but not yet requested, guarded by this object.
+         */
+        private final @NotNull ArrayDeque<T> queue = new ArrayDeque<>();
+
+        /**
+         * The Future of the requested element, that has not been received yet, guarded by this object.
+         */
+        private @Nullable Future<T> out;
+
+        /**
+         * Indicates, whether the publisher has been subscribed, guarded by this object.
+         */
+        private boolean subscribed;
+
+        /**
+         * Indicates, whether the publisher has completed, guarded by this object.
+         */
+        private boolean completed;
+
+        /**
+         * The error of the publisher, or <code>null</code> if it has not failed, guarded by this object.
+         */
+        private @Nullable Throwable error;
+
+        /**
+         * The number of the consumed elements since the demand was last replenished, guarded by this object.
+         */
+        private int consumed;
+
+        /**
+         * The subscription of the publisher, or <code>null</code> if it has not been received yet.
+         */
+        private volatile @Nullable Subscription subscription;
+
+        /**
+         * Indicates, whether the stream has been cancelled.
+         */
+        private volatile boolean cancelled;
+
+        /**
+         * Create a new publisher stream.
+         *
+         * @param publisher the publisher of the elements
+         * @param prefetch the number of the elements to request in advance
+         */
+        private PublisherStream(@NotNull Publisher<T> publisher, int prefetch) {
+            this.publisher = publisher;
+            this.prefetch = prefetch;
+            this.limit = Math.max(1, prefetch - (prefetch >> 2));
+        }
+
+        /**
+         * Request the next element of the publisher, subscribing to it on the first request.
+         *
+         * @return the Future of the next element, or of <code>null</code> if the publisher has completed
+         */
+        @Override
+        public @NotNull Future<T> next() {
+            boolean subscribe;
+            T value;
+            Future<T> future = null;
+            synchronized (this) {
+                subscribe = !subscribed;
+                subscribed = true;
+
+                // take a buffered element, or wait for the next one
+                value = queue.poll();
+                if (value == null) {
+                    if (error != null)
+                        return Future.failed(error);
+                    if (completed)
+                        return Future.completed();
+                    future = out = new Future<>();
+                }
+            }
+
+            if (subscribe)
+                publisher.subscribe(this);
+
+            if (value == null)
+                return future;
+            replenish();
+            return Future.completed(value);
+        }
+
+        /**
+         * Cancel the subscription of the publisher.
+         */
+        @Override
+        public void cancel() {
+            cancelled = true;
+            Subscription subscription = this.subscription;
+            if (subscription != null)
+                subscription.cancel();
+        }
+
+        /**
+         * Request the initial elements from the publisher.
+         *
+         * @param subscription the subscription of the publisher
+         */
+        @Override
+        public void onSubscribe(@NotNull Subscription subscription) {
+            if (this.subscription != null) {
+                subscription.cancel();
+                return;
+            }
+            this.subscription = subscription;
+
+            if (cancelled)
+                subscription.cancel();
+            else
+                subscription.request(prefetch);
+        }
+
+        /**
+         * Hand the received element to the waiting request, or buffer it, if there is none.
+         *
+         * @param value the received element
+         */
+        @Override
+        public void onNext(@NotNull T value) {
+            Future<T> future;
+            synchronized (this) {
+                future = out;
+                out = null;
+                if (future == null) {
+                    queue.add(value);
+                    return;
+                }
+            }
+            replenish();
+            future.complete(value);
+        }
+
+        /**
+         * Fail the waiting request, or remember the error for the next request.
+         *
+         * @param error the error of the publisher
+         */
+        @Override
+        public void onError(@NotNull Throwable error) {
+            Future<T> future;
+            synchronized (this) {
+                this.error = error;
+                future = out;
+                out = null;
+            }
+            if (future != null)
+                future.fail(error);
+        }
+
+        /**
+         * End the stream for the waiting request, or for the next request.
+         */
+        @Override
+        public void onComplete() {
+            Future<T> future;
+            synchronized (this) {
+                completed = true;
+                future = out;
+                out = null;
+            }
+            if (future != null)
+                future.complete(null);
+        }
+
+        /**
+         * Count the consumed element, and request more elements from the publisher, if enough have been consumed.
+         */
+        private void replenish() {
+            synchronized (this) {
+                if (++consumed < limit)
+                    return;
+                consumed = 0;
+            }
+            Subscription subscription = this.subscription;
+            if (subscription != null)
+                subscription.request(limit);
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.atlas.futura.concurrent.future;
+
+import com.google.errorprone.annotations.CheckReturnValue;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Represents a policy, that determines whether and when a failed {@link Future} operation should be retried.
+ * <p>
+ * The policy is immutable, the <code>with</code> methods create modified copies of it. A policy can be shared
+ * between any number of operations, the state of the retries is kept by the operations themselves.
+ * <pre>
+ * RetryPolicy policy = RetryPolicy.exponential(100, 5000, TimeUnit.MILLISECONDS)
+ *     .withMaxAttempts(5)
+ *     .withRetryOn(error -> error instanceof IOException);
+ *
+ * Future.retryAsync(() -> client.fetch(id), policy)
+ *     .then(response -> handle(response));
+ * </pre>
+ *
+ * @author AdvancedAntiSkid
+ *
+ * @since 1.0
+ */
+@Getter
+public final class RetryPolicy {
+    /**
+     * The listener, that ignores every event.
+     */
+    private static final @NotNull Listener NO_LISTENER = new Listener() {};
+
+    /**
+     * The strategy, that calculates the delays between the attempts.
+     */
+    private final @NotNull Backoff backoff;
+
+    /**
+     * The base delay between the attempts in milliseconds.
+     */
+    private final long delay;
+
+    /**
+     * The maximum delay between the attempts in milliseconds.
+     */
+    private final long maxDelay;
+
+    /**
+     * The factor, that the delay is multiplied with after each attempt by the exponential backoff.
+     */
+    private final double multiplier;
+
+    /**
+     * The maximum number of attempts, including the first one.
+     */
+    private final int maxAttempts;
+
+    /**
+     * The predicate, that determines whether the operation should be retried after the specified error.
+     */
+    private final @NotNull Predicate<@NotNull Throwable> retryOn;
+
+    /**
+     * The listener, that is notified about the attempts of the operations.
+     */
+    private final @NotNull Listener listener;
+
+    /**
+     * Create a new retry policy.
+     *
+     * @param backoff the strategy of the delays
+     * @param delay the base delay in milliseconds
+     * @param maxDelay the maximum delay in milliseconds
+     * @param multiplier the factor of the exponential backoff
+     * @param maxAttempts the maximum number of attempts
+     * @param retryOn the predicate of the retryable errors
+     * @param listener the listener of the attempts
+     */
+    private RetryPolicy(
+        @NotNull Backoff backoff, long delay, long maxDelay, double multiplier, int maxAttempts,
+        @NotNull Predicate<@NotNull Throwable> retryOn, @NotNull Listener listener
+    ) {
+        this.backoff = backoff;
+        this.delay = delay;
+        this.maxDelay = maxDelay;
+        this.multiplier = multiplier;
+        this.maxAttempts = maxAttempts;
+        this.retryOn = retryOn;
+        this.listener = listener;
+    }
+
+    /**
+     * Create a new policy, that waits the same delay between each attempt.
+     * <p>
+     * The policy performs at most 3 attempts, and retries after any error, except for cancellation.
+     *
+     * @param delay the delay between the attempts
+     * @param unit the unit of the delay
+     * @return a new retry policy
+     */
+    @CheckReturnValue
+    public static @NotNull RetryPolicy fixed(long delay, @NotNull TimeUnit unit) {
+        long millis = toMillis(delay, unit);
+        return new RetryPolicy(Backoff.FIXED, millis, millis, 1.0, 3, RetryPolicy::isRetryable, NO_LISTENER);
+    }
+
+    /**
+     * Create a new policy, that doubles the delay after each attempt, until it reaches the maximum delay.
+     * <p>
+     * The policy performs at most 3 attempts, and retries after any error, except for cancellation.
+     *
+     * @param delay the delay before the first retry
+     * @param maxDelay the maximum delay between the attempts
+     * @param unit the unit of the delays
+     * @return a new retry policy
+     */
+    @CheckReturnValue
+    public static @NotNull RetryPolicy exponential(long delay, long maxDelay, @NotNull TimeUnit unit) {
+        return new RetryPolicy(
+            Backoff.EXPONENTIAL, toMillis(delay, unit), toMillis(maxDelay, unit), 2.0, 3,
+            RetryPolicy::isRetryable, NO_LISTENER
+        );
+    }
+
+    /**
+     * Create a new policy, that picks a random delay between the base delay and the triple of the previous delay,
+     * capped by the maximum delay. The random spread prevents the retries of concurrent operations from
+     * synchronizing, and hitting the recovering service at the same time.
+     * <p>
+     * The policy performs at most 3 attempts, and retries after any error, except for cancellation.
+     *
+     * @param delay the base delay between the attempts
+     * @param maxDelay the maximum delay between the attempts
+     * @param unit the unit of the delays
+     * @return a new retry policy
+     */
+    @CheckReturnValue
+    public static @NotNull RetryPolicy decorrelatedJitter(long delay, long maxDelay, @NotNull TimeUnit unit) {
+        return new RetryPolicy(
+            Backoff.DECORRELATED_JITTER, toMillis(delay, unit), toMillis(maxDelay, unit), 3.0, 3,
+            RetryPolicy::isRetryable, NO_LISTENER
+        );
+    }
+
+    /**
+     * Create a copy of this policy, that performs at most the specified number of attempts.
+     *
+     * @param maxAttempts the maximum number of attempts, including the first one
+     * @return a new retry policy
+     */
+    @CheckReturnValue
+    public @NotNull RetryPolicy withMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1)
+            throw new IllegalArgumentException("Retry policy must have at least one attempt");
+        return new RetryPolicy(backoff, delay, maxDelay, multiplier, maxAttempts, retryOn, listener);
+    }
+
+    /**
+     * Create a copy of this policy, that uses the specified factor for the exponential backoff.
+     *
+     * @param multiplier the factor, that the delay is multiplied with after each attempt
+     * @return a new retry policy
+     */
+    @CheckReturnValue
+    public @NotNull RetryPolicy withMultiplier(double multiplier) {
+        if (multiplier < 1.0)
+            throw new IllegalArgumentException("Backoff multiplier must not be less than 1");
+        return new RetryPolicy(backoff, delay, maxDelay, multiplier, maxAttempts, retryOn, listener);
+    }
+
+    /**
+     * Create a copy of this policy, that only retries the operations after errors, that match the specified predicate.
+     *
+     * @param retryOn the predicate, that determines whether the operation should be retried after an error
+     * @return a new retry policy
+     */
+    @CheckReturnValue
+    public @NotNull RetryPolicy withRetryOn(@NotNull Predicate<@NotNull Throwable> retryOn) {
+        return new RetryPolicy(backoff, delay, maxDelay, multiplier, maxAttempts, retryOn, listener);
+    }
+
+    /**
+     * Create a copy of this policy, that notifies the specified listener about the attempts.
+     *
+     * @param listener the listener of the attempts
+     * @return a new retry policy
+     */
+    @CheckReturnValue
+    public @NotNull RetryPolicy withListener(@NotNull Listener listener) {
+        return new RetryPolicy(backoff, delay, maxDelay, multiplier, maxAttempts, retryOn, listener);
+    }
+
+    /**
+     * Indicate, whether the operation should be retried after the specified failed attempt.
+     *
+     * @param attempt the number of the failed attempt, starting from 1
+     * @param error the error of the attempt
+     * @return <code>true</code> if the operation should be retried, <code>false</code> otherwise
+     */
+    boolean shouldRetry(int attempt, @NotNull Throwable error) {
+        return attempt < maxAttempts && retryOn.test(error);
+    }
+
+    /**
+     * Calculate the delay before the next attempt.
+     *
+     * @param attempt the number of the failed attempt, starting from 1
+     * @param previous the previous delay in milliseconds, or <code>0</code> before the first retry
+     * @return the delay before the next attempt in milliseconds
+     */
+    long nextDelay(int attempt, long previous) {
+        switch (backoff) {
+            case EXPONENTIAL:
+                return (long) Math.min(maxDelay, delay * Math.pow(multiplier, attempt - 1));
+            case DECORRELATED_JITTER:
+                long upper = (long) Math.min(maxDelay, Math.max(delay, previous) * multiplier);
+                return upper <= delay ? delay : ThreadLocalRandom.current().nextLong(delay, upper + 1);
+            default:
+                return delay;
+        }
+    }
+
+    /**
+     * Indicate, whether the specified error should be retried by default.
+     *
+     * @param error the error of the attempt
+     * @return <code>true</code> if the error is not a cancellation, <code>false</code> otherwise
+     */
+    private static boolean isRetryable(@NotNull Throwable error) {
+        return !(error instanceof CancellationException);
+    }
+
+    /**
+     * Convert the specified delay to milliseconds.
+     *
+     * @param delay the delay to convert
+     * @param unit the unit of the delay
+     * @return the delay in milliseconds
+     */
+    private static long toMillis(long delay, @NotNull TimeUnit unit) {
+        if (delay < 0)
+            throw new IllegalArgumentException("Retry delay must not be negative");
+        return unit.toMillis(delay);
+    }
+
+    /**
+     * Represents a strategy, that calculates the delays between the attempts.
+     */
+    public enum Backoff {
+        /**
+         * The same delay is waited between each attempt.
+         */
+        FIXED,
+
+        /**
+         * The delay is multiplied after each attempt, until it reaches the maximum delay.
+         */
+        EXPONENTIAL,
+
+        /**
+         * A random delay is picked between the base delay and a multiple of the previous delay.
+         */
+        DECORRELATED_JITTER
+    }
+
+    /**
+     * Represents a listener, that is notified about the attempts of the retried operations.
+     * <p>
+     * This can be used to collect metrics about the retries. Each method has an empty default implementation,
+     * so that only the interesting events need to be implemented.
+     */
+    public interface Listener {
+        /**
+         * Called, when an attempt has failed, and the operation is going to be retried.
+         *
+         * @param attempt the number of the failed attempt, starting from 1
+         * @param error the error of the attempt
+         * @param delay the delay before the next attempt in milliseconds
+         */
+        default void onRetry(int attempt, @NotNull Throwable error, long delay) {
+        }
+
+        /**
+         * Called, when the operation has completed successfully.
+         *
+         * @param attempts the number of the performed attempts
+         */
+        default void onSuccess(int attempts) {
+        }
+
+        /**
+         * Called, when the operation has failed, and it is not going to be retried anymore.
+         *
+         * @param attempts the number of the performed attempts
+         * @param error the error of the last attempt
+         */
+        default void onFailure(int attempts, @NotNull Throwable error) {
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.atlas.futura.concurrent.future;
+
+/**
+ * Represents a utility, that is called in the busy-wait loops, which only wait for a short moment.
+ * <p>
+ * This is the Java 8 implementation, that yields the processor. On Java 9 and above, the multi-release JAR
+ * replaces it with an implementation, that uses <code>Thread.onSpinWait()</code>.
+ */
+final class SpinWait {
+    /**
+     * Indicate, that the caller is momentarily unable to progress, until another thread acts.
+     */
+    static void onSpinWait() {
+        Thread.yield();
+    }
+}
@@ -0,0 +1,151 @@
+package com.atlas.futura.concurrent.future;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Represents a loop, that pulls the elements of a {@link FutureStream} one at a time.
+ * <p>
+ * The loop is entered by a single thread at a time. If a pulled Future is completed synchronously, its callback
+ * only signals the running loop to perform another pass, instead of entering the loop recursively, therefore
+ * arbitrarily long streams of already completed elements are processed without deepening the stack.
+ * <p>
+ * At most one pulled Future is outstanding at a time, and a new one is only requested, when the implementation
+ * has demand for it. This is what gives the streams their backpressure.
+ */
+abstract class StreamLoop {
+    /**
+     * The atomic updater used to count the pending requests of the {@link #drain()} loop.
+     */
+    private static final @NotNull AtomicIntegerFieldUpdater<StreamLoop> WIP =
+        AtomicIntegerFieldUpdater.newUpdater(StreamLoop.class, "wip");
+
+    /**
+     * The number of the pending requests of the drain loop.
+     */
+    private volatile int wip;
+
+    /**
+     * Indicates, whether a pulled Future is outstanding, only accessed by the drain loop.
+     */
+    private boolean requested;
+
+    /**
+     * Indicates, whether the outstanding Future has completed, and its result is ready to be accepted.
+     */
+    private volatile boolean ready;
+
+    /**
+     * The completion value of the outstanding Future, published by {@link #ready}.
+     */
+    private @Nullable Object value;
+
+    /**
+     * The error of the outstanding Future, published by {@link #ready}.
+     */
+    private @Nullable Throwable error;
+
+    /**
+     * Request the next Future to be pulled.
+     *
+     * @return the Future of the next result, or <code>null</code> if there is no demand for it
+     *
+     * @throws Throwable the request could not be made
+     */
+    abstract @Nullable Future<?> request() throws Throwable;
+
+    /**
+     * Accept the completion value of the pulled Future.
+     *
+     * @param value the completion value, or <code>null</code> if the pulled stream has ended
+     *
+     * @throws Throwable the value could not be accepted
+     */
+    abstract void accept(@Nullable Object value) throws Throwable;
+
+    /**
+     * Handle the failure of the pulled Future, or of the loop implementation itself.
+     *
+     * @param error the error of the loop
+     */
+    abstract void reject(@NotNull Throwable error);
+
+    /**
+     * Perform the work, that does not depend on the pulled Future, at the start of each pass of the loop.
+     */
+    void tick() {
+    }
+
+    /**
+     * Pull and accept the results, until there is no demand, or the outstanding Future has not completed yet.
+     * <p>
+     * If the loop is already running on another thread, or further up the stack, the request is only counted,
+     * and the running loop performs another pass.
+     */
+    final void drain() {
+        if (WIP.getAndIncrement(this) != 0)
+            return;
+
+        int missed = 1;
+        do {
+            for (;;) {
+                tick();
+
+                // request the next future, if there is demand for it
+                if (!requested) {
+                    Future<?> future;
+                    try {
+                        future = request();
+                    } catch (Throwable e) {
+                        reject(e);
+                        break;
+                    }
+                    if (future == null)
+                        break;
+                    requested = true;
+                    await(future);
+                }
+
+                // wait for the callback of the outstanding future to signal the loop
+                if (!ready)
+                    break;
+                ready = false;
+                requested = false;
+
+                Object value = this.value;
+                Throwable error = this.error;
+                this.value = null;
+                this.error = null;
+
+                if (error != null) {
+                    reject(error);
+                    continue;
+                }
+
+                try {
+                    accept(value);
+                } catch (Throwable e) {
+                    reject(e);
+                }
+            }
+            missed = WIP.addAndGet(this, -missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Register the callback of the specified pulled Future, that hands its result over to the loop.
+     *
+     * @param future the pulled Future
+     * @param <V> the type of the Future
+     */
+    private <V> void await(@NotNull Future<V> future) {
+        future.result((value, error) -> {
+            this.value = value;
+            this.error = error;
+            ready = true;
+            drain();
+        });
+    }
+}
@@ -0,0 +1,667 @@
+package com.atlas.futura.concurrent.future;
+
+import com.atlas.futura.function.ThrowableFunction;
+import com.atlas.futura.util.Validator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+
+/**
+ * Represents the implementations of the operators of {@link FutureStream}.
+ */
+final class StreamOperators {
+    /**
+     * Prevent the instantiation of the operator holder.
+     */
+    private StreamOperators() {
+    }
+
+    /**
+     * Represents a stream, that transforms each element of the upstream.
+     *
+     * @param <T> the type of the upstream elements
+     * @param <R> the type of the transformed elements
+     */
+    static final class Mapping<T, R> implements FutureStream<R> {
+        /**
+         * The stream, whose elements are transformed.
+         */
+        private final @NotNull FutureStream<T> upstream;
+
+        /**
+         * The function, that transforms the elements.
+         */
+        private final @NotNull Function<? super T, ? extends R> mapper;
+
+        /**
+         * Create a new transforming stream.
+         *
+         * @param upstream the stream, whose elements are transformed
+         * @param mapper the function, that transforms the elements
+         */
+        Mapping(@NotNull FutureStream<T> upstream, @NotNull Function<? super T, ? extends R> mapper) {
+            this.upstream = upstream;
+            this.mapper = mapper;
+        }
+
+        /**
+         * Request the next element of the upstream, and transform it.
+         *
+         * @return the Future of the transformed element, or of <code>null</code> if the upstream has ended
+         */
+        @Override
+        public @NotNull Future<R> next() {
+            return upstream.next().transform(value -> {
+                if (value == null)
+                    return null;
+                R result = mapper.apply(value);
+                Validator.notNull(result, "stream element");
+                return result;
+            });
+        }
+
+        /**
+         * Cancel the upstream.
+         */
+        @Override
+        public void cancel() {
+            upstream.cancel();
+        }
+    }
+
+    /**
+     * Represents a stream, that transforms each element of the upstream to a Future.
+     *
+     * @param <T> the type of the upstream elements
+     * @param <R> the type of the transformed elements
+     */
+    static final class AsyncMapping<T, R> implements FutureStream<R> {
+        /**
+         * The stream, whose elements are transformed.
+         */
+        private final @NotNull FutureStream<T> upstream;
+
+        /**
+         * The function, that produces the Future of the transformed element.
+         */
+        private final @NotNull ThrowableFunction<T, @NotNull Future<R>, Throwable> mapper;
+
+        /**
+         * Create a new asynchronously transforming stream.
+         *
+         * @param upstream the stream, whose elements are transformed
+         * @param mapper the function, that produces the Future of the transformed element
+         */
+        AsyncMapping(
+            @NotNull FutureStream<T> upstream, @NotNull ThrowableFunction<T, @NotNull Future<R>, Throwable> mapper
+        ) {
+            this.upstream = upstream;
+            this.mapper = mapper;
+        }
+
+        /**
+         * Request the next element of the upstream, and wait for its transformed Future.
+         *
+         * @return the Future of the transformed element, or of <code>null</code> if the upstream has ended
+         */
+        @Override
+        public @NotNull Future<R> next() {
+            return upstream.next().tryTransformAsync(value -> value == null ? Future.completed() : mapper.apply(value));
+        }
+
+        /**
+         * Cancel the upstream.
+         */
+        @Override
+        public void cancel() {
+            upstream.cancel();
+        }
+    }
+
+    /**
+     * Represents a stream, that pulls the elements of the upstream using a {@link StreamLoop}, and emits its own
+     * elements, when they are requested by the downstream.
+     *
+     * @param <R> the type of the emitted elements
+     */
+    abstract static class Operator<R> extends StreamLoop implements FutureStream<R> {
+        /**
+         * The Future of the element, that has been requested by the downstream, or <code>null</code> if there
+         * is no demand.
+         */
+        private volatile @Nullable Future<R> out;
+
+        /**
+         * Indicates, whether the stream has ended.
+         */
+        private volatile boolean finished;
+
+        /**
+         * The error, that the stream has failed with, or <code>null</code> if it has not failed.
+         */
+        private volatile @Nullable Throwable failure;
+
+        /**
+         * Request the next element of the stream, and start pulling the upstream for it.
+         *
+         * @return the Future of the next element, or of <code>null</code> if the stream has ended
+         */
+        @Override
+        public final @NotNull Future<R> next() {
+            Throwable failure = this.failure;
+            if (failure != null)
+                return Future.failed(failure);
+            if (finished)
+                return Future.completed();
+
+            Future<R> future = new Future<>();
+            out = future;
+            drain();
+            return future;
+        }
+
+        /**
+         * Indicate, whether the downstream is waiting for an element.
+         *
+         * @return <code>true</code> if an element has been requested, <code>false</code> otherwise
+         */
+        final boolean hasDemand() {
+            return out != null;
+        }
+
+        /**
+         * Emit the specified element to the downstream.
+         * <p>
+         * The demand is cleared before the element is emitted, because the downstream may request the next element
+         * from its callback.
+         *
+         * @param value the element to emit
+         */
+        final void emit(@NotNull R value) {
+            Future<R> future = out;
+            out = null;
+            if (future != null)
+                future.complete(value);
+        }
+
+        /**
+         * Emit the specified element to the downstream, and end the stream.
+         *
+         * @param value the last element of the stream
+         */
+        final void emitLast(@NotNull R value) {
+            finished = true;
+            emit(value);
+        }
+
+        /**
+         * End the stream, and signal the end to the downstream.
+         */
+        final void end() {
+            finished = true;
+            Future<R> future = out;
+            out = null;
+            if (future != null)
+                future.complete(null);
+        }
+
+        /**
+         * Fail the stream, and signal the error to the downstream.
+         *
+         * @param error the error of the stream
+         */
+        @Override
+        final void reject(@NotNull Throwable error) {
+            failure = error;
+            Future<R> future = out;
+            out = null;
+            if (future != null)
+                future.fail(error);
+        }
+    }
+
+    /**
+     * Represents a stream, that skips the elements of the upstream, that do not match a predicate.
+     *
+     * @param <T> the type of the elements
+     */
+    static final class Filter<T> extends Operator<T> {
+        /**
+         * The stream, whose elements are filtered.
+         */
+        private final @NotNull FutureStream<T> upstream;
+
+        /**
+         * The predicate, that the emitted elements match.
+         */
+        private final @NotNull Predicate<? super T> predicate;
+
+        /**
+         * Create a new filtering stream.
+         *
+         * @param upstream the stream, whose elements are filtered
+         * @param predicate the predicate, that the emitted elements match
+         */
+        Filter(@NotNull FutureStream<T> upstream, @NotNull Predicate<? super T> predicate) {
+            this.upstream = upstream;
+            this.predicate = predicate;
+        }
+
+        @Override
+        @Nullable Future<?> request() {
+            return hasDemand() ? upstream.next() : null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void accept(@Nullable Object value) {
+            if (value == null)
+                end();
+            else if (predicate.test((T) value))
+                emit((T) value);
+        }
+
+        /**
+         * Cancel the upstream.
+         */
+        @Override
+        public void cancel() {
+            upstream.cancel();
+        }
+    }
+
+    /**
+     * Represents a stream, that transforms each element of the upstream to a stream, and emits the elements
+     * of these streams one after the other.
+     *
+     * @param <T> the type of the upstream elements
+     * @param <R> the type of the emitted elements
+     */
+    static final class FlatMap<T, R> extends Operator<R> {
+        /**
+         * The stream, whose elements are transformed.
+         */
+        private final @NotNull FutureStream<T> upstream;
+
+        /**
+         * The function, that transforms an element to a stream.
+         */
+        private final @NotNull Function<? super T, ? extends FutureStream<R>> mapper;
+
+        /**
+         * The stream of the current upstream element, or <code>null</code> if the next upstream element
+         * should be pulled.
+         */
+        private volatile @Nullable FutureStream<R> inner;
+
+        /**
+         * Indicates, whether the outstanding request was made to the inner stream, only accessed by the loop.
+         */
+        private boolean pullingInner;
+
+        /**
+         * Create a new flattening stream.
+         *
+         * @param upstream the stream, whose elements are transformed
+         * @param mapper the function, that transforms an element to a stream
+         */
+        FlatMap(@NotNull FutureStream<T> upstream, @NotNull Function<? super T, ? extends FutureStream<R>> mapper) {
+            this.upstream = upstream;
+            this.mapper = mapper;
+        }
+
+        @Override
+        @Nullable Future<?> request() {
+            if (!hasDemand())
+                return null;
+            FutureStream<R> inner = this.inner;
+            pullingInner = inner != null;
+            return inner != null ? inner.next() : upstream.next();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void accept(@Nullable Object value) {
+            if (pullingInner) {
+                // move on to the next upstream element, if the inner stream has ended
+                if (value == null)
+                    inner = null;
+                else
+                    emit((R) value);
+                return;
+            }
+
+            if (value == null) {
+                end();
+                return;
+            }
+            FutureStream<R> inner = mapper.apply((T) value);
+            Validator.notNull(inner, "inner stream");
+            this.inner = inner;
+        }
+
+        /**
+         * Cancel the current inner stream and the upstream.
+         */
+        @Override
+        public void cancel() {
+            FutureStream<R> inner = this.inner;
+            if (inner != null)
+                inner.cancel();
+            upstream.cancel();
+        }
+    }
+
+    /**
+     * Represents a stream, that collects the elements of the upstream into lists of a fixed size.
+     *
+     * @param <T> the type of the upstream elements
+     */
+    static final class Buffer<T> extends Operator<List<T>> {
+        /**
+         * The stream, whose elements are collected.
+         */
+        private final @NotNull FutureStream<T> upstream;
+
+        /**
+         * The number of the elements of a list.
+         */
+        private final int size;
+
+        /**
+         * The list of the elements, that are collected for the next emission, only accessed by the loop.
+         */
+        private @NotNull List<T> buffer;
+
+        /**
+         * Create a new buffering stream.
+         *
+         * @param upstream the stream, whose elements are collected
+         * @param size the number of the elements of a list
+         */
+        Buffer(@NotNull FutureStream<T> upstream, int size) {
+            this.upstream = upstream;
+            this.size = size;
+            this.buffer = new ArrayList<>(size);
+        }
+
+        @Override
+        @Nullable Future<?> request() {
+            return hasDemand() ? upstream.next() : null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void accept(@Nullable Object value) {
+            // emit the incomplete list, when the upstream ends
+            if (value == null) {
+                if (buffer.isEmpty())
+                    end();
+                else
+                    emitLast(buffer);
+                return;
+            }
+
+            buffer.add((T) value);
+            if (buffer.size() >= size) {
+                List<T> full = buffer;
+                buffer = new ArrayList<>(size);
+                emit(full);
+            }
+        }
+
+        /**
+         * Cancel the upstream.
+         */
+        @Override
+        public void cancel() {
+            upstream.cancel();
+        }
+    }
+
+    /**
+     * Represents a stream, that collects the elements of the upstream into lists, that span a period of time.
+     * <p>
+     * A window is opened by its first element, and it is emitted, when the time span elapses, or when it reaches
+     * the maximum size. The expiration is signalled by the timer, but the window is emitted by the loop itself,
+     * therefore the state of the windows is only accessed by a single thread at a time. The timer hands the
+     * expiration off to the executor, so that the downstream does not receive the expired windows on its thread.
+     *
+     * @param <T> the type of the upstream elements
+     */
+    static final class Window<T> extends Operator<List<T>> {
+        /**
+         * The stream, whose elements are collected.
+         */
+        private final @NotNull FutureStream<T> upstream;
+
+        /**
+         * The time span of a window in nanoseconds.
+         */
+        private final long timespan;
+
+        /**
+         * The maximum number of the elements of a window.
+         */
+        private final int maxSize;
+
+        /**
+         * The scheduler, that signals the expiration of the windows.
+         */
+        private final @NotNull ScheduledExecutorService timer;
+
+        /**
+         * The executor, that emits the expired windows, instead of the thread of the timer.
+         */
+        private final @NotNull Executor executor;
+
+        /**
+         * The elements of the current window, only accessed by the loop.
+         */
+        private @NotNull List<T> window = new ArrayList<>();
+
+        /**
+         * The sequence number of the current window, only accessed by the loop.
+         */
+        private int generation;
+
+        /**
+         * The sequence number of the last expired window.
+         */
+        private volatile int expired = -1;
+
+        /**
+         * The scheduled expiration of the current window, or <code>null</code> if no window is open.
+         */
+        private volatile @Nullable ScheduledFuture<?> task;
+
+        /**
+         * Create a new windowing stream.
+         *
+         * @param upstream the stream, whose elements are collected
+         * @param timespan the time span of a window in nanoseconds
+         * @param maxSize the maximum number of the elements of a window
+         * @param timer the scheduler, that signals the expiration of the windows
+         * @param executor the executor, that emits the expired windows
+         */
+        Window(
+            @NotNull FutureStream<T> upstream, long timespan, int maxSize, @NotNull ScheduledExecutorService timer,
+            @NotNull Executor executor
+        ) {
+            this.upstream = upstream;
+            this.timespan = timespan;
+            this.maxSize = maxSize;
+            this.timer = timer;
+            this.executor = executor;
+        }
+
+        @Override
+        void tick() {
+            // emit the current window, if it has expired, and the downstream is waiting for it
+            if (expired == generation && !window.isEmpty() && hasDemand())
+                flush();
+        }
+
+        @Override
+        @Nullable Future<?> request() {
+            return hasDemand() ? upstream.next() : null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void accept(@Nullable Object value) {
+            // emit the incomplete window, when the upstream ends
+            if (value == null) {
+                stopTimer();
+                if (window.isEmpty())
+                    end();
+                else
+                    emitLast(window);
+                return;
+            }
+
+            window.add((T) value);
+
+            // open a new window with its first element
+            if (window.size() == 1) {
+                int generation = this.generation;
+                task = Future.schedule(timer, executor, () -> {
+                    expired = generation;
+                    drain();
+                }, timespan, TimeUnit.NANOSECONDS);
+            }
+
+            if (window.size() >= maxSize || expired == generation)
+                flush();
+        }
+
+        /**
+         * Emit the current window, and start collecting the next one.
+         */
+        private void flush() {
+            stopTimer();
+            List<T> full = window;
+            window = new ArrayList<>();
+            generation++;
+            emit(full);
+        }
+
+        /**
+         * Cancel the expiration of the current window.
+         */
+        private void stopTimer() {
+            ScheduledFuture<?> task = this.task;
+            this.task = null;
+            if (task != null)
+                task.cancel(false);
+        }
+
+        /**
+         * Cancel the expiration of the current window, and the upstream.
+         */
+        @Override
+        public void cancel() {
+            stopTimer();
+            upstream.cancel();
+        }
+    }
+
+    /**
+     * Represents a terminal operation, that reduces the elements of a stream using a {@link Collector}.
+     *
+     * @param <T> the type of the stream elements
+     * @param <A> the type of the mutable accumulation
+     * @param <R> the type of the result
+     */
+    static final class Collect<T, A, R> extends StreamLoop {
+        /**
+         * The stream, whose elements are collected.
+         */
+        private final @NotNull FutureStream<T> upstream;
+
+        /**
+         * The function, that adds an element to the accumulation.
+         */
+        private final @NotNull BiConsumer<A, ? super T> accumulator;
+
+        /**
+         * The function, that converts the accumulation to the result.
+         */
+        private final @NotNull Function<A, R> finisher;
+
+        /**
+         * The resolver, that completes the Future of the result.
+         */
+        private final @NotNull FutureResolver<R> resolver;
+
+        /**
+         * The mutable accumulation of the elements, only accessed by the loop.
+         */
+        private final A container;
+
+        /**
+         * Indicates, whether the operation has completed, failed, or has been cancelled.
+         */
+        private volatile boolean done;
+
+        /**
+         * Create a new collecting operation.
+         *
+         * @param upstream the stream, whose elements are collected
+         * @param collector the collector, that reduces the elements
+         * @param resolver the resolver, that completes the Future of the result
+         */
+        Collect(
+            @NotNull FutureStream<T> upstream, @NotNull Collector<? super T, A, R> collector,
+            @NotNull FutureResolver<R> resolver
+        ) {
+            this.upstream = upstream;
+            this.accumulator = collector.accumulator();
+            this.finisher = collector.finisher();
+            this.resolver = resolver;
+            this.container = collector.supplier().get();
+
+            // stop pulling the elements, if the result is no longer needed
+            resolver.onCancel(() -> {
+                done = true;
+                upstream.cancel();
+            });
+        }
+
+        @Override
+        @Nullable Future<?> request() {
+            return done ? null : upstream.next();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void accept(@Nullable Object value) {
+            if (value != null) {
+                accumulator.accept(container, (T) value);
+                return;
+            }
+            R result = finisher.apply(container);
+            done = true;
+            resolver.complete(result);
+        }
+
+        @Override
+        void reject(@NotNull Throwable error) {
+            if (done)
+                return;
+            done = true;
+            resolver.fail(error);
+            upstream.cancel();
+        }
+    }
+}
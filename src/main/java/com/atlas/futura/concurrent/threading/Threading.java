@@ -1,20 +1,32 @@
 package com.atlas.futura.concurrent.threading;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
-import lombok.SneakyThrows;
 import lombok.experimental.UtilityClass;
 import org.jetbrains.annotations.NotNull;
 
-import java.lang.reflect.Method;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents a utility class for creating and managing threads.
  */
 @UtilityClass
 public class Threading {
+    /**
+     * The name of the system property, that selects the type of the default executor of the Futures.
+     * The value is either <code>virtual</code> (the default), or <code>work-stealing</code>.
+     *
+     * @see #createDefault(int)
+     */
+    public final @NotNull String EXECUTOR_PROPERTY = "futura.executor";
+
     /**
      * The executor service creator factory.
      */
@@ -24,6 +36,60 @@ public class Threading {
         .setUncaughtExceptionHandler(new UnhandledExceptionReporter())
         .build();
 
+    /**
+     * The scheduler service creator factory.
+     */
+    private final @NotNull ThreadFactory SCHEDULER_FACTORY = new ThreadFactoryBuilder()
+        .setNameFormat("scheduler-%d")
+        .setDaemon(true)
+        .setUncaughtExceptionHandler(new UnhandledExceptionReporter())
+        .build();
+
+    /**
+     * The sequence number of the last created work-stealing pool, that distinguishes the names of the workers
+     * of different pools.
+     */
+    private final @NotNull AtomicInteger WORKER_POOLS = new AtomicInteger();
+
+    /**
+     * Create the default executor of the Futures, with the type selected by the {@link #EXECUTOR_PROPERTY}
+     * system property.
+     *
+     * @param poolSize the size of the pool
+     * @return a work-stealing pool if it is selected, a virtual or pool executor service otherwise
+     */
+    public @NotNull ExecutorService createDefault(int poolSize) {
+        if ("work-stealing".equalsIgnoreCase(System.getProperty(EXECUTOR_PROPERTY)))
+            return createWorkStealing(poolSize);
+        return createVirtualOrPool(poolSize);
+    }
+
+    /**
+     * Create a work-stealing executor service, that is meant for running many short, non-blocking tasks,
+     * such as the asynchronous continuations of the Futures.
+     * <p>
+     * Unlike a fixed thread pool, that shares a single work queue between every thread, each worker of the pool has
+     * its own task queue. The tasks submitted from a worker thread are pushed to the queue of that worker, and
+     * idle workers steal tasks from the others, therefore the submissions rarely contend with each other.
+     * The pool runs in asynchronous mode, so that the local tasks are processed in the order of the submission.
+     * <p>
+     * The worker threads are daemon threads, named <code>worker-&lt;pool&gt;-&lt;index&gt;</code>. The tasks should
+     * not block for long, because blocked workers are not replaced by the pool.
+     *
+     * @param parallelism the number of the worker threads
+     * @return a new work-stealing executor service
+     */
+    public @NotNull ExecutorService createWorkStealing(int parallelism) {
+        int pool = WORKER_POOLS.incrementAndGet();
+        ForkJoinWorkerThreadFactory factory = owner -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(owner);
+            thread.setName("worker-" + pool + "-" + thread.getPoolIndex());
+            thread.setPriority(7);
+            return thread;
+        };
+        return new WorkStealingPool(parallelism, factory, new UnhandledExceptionReporter());
+    }
+
     /**
      * Create a virtual executor service, or a thread pool if virtual threads are not supported by the JVM
      * in the current environment.
@@ -31,13 +97,25 @@ public class Threading {
      * @param poolSize the size of the pool
      * @return a virtual or pool executor service
      */
-    @SneakyThrows
     public @NotNull ExecutorService createVirtualOrPool(int poolSize) {
-        try {
-            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
-            return (ExecutorService) method.invoke(null);
-        } catch (NoSuchMethodException e) {
-            return Executors.newFixedThreadPool(poolSize, FACTORY);
-        }
+        ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+        if (executor != null)
+            return executor;
+        return Executors.newFixedThreadPool(poolSize, FACTORY);
+    }
+
+    /**
+     * Create a scheduler service, that is meant to be shared for running short, delayed tasks, such as timeouts.
+     * <p>
+     * The scheduler threads are daemon threads, and cancelled tasks are removed from the work queue immediately,
+     * so that cancelled timeouts do not retain their Futures until their delay would have elapsed.
+     *
+     * @param poolSize the number of the scheduler threads
+     * @return a new scheduler service
+     */
+    public @NotNull ScheduledExecutorService createScheduler(int poolSize) {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(poolSize, SCHEDULER_FACTORY);
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
     }
 }
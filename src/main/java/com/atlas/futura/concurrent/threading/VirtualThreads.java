@@ -0,0 +1,29 @@
+package com.atlas.futura.concurrent.threading;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Represents a utility, that creates the executors of virtual threads.
+ * <p>
+ * This is the Java 8 implementation, that looks up the factory method reflectively. On Java 21 and above,
+ * the multi-release JAR replaces it with an implementation, that calls the factory method directly.
+ */
+final class VirtualThreads {
+    /**
+     * Create an executor, that starts a new virtual thread for each task.
+     *
+     * @return a new executor, or <code>null</code> if virtual threads are not supported by the JVM
+     */
+    static @Nullable ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.atlas.futura.concurrent.threading;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Represents a work-stealing pool, that pushes the tasks executed from its own worker threads to the local
+ * queue of the worker.
+ * <p>
+ * Since Java 9, {@link ForkJoinPool#execute(Runnable)} already pushes these tasks to the local queue, but on Java 8
+ * it submits every task to a shared submission queue, therefore the local push is done explicitly by forking.
+ */
+final class WorkStealingPool extends ForkJoinPool {
+    /**
+     * Create a new work-stealing pool in asynchronous mode.
+     *
+     * @param parallelism the number of the worker threads
+     * @param factory the factory of the worker threads
+     * @param handler the handler of the exceptions, that are thrown by the tasks
+     */
+    WorkStealingPool(
+        int parallelism, @NotNull ForkJoinWorkerThreadFactory factory, @NotNull Thread.UncaughtExceptionHandler handler
+    ) {
+        super(parallelism, factory, handler, true);
+    }
+
+    /**
+     * Execute the specified task, and push it to the local queue, if it is executed from a worker of this pool.
+     *
+     * @param task the task to execute
+     */
+    @Override
+    public void execute(@NotNull Runnable task) {
+        Thread thread = Thread.currentThread();
+        if (thread instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) thread).getPool() == this)
+            new LocalTask(task).fork();
+        else
+            super.execute(task);
+    }
+
+    /**
+     * Represents a task, that is forked to the local queue of a worker.
+     * <p>
+     * Unlike {@link ForkJoinTask#adapt(Runnable)}, that records the exception of the task silently, the exception
+     * is reported to the exception handler of the worker, just like the tasks submitted by
+     * {@link ForkJoinPool#execute(Runnable)}.
+     */
+    private static final class LocalTask extends ForkJoinTask<Void> {
+        /**
+         * The serialization version of the task.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The task to run.
+         */
+        @SuppressWarnings("serial")
+        private final @NotNull Runnable task;
+
+        /**
+         * Create a new local task.
+         *
+         * @param task the task to run
+         */
+        private LocalTask(@NotNull Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public Void getRawResult() {
+            return null;
+        }
+
+        @Override
+        protected void setRawResult(Void value) {
+        }
+
+        @Override
+        protected boolean exec() {
+            try {
+                task.run();
+            } catch (Throwable e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.atlas.futura.concurrent.threading;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Represents a utility, that creates the executors of virtual threads.
+ * <p>
+ * This is the Java 21 implementation, that calls the factory method directly.
+ */
+final class VirtualThreads {
+    /**
+     * Create an executor, that starts a new virtual thread for each task.
+     *
+     * @return a new executor
+     */
+    static @Nullable ExecutorService newVirtualThreadPerTaskExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
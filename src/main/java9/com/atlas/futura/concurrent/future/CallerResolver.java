@@ -0,0 +1,39 @@
+package com.atlas.futura.concurrent.future;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a utility, that resolves the class, that has called into the library from the outside.
+ * <p>
+ * This is the Java 9 implementation, that walks the stack lazily using {@link StackWalker}, therefore
+ * it only materializes the frames up to the caller, and it does not build stack trace elements.
+ */
+final class CallerResolver {
+    /**
+     * The name prefix of the classes, that are part of the library, and should be skipped when resolving the caller.
+     */
+    private static final String LIBRARY_PACKAGE = "com.atlas.futura.";
+
+    /**
+     * The stack walker, that retains the classes of the frames.
+     */
+    private static final @NotNull StackWalker WALKER =
+        StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    /**
+     * Resolve the first class of the current call stack, that is neither part of the library, nor part of
+     * the runtime itself (loaded by the bootstrap class loader).
+     *
+     * @return the class of the caller, or <code>null</code> if it could not be resolved
+     */
+    static @Nullable Class<?> resolve() {
+        // find the first frame, that is outside the library and the runtime
+        return WALKER.walk(frames -> frames
+            .map(StackWalker.StackFrame::getDeclaringClass)
+            .filter(type -> type.getClassLoader() != null && !type.getName().startsWith(LIBRARY_PACKAGE))
+            .findFirst()
+            .orElse(null)
+        );
+    }
+}
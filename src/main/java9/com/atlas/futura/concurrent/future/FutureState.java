@@ -0,0 +1,40 @@
+package com.atlas.futura.concurrent.future;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Represents a utility, that performs the lock-free modifications of the state of the {@link Future}s.
+ * <p>
+ * This is the Java 9 implementation, that uses a {@link VarHandle}, which the JIT compiles to a plain
+ * compare-and-swap instruction, without the receiver type checks of a field updater.
+ */
+final class FutureState {
+    /**
+     * The variable handle used to perform lock-free modifications of the state of the Future.
+     */
+    private static final @NotNull VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(Future.class, "state", Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Atomically set the state of the specified Future, if it is the expected state.
+     *
+     * @param future the Future to update
+     * @param expected the expected current state
+     * @param update the new state
+     * @return <code>true</code> if the state was updated, <code>false</code> otherwise
+     */
+    static boolean compareAndSet(@NotNull Future<?> future, @Nullable Object expected, @Nullable Object update) {
+        return STATE.compareAndSet(future, expected, update);
+    }
+}
@@ -0,0 +1,16 @@
+package com.atlas.futura.concurrent.future;
+
+/**
+ * Represents a utility, that is called in the busy-wait loops, which only wait for a short moment.
+ * <p>
+ * This is the Java 9 implementation, that hints the processor using {@link Thread#onSpinWait()},
+ * instead of giving up the time slice of the thread.
+ */
+final class SpinWait {
+    /**
+     * Indicate, that the caller is momentarily unable to progress, until another thread acts.
+     */
+    static void onSpinWait() {
+        Thread.onSpinWait();
+    }
+}
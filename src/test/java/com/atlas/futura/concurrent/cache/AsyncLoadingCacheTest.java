@@ -0,0 +1,119 @@
+package com.atlas.futura.concurrent.cache;
+
+import com.atlas.futura.concurrent.future.Future;
+import com.atlas.futura.concurrent.future.FutureExecutionException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the loading, expiration and eviction of the {@link AsyncLoadingCache}.
+ */
+public class AsyncLoadingCacheTest {
+    @Test
+    public void concurrentRequestsShareTheLoad() {
+        AtomicInteger loads = new AtomicInteger();
+        Future<Integer> pending = new Future<>();
+        AsyncLoadingCache<Integer, Integer> cache = AsyncLoadingCache.<Integer, Integer>builder()
+            .buildAsync(key -> {
+                loads.incrementAndGet();
+                return pending;
+            });
+
+        Future<Integer> first = cache.get(1);
+        Future<Integer> second = cache.get(1);
+        pending.complete(10);
+
+        assertEquals(10, first.getNow(null));
+        assertEquals(10, second.getNow(null));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void loadIsCancelledOnceEveryRequestCancels() {
+        Future<Integer> pending = new Future<>();
+        AsyncLoadingCache<Integer, Integer> cache = AsyncLoadingCache.<Integer, Integer>builder()
+            .buildAsync(key -> pending);
+
+        Future<Integer> first = cache.get(1);
+        Future<Integer> second = cache.get(1);
+
+        // cancelling one request keeps the load running for the other one
+        first.cancel(true);
+        assertFalse(second.isCompleted());
+        assertFalse(pending.isCancelled());
+
+        second.cancel(true);
+        assertTrue(pending.isCancelled());
+        assertEquals(0, cache.estimatedSize());
+    }
+
+    @Test
+    public void failedLoadIsNotCached() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        AsyncLoadingCache<Integer, Integer> cache = AsyncLoadingCache.<Integer, Integer>builder()
+            .buildAsync(key -> loads.incrementAndGet() == 1
+                ? Future.failed(new IllegalStateException("load failed"))
+                : Future.completed(key * 10));
+
+        Future<Integer> failed = cache.get(1);
+        assertThrows(FutureExecutionException.class, () -> failed.get(1000));
+        assertNull(cache.getIfPresent(1));
+
+        assertEquals(10, cache.get(1).get(1000));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void entriesExpireAfterWrite() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        AsyncLoadingCache<Integer, Integer> cache = AsyncLoadingCache.<Integer, Integer>builder()
+            .expireAfterWrite(50, TimeUnit.MILLISECONDS)
+            .buildAsync(key -> Future.completed(loads.incrementAndGet()));
+
+        assertEquals(1, cache.get(1).get(1000));
+        assertEquals(1, cache.get(1).get(1000));
+        Thread.sleep(100);
+
+        assertNull(cache.getIfPresent(1));
+        assertEquals(2, cache.get(1).get(1000));
+    }
+
+    @Test
+    public void sizeIsBoundedByTheMaximum() {
+        AsyncLoadingCache<Integer, Integer> cache = AsyncLoadingCache.<Integer, Integer>builder()
+            .maximumSize(10)
+            .buildAsync(Future::completed);
+
+        for (int i = 0; i < 100; i++)
+            cache.get(i);
+        cache.cleanUp();
+
+        assertTrue(cache.estimatedSize() <= 10);
+    }
+
+    @Test
+    public void frequentEntriesSurviveAScan() {
+        AsyncLoadingCache<Integer, Integer> cache = AsyncLoadingCache.<Integer, Integer>builder()
+            .maximumSize(10)
+            .buildAsync(Future::completed);
+
+        // make the first keys popular, then pass many one-off keys through the cache
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 5; i++)
+                cache.get(i);
+        }
+        for (int i = 100; i < 200; i++)
+            cache.get(i);
+
+        int retained = 0;
+        for (int i = 0; i < 5; i++) {
+            if (cache.getIfPresent(i) != null)
+                retained++;
+        }
+        assertEquals(5, retained);
+    }
+}
@@ -0,0 +1,161 @@
+package com.atlas.futura.concurrent.cache;
+
+import com.atlas.futura.concurrent.future.Future;
+import com.atlas.futura.concurrent.future.FutureContext;
+import com.atlas.futura.concurrent.future.FutureExecutionException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the batching of the keys of the {@link BatchLoader}.
+ */
+public class BatchLoaderTest {
+    @Test
+    public void duplicateKeysAreLoadedOnce() throws Exception {
+        List<Collection<Integer>> batches = new CopyOnWriteArrayList<>();
+        BatchLoader<Integer, Integer> loader = BatchLoader.<Integer, Integer>builder()
+            .window(1, TimeUnit.SECONDS)
+            .build(keys -> {
+                batches.add(new ArrayList<>(keys));
+                return tenfold(keys);
+            });
+
+        Future<Integer> first = loader.load(1);
+        Future<Integer> second = loader.load(1);
+        Future<Integer> other = loader.load(2);
+        loader.flush();
+
+        assertSame(first, second);
+        assertEquals(10, first.get(1000));
+        assertEquals(20, other.get(1000));
+        assertEquals(Collections.singletonList(Arrays.asList(1, 2)), batches);
+    }
+
+    @Test
+    public void fullBatchIsDispatchedImmediately() throws Exception {
+        List<Collection<Integer>> batches = new CopyOnWriteArrayList<>();
+        BatchLoader<Integer, Integer> loader = BatchLoader.<Integer, Integer>builder()
+            .window(1, TimeUnit.HOURS)
+            .maxBatchSize(2)
+            .build(keys -> {
+                batches.add(new ArrayList<>(keys));
+                return tenfold(keys);
+            });
+
+        Future<Integer> first = loader.load(1);
+        Future<Integer> second = loader.load(2);
+        Future<Integer> third = loader.load(3);
+
+        // the first two keys do not wait for the window, the third one starts a new batch
+        assertEquals(10, first.get(1000));
+        assertEquals(20, second.get(1000));
+        assertFalse(third.isCompleted());
+        assertEquals(Collections.singletonList(Arrays.asList(1, 2)), batches);
+        loader.flush();
+        assertEquals(30, third.get(1000));
+    }
+
+    @Test
+    public void batchIsDispatchedAfterTheWindow() throws Exception {
+        List<Collection<Integer>> batches = new CopyOnWriteArrayList<>();
+        BatchLoader<Integer, Integer> loader = BatchLoader.<Integer, Integer>builder()
+            .window(50, TimeUnit.MILLISECONDS)
+            .build(keys -> {
+                batches.add(new ArrayList<>(keys));
+                return tenfold(keys);
+            });
+
+        Future<Integer> first = loader.load(1);
+        Future<Integer> second = loader.load(2);
+
+        assertEquals(10, first.get(1000));
+        assertEquals(20, second.get(1000));
+        assertEquals(Collections.singletonList(Arrays.asList(1, 2)), batches);
+    }
+
+    @Test
+    public void missingKeyFailsItsFuture() throws Exception {
+        BatchLoader<Integer, String> loader = BatchLoader.<Integer, String>builder()
+            .build(keys -> Collections.singletonMap(1, "one"));
+
+        Future<String> present = loader.load(1);
+        Future<String> missing = loader.load(2);
+        loader.flush();
+
+        assertEquals("one", present.get(1000));
+        FutureExecutionException error = assertThrows(FutureExecutionException.class, () -> missing.get(1000));
+        assertInstanceOf(NoSuchElementException.class, error.getCause());
+    }
+
+    @Test
+    public void missingKeyCompletesWithDefaultValue() throws Exception {
+        BatchLoader<Integer, String> loader = BatchLoader.<Integer, String>builder()
+            .defaultValue("none")
+            .build(keys -> Collections.singletonMap(1, null));
+
+        Future<String> present = loader.load(1);
+        Future<String> missing = loader.load(2);
+        loader.flush();
+
+        // a key mapped to null is present, so it does not receive the default value
+        assertNull(present.get(1000));
+        assertEquals("none", missing.get(1000));
+    }
+
+    @Test
+    public void everyBatchRunsOnTheExecutorResolvedAtBuild() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor(task -> new Thread(task, "batch"));
+        try {
+            List<String> threads = new CopyOnWriteArrayList<>();
+            BatchLoader<Integer, Integer> loader;
+            try (FutureContext.Scope ignored = FutureContext.of(executor).enter()) {
+                loader = BatchLoader.<Integer, Integer>builder()
+                    .window(50, TimeUnit.MILLISECONDS)
+                    .maxBatchSize(2)
+                    .build(keys -> {
+                        threads.add(Thread.currentThread().getName());
+                        return tenfold(keys);
+                    });
+            }
+
+            // the first batch is dispatched by the size from this thread, the second one by the window timer
+            Future<Integer> first = loader.load(1);
+            Future<Integer> second = loader.load(2);
+            Future<Integer> windowed = loader.load(3);
+
+            assertEquals(10, first.get(1000));
+            assertEquals(20, second.get(1000));
+            assertEquals(30, windowed.get(1000));
+            assertEquals(Arrays.asList("batch", "batch"), threads);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Map each of the specified keys to ten times the key.
+     *
+     * @param keys the keys of the batch
+     * @return the values of the keys
+     */
+    private static Map<Integer, Integer> tenfold(Collection<Integer> keys) {
+        Map<Integer, Integer> values = new HashMap<>();
+        for (int key : keys)
+            values.put(key, key * 10);
+        return values;
+    }
+}
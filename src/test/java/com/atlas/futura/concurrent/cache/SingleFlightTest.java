@@ -0,0 +1,86 @@
+package com.atlas.futura.concurrent.cache;
+
+import com.atlas.futura.concurrent.future.Future;
+import com.atlas.futura.concurrent.future.FutureExecutionException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the coalescing and the cancellation of the operations of the {@link SingleFlight}.
+ */
+public class SingleFlightTest {
+    @Test
+    public void concurrentCallersShareTheOperation() {
+        AtomicInteger operations = new AtomicInteger();
+        Future<Integer> pending = new Future<>();
+        SingleFlight<Integer, Integer> flight = new SingleFlight<>();
+
+        Future<Integer> first = flight.execute(1, () -> {
+            operations.incrementAndGet();
+            return pending;
+        });
+        Future<Integer> second = flight.execute(1, () -> {
+            operations.incrementAndGet();
+            return pending;
+        });
+        assertEquals(1, flight.size());
+        pending.complete(10);
+
+        assertEquals(10, first.getNow(null));
+        assertEquals(10, second.getNow(null));
+        assertEquals(1, operations.get());
+        assertEquals(0, flight.size());
+    }
+
+    @Test
+    public void cancellingOneCallerDoesNotFailTheOthers() {
+        Future<Integer> pending = new Future<>();
+        SingleFlight<Integer, Integer> flight = new SingleFlight<>();
+
+        Future<Integer> first = flight.execute(1, () -> pending);
+        Future<Integer> second = flight.execute(1, () -> pending);
+        first.cancel(true);
+
+        assertTrue(first.isCancelled());
+        assertFalse(second.isCompleted());
+        assertFalse(pending.isCancelled());
+
+        pending.complete(10);
+        assertEquals(10, second.getNow(null));
+    }
+
+    @Test
+    public void operationIsCancelledOnceEveryCallerCancels() {
+        Future<Integer> pending = new Future<>();
+        SingleFlight<Integer, Integer> flight = new SingleFlight<>();
+
+        Future<Integer> first = flight.execute(1, () -> pending);
+        Future<Integer> second = flight.execute(1, () -> pending);
+        first.cancel(true);
+        second.cancel(true);
+
+        assertTrue(pending.isCancelled());
+        assertEquals(0, flight.size());
+
+        // the next caller starts a new operation
+        Future<Integer> next = flight.execute(1, () -> Future.completed(20));
+        assertEquals(20, next.getNow(null));
+    }
+
+    @Test
+    public void failingOperationIsForgotten() {
+        SingleFlight<Integer, Integer> flight = new SingleFlight<>();
+
+        Future<Integer> failed = flight.execute(1, () -> {
+            throw new IllegalStateException("operation failed");
+        });
+
+        assertTrue(failed.isFailed());
+        assertThrows(FutureExecutionException.class, () -> failed.get(1000));
+        assertEquals(0, flight.size());
+        assertNull(flight.getIfPresent(1));
+    }
+}
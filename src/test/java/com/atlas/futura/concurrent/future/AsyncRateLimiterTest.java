@@ -0,0 +1,49 @@
+package com.atlas.futura.concurrent.future;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the reservation of the permits of the {@link AsyncRateLimiter}.
+ */
+public class AsyncRateLimiterTest {
+    @Test
+    public void cancelledRequestRefundsItsPermits() throws Exception {
+        // a single permit is refilled in each 500 ms
+        AsyncRateLimiter limiter = AsyncRateLimiter.create(2, 1);
+        assertTrue(limiter.acquire().isCompleted());
+        assertTrue(limiter.acquire().isCompleted());
+
+        Future<Void> cancelled = limiter.acquire();
+        assertFalse(cancelled.isCompleted());
+        cancelled.cancel(false);
+
+        // the next request only waits for the debt of the second one, and not for the cancelled one
+        long start = System.nanoTime();
+        limiter.acquire().get(800);
+        assertTrue(System.nanoTime() - start < 800_000_000L);
+    }
+
+    @Test
+    public void grantIsHandedOffToTheContext() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor(task -> new Thread(task, "context"));
+        try {
+            AsyncRateLimiter limiter = AsyncRateLimiter.create(20, 1);
+            assertTrue(limiter.acquire().isCompleted());
+            assertTrue(limiter.acquire().isCompleted());
+
+            // the delayed grant is completed on the executor of the context of the caller
+            Future<String> thread;
+            try (FutureContext.Scope ignored = FutureContext.of(executor).enter()) {
+                thread = limiter.acquire().to(() -> Thread.currentThread().getName());
+            }
+            assertEquals("context", thread.get(1000));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.atlas.futura.concurrent.future;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the resolution of the caller class of the library by {@link CallerResolver}.
+ */
+public class CallerResolverTest {
+    @Test
+    public void skipsTheLibraryFrames() {
+        Class<?> caller = CallerResolver.resolve();
+
+        // this test is part of the library package, therefore the caller is the class, that runs the test
+        assertNotNull(caller);
+        assertFalse(caller.getName().startsWith("com.atlas.futura."));
+    }
+
+    @Test
+    public void returnsNullWithoutOutsideCaller() throws Exception {
+        AtomicReference<Class<?>> caller = new AtomicReference<>(Object.class);
+        // the stack of the thread only consists of the runtime and the library
+        Thread thread = new Thread(() -> caller.set(CallerResolver.resolve()));
+        thread.start();
+        thread.join();
+
+        assertNull(caller.get());
+    }
+}
@@ -0,0 +1,175 @@
+package com.atlas.futura.concurrent.future;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the cancellation of the {@link Future}s, and its propagation through the derived Futures.
+ */
+public class CancellationTest {
+    /**
+     * The number of the iterations of the concurrent tests.
+     */
+    private static final int ITERATIONS = 20_000;
+
+    @Test
+    public void cancellationFailsTheDerivedFutures() {
+        Future<Integer> source = new Future<>();
+        Future<Integer> derived = source.transform(x -> x + 1);
+
+        assertTrue(source.cancel(false));
+
+        assertTrue(derived.isCancelled());
+        assertFalse(source.complete(1));
+    }
+
+    @Test
+    public void releasingEveryDependentCancelsTheSource() {
+        Future<Integer> source = new Future<>();
+        Future<Integer> first = source.transform(x -> x + 1);
+        Future<Integer> second = source.transform(x -> x + 2);
+
+        first.cancel(false);
+        assertFalse(source.isCancelled());
+
+        second.cancel(false);
+        assertTrue(source.isCancelled());
+    }
+
+    @Test
+    public void cancellationPropagatesThroughLongChains() {
+        Future<Integer> head = new Future<>();
+        Future<Integer> tail = head;
+        for (int i = 0; i < 100_000; i++)
+            tail = tail.transform(x -> x + 1);
+
+        tail.cancel(false);
+
+        assertTrue(head.isCancelled());
+    }
+
+    @Test
+    public void waitingThreadKeepsTheSourceRunning() throws Exception {
+        Future<Integer> source = new Future<>();
+        Future<Integer> derived = source.transform(x -> x + 1);
+        AtomicReference<Object> seen = new AtomicReference<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                seen.set(source.get(5000));
+            } catch (Throwable e) {
+                seen.set(e);
+            }
+        });
+        waiter.start();
+        awaitParked(waiter);
+
+        derived.cancel(false);
+        assertFalse(source.isCancelled());
+
+        source.complete(1);
+        waiter.join(5000);
+        assertEquals(1, seen.get());
+    }
+
+    @Test
+    public void timedOutWaiterDoesNotKeepTheSourceRunning() {
+        Future<Integer> source = new Future<>();
+        Future<Integer> derived = source.transform(x -> x + 1);
+        assertThrows(FutureTimeoutException.class, () -> source.get(10));
+
+        derived.cancel(false);
+
+        assertTrue(source.isCancelled());
+    }
+
+    @Test
+    public void registrationRacingReleaseIsNotCancelled() throws Exception {
+        for (int i = 0; i < ITERATIONS; i++) {
+            Future<Integer> source = new Future<>();
+            Future<Integer> released = source.transform(x -> x + 1);
+            AtomicReference<Future<Integer>> registered = new AtomicReference<>();
+            AtomicReference<Boolean> pending = new AtomicReference<>();
+            CyclicBarrier start = new CyclicBarrier(2);
+
+            Thread registrar = new Thread(() -> {
+                await(start);
+                Future<Integer> derived = source.transform(x -> x + 2);
+                registered.set(derived);
+                // a derived Future of a cancelled source is failed before transform returns
+                pending.set(!derived.isCompleted());
+            });
+            registrar.start();
+            await(start);
+            released.cancel(false);
+            registrar.join();
+
+            // a dependent, that was registered while the source was pending, must keep the source running
+            if (pending.get()) {
+                assertFalse(source.isCancelled(), "source was cancelled after a dependent was registered");
+                source.complete(1);
+                assertEquals(3, registered.get().getNow(null));
+            }
+        }
+    }
+
+    @Test
+    public void waiterRacingReleaseIsWokenUp() throws Exception {
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            Future<Integer> source = new Future<>();
+            Future<Integer> released = source.transform(x -> x + 1);
+            AtomicReference<Object> seen = new AtomicReference<>();
+            CountDownLatch done = new CountDownLatch(1);
+            CyclicBarrier start = new CyclicBarrier(2);
+
+            Thread waiter = new Thread(() -> {
+                await(start);
+                try {
+                    seen.set(source.get(5000));
+                } catch (Throwable e) {
+                    seen.set(e);
+                }
+                done.countDown();
+            });
+            waiter.start();
+            await(start);
+            released.cancel(false);
+            source.complete(1);
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            if (source.isCancelled()) {
+                assertInstanceOf(FutureExecutionException.class, seen.get());
+                assertInstanceOf(FutureCancellationException.class, ((Throwable) seen.get()).getCause());
+            } else
+                assertEquals(1, seen.get());
+        }
+    }
+
+    /**
+     * Wait until the specified thread has parked.
+     *
+     * @param thread the thread to wait for
+     */
+    private static void awaitParked(Thread thread) throws InterruptedException {
+        while (thread.getState() != Thread.State.WAITING && thread.getState() != Thread.State.TIMED_WAITING)
+            Thread.sleep(1);
+    }
+
+    /**
+     * Wait for the other party of the specified barrier.
+     *
+     * @param barrier the barrier to wait for
+     */
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
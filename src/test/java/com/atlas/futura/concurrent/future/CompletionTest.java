@@ -0,0 +1,78 @@
+package com.atlas.futura.concurrent.future;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the atomic completion of the {@link Future}s.
+ */
+public class CompletionTest {
+    @Test
+    public void nullValueCompletesTheFuture() {
+        Future<String> future = new Future<>();
+
+        assertTrue(future.complete(null));
+
+        assertTrue(future.isCompleted());
+        assertNull(future.getNow("pending"));
+        assertFalse(future.complete("value"));
+    }
+
+    @Test
+    public void failedFutureCannotBeCompleted() {
+        Future<String> future = new Future<>();
+        IllegalStateException error = new IllegalStateException("failed");
+
+        assertTrue(future.fail(error));
+
+        assertFalse(future.complete("value"));
+        assertFalse(future.cancel(false));
+        FutureExecutionException thrown = assertThrows(FutureExecutionException.class, future::get);
+        assertSame(error, thrown.getCause());
+    }
+
+    @Test
+    public void concurrentCompletersHaveSingleWinner() throws Exception {
+        int threads = 8;
+        for (int i = 0; i < 1000; i++) {
+            Future<Integer> future = new Future<>();
+            AtomicInteger winners = new AtomicInteger();
+            AtomicInteger winner = new AtomicInteger(-1);
+            CyclicBarrier start = new CyclicBarrier(threads);
+            Thread[] completers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                int value = t;
+                completers[t] = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    // half of the threads try to fail the future instead
+                    boolean won = value % 2 == 0
+                        ? future.complete(value)
+                        : future.fail(new IllegalStateException(String.valueOf(value)));
+                    if (won) {
+                        winners.incrementAndGet();
+                        winner.set(value);
+                    }
+                });
+                completers[t].start();
+            }
+            for (Thread completer : completers)
+                completer.join();
+
+            assertEquals(1, winners.get());
+            if (winner.get() % 2 == 0)
+                assertEquals(winner.get(), future.getNow(null));
+            else {
+                FutureExecutionException error = assertThrows(FutureExecutionException.class, future::get);
+                assertEquals(String.valueOf(winner.get()), error.getCause().getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.atlas.futura.concurrent.future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the propagation of the thread-local context across the asynchronous boundaries.
+ */
+public class ContextSnapshotTest {
+    /**
+     * The thread-local context of the tests.
+     */
+    private static final ThreadLocal<String> REQUEST = new ThreadLocal<>();
+
+    /**
+     * The propagator of the {@link #REQUEST} context.
+     */
+    private static final ContextPropagator<String> PROPAGATOR = ContextPropagator.of(REQUEST);
+
+    /**
+     * The single-threaded executor, that runs the asynchronous tasks.
+     */
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setup() {
+        executor = Executors.newSingleThreadExecutor();
+        ContextSnapshot.register(PROPAGATOR);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ContextSnapshot.unregister(PROPAGATOR);
+        REQUEST.remove();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void contextIsPropagatedToCompleteAsync() throws Exception {
+        REQUEST.set("request-1");
+
+        Future<String> seen = Future.completeAsync(REQUEST::get, executor);
+
+        assertEquals("request-1", seen.get(1000));
+    }
+
+    @Test
+    public void workerContextIsRestoredAfterTheTask() throws Exception {
+        REQUEST.set("request-1");
+        Future.completeAsync(REQUEST::get, executor).get(1000);
+
+        // a task submitted directly to the executor is not wrapped, so it sees the own context of the worker
+        REQUEST.remove();
+        assertNull(Future.completeAsync(REQUEST::get, executor).get(1000));
+        assertNull(executor.submit(REQUEST::get).get());
+    }
+
+    @Test
+    public void unregisteredContextIsNotPropagated() throws Exception {
+        ContextSnapshot.unregister(PROPAGATOR);
+        REQUEST.set("request-1");
+
+        assertNull(Future.completeAsync(REQUEST::get, executor).get(1000));
+    }
+}
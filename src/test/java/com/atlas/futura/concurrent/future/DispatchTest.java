@@ -0,0 +1,82 @@
+package com.atlas.futura.concurrent.future;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the trampolined dispatch of the completion handlers of the {@link Future}s.
+ */
+public class DispatchTest {
+    @Test
+    public void handlerCanBlockOnDerivedFuture() {
+        Future<Integer> f = new Future<>();
+        Future<Integer> g = new Future<>();
+        Future<Integer> h = g.transform(x -> x + 1);
+        AtomicReference<Object> seen = new AtomicReference<>();
+
+        f.tryThen(v -> {
+            g.complete(v);
+            // the handler of g is deferred by the dispatch loop of f
+            try {
+                seen.set(h.get(1000));
+            } catch (Throwable e) {
+                seen.set(e);
+            }
+        });
+        f.complete(1);
+
+        assertEquals(2, seen.get());
+    }
+
+    @Test
+    public void longChainCompletesWithoutStackOverflow() {
+        Future<Integer> head = new Future<>();
+        Future<Integer> tail = head;
+        for (int i = 0; i < 100_000; i++)
+            tail = tail.transform(x -> x + 1);
+
+        head.complete(0);
+
+        assertEquals(100_000, tail.getNow(null));
+    }
+
+    @Test
+    public void handlersRunInRegistrationOrder() {
+        Future<Integer> future = new Future<>();
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int index = i;
+            future.then(v -> order.add(index));
+        }
+
+        future.complete(1);
+
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), order);
+    }
+
+    @Test
+    public void throwingHandlerDoesNotStopOtherHandlers() {
+        Future<Integer> future = new Future<>();
+        AtomicReference<Integer> seen = new AtomicReference<>();
+        Thread.UncaughtExceptionHandler previous = Thread.currentThread().getUncaughtExceptionHandler();
+        Thread.currentThread().setUncaughtExceptionHandler((thread, e) -> {});
+        try {
+            future.then(v -> {
+                throw new IllegalStateException("handler failed");
+            });
+            future.then(seen::set);
+
+            future.complete(1);
+        } finally {
+            Thread.currentThread().setUncaughtExceptionHandler(previous);
+        }
+
+        assertEquals(1, seen.get());
+    }
+}
@@ -0,0 +1,77 @@
+package com.atlas.futura.concurrent.future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the binding of the {@link Future}s to an explicit {@link FutureContext}.
+ */
+public class FutureContextTest {
+    /**
+     * The executor of the context.
+     */
+    private ExecutorService executor;
+
+    /**
+     * The context of the tests, that runs its tasks on threads named <code>context</code>.
+     */
+    private FutureContext context;
+
+    @BeforeEach
+    public void setup() {
+        executor = Executors.newSingleThreadExecutor(task -> new Thread(task, "context"));
+        context = FutureContext.of(executor).withDefaultTimeout(50, TimeUnit.MILLISECONDS);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void derivedFuturesKeepTheContext() {
+        Future<Integer> source = new Future<>(context);
+
+        assertSame(context, source.transform(x -> x + 1).getContext());
+        assertSame(context, source.mock().getContext());
+        assertSame(context, source.timeout(1000).getContext());
+
+        source.complete(1);
+        assertSame(context, source.transform(x -> x + 1).getContext());
+    }
+
+    @Test
+    public void defaultTimeoutAppliesToDerivedFutures() {
+        Future<Integer> result = new Future<Integer>(context)
+            .transform(x -> x + 1)
+            .timeout();
+
+        FutureExecutionException error = assertThrows(FutureExecutionException.class, () -> result.get(1000));
+        assertInstanceOf(FutureTimeoutException.class, error.getCause());
+    }
+
+    @Test
+    public void asyncHandlersOfDerivedFuturesRunOnTheContext() throws Exception {
+        Future<Integer> source = new Future<>(context);
+        AtomicReference<String> thread = new AtomicReference<>();
+        Future<Void> handled = new Future<>();
+        source.transform(x -> x + 1).thenAsync(value -> {
+            thread.set(Thread.currentThread().getName());
+            handled.complete(null);
+        });
+
+        // complete the source from a thread, that has no context installed
+        source.complete(1);
+
+        handled.get(1000);
+        assertEquals("context", thread.get());
+    }
+}
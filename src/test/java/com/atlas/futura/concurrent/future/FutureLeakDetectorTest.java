@@ -0,0 +1,168 @@
+package com.atlas.futura.concurrent.future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the reports of the {@link FutureLeakDetector} about the garbage-collected Futures.
+ */
+public class FutureLeakDetectorTest {
+    /**
+     * The unobserved failure of the abandoned Futures.
+     */
+    private static final IllegalStateException FAILURE = new IllegalStateException("abandoned failure");
+
+    /**
+     * The leaks reported by the detector.
+     */
+    private final BlockingQueue<FutureLeakException> reports = new LinkedBlockingQueue<>();
+
+    /**
+     * The detector, that tracks every created Future.
+     */
+    private FutureLeakDetector detector;
+
+    @BeforeEach
+    public void setup() {
+        detector = new FutureLeakDetector(1.0, reports::add);
+        Future.setLeakDetector(detector);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Future.setLeakDetector(null);
+    }
+
+    @Test
+    public void pendingFutureIsReportedAsLeaked() throws Exception {
+        collect(abandonPending());
+
+        FutureLeakException leak = reports.poll(5, TimeUnit.SECONDS);
+        assertNotNull(leak, "leak was not reported");
+        assertNull(leak.getCause());
+        assertCreatedBy(leak, "abandonPending");
+        assertEquals(1, detector.getLeaked());
+        assertEquals(0, detector.getUnobservedFailures());
+    }
+
+    @Test
+    public void unobservedFailureIsReported() throws Exception {
+        collect(abandonFailure());
+
+        FutureLeakException leak = reports.poll(5, TimeUnit.SECONDS);
+        assertNotNull(leak, "unobserved failure was not reported");
+        assertSame(FAILURE, leak.getCause());
+        assertCreatedBy(leak, "abandonFailure");
+        assertEquals(0, detector.getLeaked());
+        assertEquals(1, detector.getUnobservedFailures());
+    }
+
+    @Test
+    public void observedFailuresAreNotReported() throws Exception {
+        // the pending future is reported as well, so that the reports of the detector are known to be processed
+        collect(abandonObservedFailures());
+
+        FutureLeakException leak = reports.poll(5, TimeUnit.SECONDS);
+        assertNotNull(leak, "leak was not reported");
+        assertCreatedBy(leak, "abandonObservedFailures");
+        assertNull(reports.poll(200, TimeUnit.MILLISECONDS));
+        assertEquals(1, detector.getLeaked());
+        assertEquals(0, detector.getUnobservedFailures());
+    }
+
+    /**
+     * Create a pending Future, and drop every strong reference to it.
+     *
+     * @return the weak references of the abandoned Futures
+     */
+    private static List<WeakReference<Future<?>>> abandonPending() {
+        List<WeakReference<Future<?>>> references = new ArrayList<>();
+        references.add(new WeakReference<>(new Future<Integer>()));
+        return references;
+    }
+
+    /**
+     * Create a failed Future, whose failure is not observed, and drop every strong reference to it.
+     *
+     * @return the weak references of the abandoned Futures
+     */
+    private static List<WeakReference<Future<?>>> abandonFailure() {
+        Future<Integer> future = new Future<>();
+        future.fail(FAILURE);
+
+        List<WeakReference<Future<?>>> references = new ArrayList<>();
+        references.add(new WeakReference<>(future));
+        return references;
+    }
+
+    /**
+     * Create failed Futures, whose failures are observed by a handler and by the caller, along with a pending
+     * Future, and drop every strong reference to them.
+     *
+     * @return the weak references of the abandoned Futures
+     */
+    private static List<WeakReference<Future<?>>> abandonObservedFailures() {
+        Future<Integer> handled = new Future<>();
+        handled.except(error -> {
+        });
+        handled.fail(FAILURE);
+
+        Future<Integer> retrieved = new Future<>();
+        retrieved.fail(FAILURE);
+        assertThrows(FutureExecutionException.class, retrieved::get);
+
+        List<WeakReference<Future<?>>> references = new ArrayList<>();
+        references.add(new WeakReference<>(handled));
+        references.add(new WeakReference<>(retrieved));
+        references.add(new WeakReference<>(new Future<Integer>()));
+        return references;
+    }
+
+    /**
+     * Run the garbage collector, until the specified Futures have been collected.
+     *
+     * @param references the weak references of the Futures
+     * @throws InterruptedException the thread was interrupted whilst waiting for the collection
+     */
+    private static void collect(List<WeakReference<Future<?>>> references) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            System.gc();
+            boolean collected = true;
+            for (WeakReference<Future<?>> reference : references)
+                collected &= reference.get() == null;
+            if (collected)
+                return;
+            Thread.sleep(20);
+        }
+        fail("Futures were not garbage-collected");
+    }
+
+    /**
+     * Assert, that the creation site of the specified leak starts at the constructor of the Future,
+     * and it was called by the specified method of the test.
+     *
+     * @param leak the reported leak
+     * @param method the name of the method, that created the Future
+     */
+    private static void assertCreatedBy(FutureLeakException leak, String method) {
+        StackTraceElement[] trace = leak.getStackTrace();
+        assertEquals(Future.class.getName(), trace[0].getClassName());
+        assertEquals("<init>", trace[0].getMethodName());
+
+        boolean found = false;
+        for (StackTraceElement element : trace)
+            found |= element.getClassName().equals(FutureLeakDetectorTest.class.getName())
+                && element.getMethodName().equals(method);
+        assertTrue(found, "creation site does not contain " + method);
+    }
+}
@@ -0,0 +1,48 @@
+package com.atlas.futura.concurrent.future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the instrumentation of the {@link Future}s using the {@link FutureMetrics} listener.
+ */
+public class FutureMetricsTest {
+    @AfterEach
+    public void tearDown() {
+        Future.setListener(null);
+        Future.setLeakDetector(null);
+    }
+
+    @Test
+    public void countsTheLifecycleOfTheFutures() {
+        FutureMetrics metrics = new FutureMetrics();
+        Future.setListener(metrics);
+
+        new Future<Integer>().complete(1);
+        new Future<Integer>().fail(new IllegalStateException("failed"));
+        new Future<Integer>().cancel(false);
+        new Future<Integer>();
+
+        assertEquals(4, metrics.getCreated());
+        assertEquals(1, metrics.getCompleted());
+        assertEquals(1, metrics.getFailed());
+        assertEquals(1, metrics.getCancelled());
+        assertEquals(1, metrics.getPending());
+    }
+
+    @Test
+    public void installingLeakDetectorKeepsTheListener() {
+        FutureMetrics metrics = new FutureMetrics();
+        FutureLeakDetector detector = new FutureLeakDetector(0.0);
+        Future.setListener(metrics);
+        Future.setLeakDetector(detector);
+
+        new Future<Integer>().complete(1);
+
+        assertSame(metrics, Future.getListener());
+        assertSame(detector, Future.getLeakDetector());
+        assertEquals(1, metrics.getCompleted());
+    }
+}
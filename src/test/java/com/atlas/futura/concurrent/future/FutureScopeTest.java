@@ -0,0 +1,81 @@
+package com.atlas.futura.concurrent.future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the structured concurrency of the {@link FutureScope}.
+ */
+public class FutureScopeTest {
+    /**
+     * The executor of the forked tasks.
+     */
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setup() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void firstFailureCancelsTheSiblings() throws Exception {
+        IllegalStateException failure = new IllegalStateException("child failed");
+        Future<Integer> sibling;
+        Future<Void> joined;
+        try (FutureScope scope = FutureScope.open(executor)) {
+            sibling = scope.fork(() -> {
+                Thread.sleep(5000);
+                return 1;
+            });
+            scope.fork(() -> {
+                throw failure;
+            });
+            joined = scope.join();
+
+            FutureExecutionException error = assertThrows(FutureExecutionException.class, () -> joined.get(1000));
+            assertSame(failure, error.getCause());
+            assertSame(failure, scope.getFailure());
+        }
+
+        assertTrue(sibling.isCancelled());
+    }
+
+    @Test
+    public void closeWaitsForTheRunningTasks() throws Exception {
+        AtomicBoolean exited = new AtomicBoolean();
+        try (FutureScope scope = FutureScope.open(executor)) {
+            scope.fork(() -> {
+                // ignore the interrupt of the cancellation, so that close has to wait for the deadline
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+                while (System.nanoTime() - deadline < 0)
+                    Thread.yield();
+                exited.set(true);
+                return null;
+            });
+            Thread.sleep(50);
+        }
+
+        assertTrue(exited.get());
+    }
+
+    @Test
+    public void closedScopeRejectsNewChildren() {
+        FutureScope scope = FutureScope.open(executor);
+        scope.close();
+
+        assertThrows(IllegalStateException.class, () -> scope.fork(() -> 1));
+    }
+}
@@ -0,0 +1,129 @@
+package com.atlas.futura.concurrent.future;
+
+import com.atlas.futura.function.ThrowableSupplier;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the operators and the terminal operations of {@link FutureStream}.
+ */
+public class FutureStreamTest {
+    @Test
+    public void flatMapSwitchesBetweenInnerStreams() throws Exception {
+        // the second element maps to an empty stream, that must be skipped without emitting anything
+        List<Integer> values = FutureStream.of(1, 2, 3)
+            .flatMap(value -> value == 2 ? FutureStream.<Integer>empty() : FutureStream.of(value, value * 10))
+            .toList()
+            .get(1000);
+
+        assertEquals(Arrays.asList(1, 10, 3, 30), values);
+    }
+
+    @Test
+    public void flatMapSwitchesBetweenAsynchronousInnerStreams() throws Exception {
+        List<Integer> values = FutureStream.of(1, 2, 3)
+            .flatMap(value -> FutureStream.generate(elements(value, value * 10, value * 100)))
+            .toList()
+            .get(1000);
+
+        assertEquals(Arrays.asList(1, 10, 100, 2, 20, 200, 3, 30, 300), values);
+    }
+
+    @Test
+    public void windowExpiryRacingAFullWindowKeepsEveryElement() throws Exception {
+        int count = 2000;
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+            expected.add(i);
+
+        // the windows expire about as fast as they fill up, so the timer keeps racing the size limit
+        List<List<Integer>> windows = FutureStream.generate(elements(expected.toArray(new Integer[0])))
+            .window(20, TimeUnit.MICROSECONDS, 3)
+            .toList()
+            .get(10_000);
+
+        List<Integer> values = new ArrayList<>();
+        for (List<Integer> window : windows) {
+            assertFalse(window.isEmpty(), "empty window emitted");
+            assertTrue(window.size() <= 3, "window exceeds the maximum size: " + window);
+            values.addAll(window);
+        }
+        assertEquals(expected, values);
+    }
+
+    @Test
+    public void cancellingCollectStopsPullingAndCancelsTheStream() {
+        List<Future<Integer>> pulls = new CopyOnWriteArrayList<>();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        FutureStream<Integer> stream = new FutureStream<Integer>() {
+            @Override
+            public Future<Integer> next() {
+                Future<Integer> future = new Future<>();
+                pulls.add(future);
+                return future;
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.set(true);
+            }
+        };
+
+        Future<List<Integer>> result = stream.toList();
+        assertEquals(1, pulls.size());
+        pulls.get(0).complete(1);
+        assertEquals(2, pulls.size());
+
+        result.cancel(true);
+        assertTrue(result.isCancelled());
+        assertTrue(cancelled.get());
+
+        // the element of the outstanding pull is dropped, and no further element is requested
+        pulls.get(1).complete(2);
+        assertEquals(2, pulls.size());
+    }
+
+    @Test
+    public void failedElementFailsCollectAndCancelsTheStream() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        FutureStream<Integer> stream = new FutureStream<Integer>() {
+            @Override
+            public Future<Integer> next() {
+                return Future.failed(new IllegalStateException("element failed"));
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.set(true);
+            }
+        };
+
+        Future<Long> count = stream.count();
+
+        assertTrue(count.isFailed());
+        assertThrows(FutureExecutionException.class, () -> count.get(1000));
+        assertTrue(cancelled.get());
+    }
+
+    /**
+     * Create a supplier of the specified elements, that returns <code>null</code> after the last one.
+     *
+     * @param values the elements to supply
+     * @param <T> the type of the elements
+     * @return a new element supplier
+     */
+    @SafeVarargs
+    private static <T> ThrowableSupplier<T, Throwable> elements(T... values) {
+        Iterator<T> iterator = Arrays.asList(values).iterator();
+        return () -> iterator.hasNext() ? iterator.next() : null;
+    }
+}
@@ -0,0 +1,74 @@
+package com.atlas.futura.concurrent.future;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the lock-free stack of the completion handlers of the {@link Future}s.
+ */
+public class HandlerStackTest {
+    @Test
+    public void handlerRegisteredAfterCompletionRunsImmediately() {
+        Future<Integer> future = new Future<>();
+        future.complete(1);
+        AtomicInteger seen = new AtomicInteger();
+
+        future.then(seen::set);
+
+        assertEquals(1, seen.get());
+    }
+
+    @Test
+    public void failureHandlerOnlyRunsOnFailure() {
+        Future<Integer> completed = new Future<>();
+        Future<Integer> failed = new Future<>();
+        AtomicInteger completions = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        for (Future<Integer> future : Arrays.asList(completed, failed)) {
+            future.then(value -> completions.incrementAndGet());
+            future.except(error -> failures.incrementAndGet());
+        }
+
+        completed.complete(1);
+        failed.fail(new IllegalStateException("failed"));
+
+        assertEquals(1, completions.get());
+        assertEquals(1, failures.get());
+    }
+
+    @Test
+    public void handlersRacingCompletionRunExactlyOnce() throws Exception {
+        int threads = 4;
+        int handlers = 1000;
+        for (int i = 0; i < 100; i++) {
+            Future<Integer> future = new Future<>();
+            AtomicInteger calls = new AtomicInteger();
+            CyclicBarrier start = new CyclicBarrier(threads + 1);
+            Thread[] registrars = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                registrars[t] = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    for (int h = 0; h < handlers; h++)
+                        future.then(value -> calls.incrementAndGet());
+                });
+                registrars[t].start();
+            }
+            start.await();
+            future.complete(1);
+            for (Thread registrar : registrars)
+                registrar.join();
+
+            // each handler is either dispatched by the completion, or run by its registering thread
+            assertEquals(threads * handlers, calls.get());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.atlas.futura.concurrent.future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the attempts of {@link Future#hedge(com.atlas.futura.function.ThrowableSupplier, long, TimeUnit, int)}.
+ */
+public class HedgeTest {
+    /**
+     * The executor of the attempts, that is installed as the global executor.
+     */
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool();
+
+    @BeforeEach
+    public void setup() {
+        Future.setGlobalExecutor(EXECUTOR);
+        Future.setContextLookup(ContextLookup.GLOBAL);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Future.setContextLookup(ContextLookup.CALLER);
+    }
+
+    @Test
+    public void slowAttemptsAreHedgedAfterTheDelay() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        Future<Integer> result = Future.hedge(() -> {
+            int attempt = attempts.incrementAndGet();
+            if (attempt < 3)
+                Thread.sleep(2000);
+            return attempt;
+        }, 100, TimeUnit.MILLISECONDS, 5);
+
+        assertEquals(3, result.get(1500));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void earlyRelaunchDoesNotStartExtraAttempts() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        Future<Integer> result = Future.hedge(() -> {
+            // the first attempt fails at once, which starts the second attempt ahead of its delay
+            if (attempts.incrementAndGet() == 1)
+                throw new IllegalStateException("first attempt failed");
+            Thread.sleep(2000);
+            return 1;
+        }, 500, TimeUnit.MILLISECONDS, 5);
+
+        // the second attempt is hedged 500 ms after it has started, the stale schedule must not launch another one
+        Thread.sleep(750);
+        assertEquals(3, attempts.get());
+        result.cancel(true);
+    }
+
+    @Test
+    public void failsWhenEachAttemptFails() {
+        AtomicInteger attempts = new AtomicInteger();
+        Future<Integer> result = Future.hedge(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("attempt failed");
+        }, 1, TimeUnit.SECONDS, 3);
+
+        FutureExecutionException error = assertThrows(FutureExecutionException.class, () -> result.get(1000));
+        assertInstanceOf(FutureAggregateException.class, error.getCause());
+        assertEquals(3, ((FutureAggregateException) error.getCause()).getErrors().size());
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void rejectedAttemptsFailTheHedge() {
+        Future.setGlobalExecutor(task -> {
+            throw new RejectedExecutionException("executor is shut down");
+        });
+        Future<Integer> result;
+        try {
+            result = Future.hedge(() -> 1, 10, TimeUnit.MILLISECONDS, 2);
+        } finally {
+            Future.setGlobalExecutor(EXECUTOR);
+        }
+
+        FutureExecutionException error = assertThrows(FutureExecutionException.class, () -> result.get(1000));
+        assertInstanceOf(FutureAggregateException.class, error.getCause());
+        for (Throwable attempt : ((FutureAggregateException) error.getCause()).getErrors())
+            assertInstanceOf(RejectedExecutionException.class, attempt);
+    }
+}
@@ -0,0 +1,60 @@
+package com.atlas.futura.concurrent.future;
+
+import com.atlas.futura.concurrent.threading.Threading;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests, that the versioned internals of the multi-release jar are selected by the running JVM.
+ * <p>
+ * The tests only run, if the <code>futura.multiRelease</code> property is set by the test task, that runs
+ * the tests against the jar, instead of the compiled classes.
+ */
+public class MultiReleaseTest {
+    @BeforeEach
+    public void setup() {
+        assumeTrue(Boolean.getBoolean("futura.multiRelease"), "not running against the multi-release jar");
+        assertEquals("jar", Future.class.getResource("Future.class").getProtocol());
+    }
+
+    @Test
+    public void java9InternalsAreSelected() {
+        assumeTrue(javaVersion() >= 9, "running on Java 8");
+        for (String name : new String[] { "CallerResolver", "FutureState", "SpinWait" })
+            assertVersioned(Future.class, name, 9);
+    }
+
+    @Test
+    public void java21InternalsAreSelected() {
+        assumeTrue(javaVersion() >= 21, "running below Java 21");
+        assertVersioned(Threading.class, "VirtualThreads", 21);
+    }
+
+    /**
+     * Assert, that the specified class is loaded from the entries of the specified version of the jar.
+     *
+     * @param neighbour a public class of the same package
+     * @param name the simple name of the class
+     * @param version the version of the expected entry
+     */
+    private static void assertVersioned(Class<?> neighbour, String name, int version) {
+        URL resource = neighbour.getResource(name + ".class");
+        assertNotNull(resource);
+        assertTrue(resource.getPath().contains("!/META-INF/versions/" + version + "/"), "base class loaded: " + resource);
+    }
+
+    /**
+     * Retrieve the feature version of the running JVM.
+     *
+     * @return the major Java version
+     */
+    private static int javaVersion() {
+        String version = System.getProperty("java.specification.version");
+        return Integer.parseInt(version.startsWith("1.") ? version.substring(2) : version);
+    }
+}
@@ -0,0 +1,200 @@
+package com.atlas.futura.concurrent.future;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the conversions of {@link ReactiveStreams} between streams and publishers.
+ */
+public class ReactiveStreamsTest {
+    @Test
+    public void publisherOnlyEmitsTheRequestedElements() {
+        RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+        ReactiveStreams.toPublisher(FutureStream.of(1, 2, 3, 4, 5)).subscribe(subscriber);
+
+        subscriber.subscription.request(2);
+        assertEquals(Arrays.asList(1, 2), subscriber.values);
+
+        subscriber.subscription.request(1);
+        assertEquals(Arrays.asList(1, 2, 3), subscriber.values);
+        assertFalse(subscriber.completed);
+
+        // the unbounded demand must not overflow
+        subscriber.subscription.request(Long.MAX_VALUE);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), subscriber.values);
+        assertTrue(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void nonPositiveRequestSignalsAnError() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        FutureStream<Integer> stream = new FutureStream<Integer>() {
+            @Override
+            public Future<Integer> next() {
+                return Future.completed(1);
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.set(true);
+            }
+        };
+        RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+        ReactiveStreams.toPublisher(stream).subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+
+        assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+        assertTrue(cancelled.get());
+
+        // no element is emitted after the error
+        subscriber.subscription.request(1);
+        assertEquals(Collections.emptyList(), subscriber.values);
+    }
+
+    @Test
+    public void publisherRejectsTheSecondSubscriber() {
+        Publisher<Integer> publisher = ReactiveStreams.toPublisher(FutureStream.of(1));
+        publisher.subscribe(new RecordingSubscriber<>());
+
+        RecordingSubscriber<Integer> second = new RecordingSubscriber<>();
+        publisher.subscribe(second);
+
+        assertInstanceOf(IllegalStateException.class, second.error);
+    }
+
+    @Test
+    public void streamPrefetchesAndReplenishesTheDemand() throws Exception {
+        ManualPublisher<Integer> publisher = new ManualPublisher<>();
+        FutureStream<Integer> stream = ReactiveStreams.fromPublisher(publisher, 4);
+
+        // the publisher is subscribed by the first request, and the prefetch is requested at once
+        Future<Integer> first = stream.next();
+        assertEquals(Collections.singletonList(4L), publisher.requests);
+
+        for (int i = 1; i <= 4; i++)
+            publisher.subscriber.onNext(i);
+        assertEquals(1, first.get(1000));
+
+        // the demand is replenished in a batch, after three quarters of the prefetch have been consumed
+        assertEquals(2, stream.next().get(1000));
+        assertEquals(Collections.singletonList(4L), publisher.requests);
+        assertEquals(3, stream.next().get(1000));
+        assertEquals(Arrays.asList(4L, 3L), publisher.requests);
+        assertEquals(4, stream.next().get(1000));
+
+        Future<Integer> end = stream.next();
+        assertFalse(end.isCompleted());
+        publisher.subscriber.onComplete();
+        assertNull(end.get(1000));
+    }
+
+    @Test
+    public void cancellingTheStreamCancelsTheSubscription() {
+        ManualPublisher<Integer> publisher = new ManualPublisher<>();
+        FutureStream<Integer> stream = ReactiveStreams.fromPublisher(publisher, 4);
+
+        Future<Integer> first = stream.next();
+        stream.cancel();
+
+        assertTrue(publisher.cancelled);
+        assertFalse(first.isCompleted());
+    }
+
+    /**
+     * Represents a subscriber, that records the signals it receives.
+     *
+     * @param <T> the type of the elements
+     */
+    private static final class RecordingSubscriber<T> implements Subscriber<T> {
+        /**
+         * The received elements.
+         */
+        private final List<T> values = new CopyOnWriteArrayList<>();
+
+        /**
+         * The received subscription.
+         */
+        private volatile Subscription subscription;
+
+        /**
+         * The received error, or <code>null</code> if no error has been received.
+         */
+        private volatile Throwable error;
+
+        /**
+         * Indicates, whether the completion has been received.
+         */
+        private volatile boolean completed;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T value) {
+            values.add(value);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+
+    /**
+     * Represents a publisher, whose signals are sent by the test, and that records the requested demand.
+     *
+     * @param <T> the type of the elements
+     */
+    private static final class ManualPublisher<T> implements Publisher<T> {
+        /**
+         * The demands requested by the subscriber.
+         */
+        private final List<Long> requests = new CopyOnWriteArrayList<>();
+
+        /**
+         * The subscriber of the publisher.
+         */
+        private volatile Subscriber<? super T> subscriber;
+
+        /**
+         * Indicates, whether the subscription has been cancelled.
+         */
+        private volatile boolean cancelled;
+
+        @Override
+        public void subscribe(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                    requests.add(n);
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+    }
+}
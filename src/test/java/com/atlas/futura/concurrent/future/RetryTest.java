@@ -0,0 +1,75 @@
+package com.atlas.futura.concurrent.future;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the attempts of {@link Future#retry(com.atlas.futura.function.ThrowableSupplier, RetryPolicy)}.
+ */
+public class RetryTest {
+    @Test
+    public void retriesUntilTheOperationSucceeds() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger succeeded = new AtomicInteger();
+        CountDownLatch notified = new CountDownLatch(1);
+        RetryPolicy policy = RetryPolicy.fixed(10, TimeUnit.MILLISECONDS)
+            .withMaxAttempts(5)
+            .withListener(new RetryPolicy.Listener() {
+                @Override
+                public void onSuccess(int performed) {
+                    succeeded.set(performed);
+                    notified.countDown();
+                }
+            });
+
+        Future<Integer> result = Future.retry(() -> {
+            int attempt = attempts.incrementAndGet();
+            if (attempt < 3)
+                return Future.failed(new IllegalStateException("attempt " + attempt + " failed"));
+            return Future.completed(attempt);
+        }, policy);
+
+        assertEquals(3, result.get(1000));
+        assertEquals(3, attempts.get());
+
+        // the listener is notified after the Future has been completed
+        assertTrue(notified.await(1, TimeUnit.SECONDS));
+        assertEquals(3, succeeded.get());
+    }
+
+    @Test
+    public void stopsAfterTheMaximumAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+        RetryPolicy policy = RetryPolicy.exponential(5, 20, TimeUnit.MILLISECONDS).withMaxAttempts(3);
+
+        Future<Integer> result = Future.retry(() -> {
+            throw new IllegalStateException("attempt " + attempts.incrementAndGet() + " failed");
+        }, policy);
+
+        FutureExecutionException error = assertThrows(FutureExecutionException.class, () -> result.get(1000));
+        assertEquals("attempt 3 failed", error.getCause().getMessage());
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void doesNotRetryUnmatchedErrors() {
+        AtomicInteger attempts = new AtomicInteger();
+        RetryPolicy policy = RetryPolicy.fixed(10, TimeUnit.MILLISECONDS)
+            .withMaxAttempts(5)
+            .withRetryOn(error -> error instanceof IllegalStateException);
+
+        Future<Integer> result = Future.retry(() -> {
+            attempts.incrementAndGet();
+            return Future.failed(new IllegalArgumentException("not retryable"));
+        }, policy);
+
+        FutureExecutionException error = assertThrows(FutureExecutionException.class, () -> result.get(1000));
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+        assertEquals(1, attempts.get());
+    }
+}
@@ -0,0 +1,90 @@
+package com.atlas.futura.concurrent.future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the timeouts of {@link Future#timeout(long)}, and the hand-off of their failures from the shared timer.
+ */
+public class TimeoutTest {
+    /**
+     * The executor of the context, whose threads are named after it.
+     */
+    private final ExecutorService executor = Executors.newCachedThreadPool(task -> new Thread(task, "context"));
+
+    /**
+     * The context of the tested Futures.
+     */
+    private final FutureContext context = FutureContext.of(executor);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void pendingFutureTimesOut() throws Exception {
+        CountDownLatch failed = new CountDownLatch(1);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        new Future<Integer>(context).timeout(20).except(e -> {
+            error.set(e);
+            failed.countDown();
+        });
+
+        assertTrue(failed.await(1, TimeUnit.SECONDS));
+        assertInstanceOf(FutureTimeoutException.class, error.get());
+    }
+
+    @Test
+    public void completionCancelsTheTimeout() throws Exception {
+        Future<Integer> future = new Future<>(context);
+        Future<Integer> timed = future.timeout(50);
+        future.complete(10);
+
+        Thread.sleep(100);
+        assertEquals(10, timed.getNow(null));
+        assertFalse(timed.isFailed());
+    }
+
+    @Test
+    public void timeoutFailureIsHandedOffToTheContext() throws Exception {
+        CountDownLatch failed = new CountDownLatch(1);
+        AtomicReference<String> thread = new AtomicReference<>();
+        new Future<Integer>(context).timeout(10).except(e -> {
+            thread.set(Thread.currentThread().getName());
+            failed.countDown();
+        });
+
+        assertTrue(failed.await(1, TimeUnit.SECONDS));
+        assertEquals("context", thread.get());
+    }
+
+    @Test
+    public void slowHandlerDoesNotDelayOtherTimeouts() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch fired = new CountDownLatch(1);
+        try {
+            // the handler of the first timeout blocks, until the second timeout has fired
+            new Future<Integer>(context).timeout(10).except(e -> {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            new Future<Integer>(context).timeout(20).except(e -> fired.countDown());
+
+            assertTrue(fired.await(1, TimeUnit.SECONDS), "second timeout was delayed by the first handler");
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.atlas.futura.concurrent.future;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the threads, that are blocked waiting for the completion of the {@link Future}s.
+ */
+public class WaiterTest {
+    @Test
+    public void completionWakesEveryWaiter() throws Exception {
+        Future<Integer> future = new Future<>();
+        int threads = 8;
+        AtomicInteger received = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread waiter = new Thread(() -> {
+                if (future.getOrDefault(0) == 1)
+                    received.incrementAndGet();
+                done.countDown();
+            });
+            waiter.start();
+        }
+
+        Thread.sleep(50);
+        future.complete(1);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(threads, received.get());
+    }
+
+    @Test
+    public void waiterTimesOut() {
+        Future<Integer> future = new Future<>();
+        long start = System.nanoTime();
+
+        assertThrows(FutureTimeoutException.class, () -> future.get(50));
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        // the timed out waiter does not prevent the later completion
+        assertTrue(future.complete(1));
+    }
+
+    @Test
+    public void interruptedWaiterKeepsItsInterruptStatus() throws Exception {
+        Future<Integer> future = new Future<>();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        AtomicReference<Boolean> interrupted = new AtomicReference<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                future.get();
+            } catch (Throwable e) {
+                error.set(e);
+            }
+            interrupted.set(Thread.currentThread().isInterrupted());
+        });
+        waiter.start();
+        while (waiter.getState() != Thread.State.WAITING)
+            Thread.sleep(1);
+
+        waiter.interrupt();
+        waiter.join(5000);
+
+        assertInstanceOf(FutureExecutionException.class, error.get());
+        assertInstanceOf(InterruptedException.class, error.get().getCause());
+        assertTrue(interrupted.get());
+        assertFalse(future.isCompleted());
+    }
+}
@@ -0,0 +1,68 @@
+package com.atlas.futura.concurrent.threading;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the executors created by {@link Threading}.
+ */
+public class ThreadingTest {
+    @Test
+    public void workersOfDifferentPoolsHaveDistinctNames() throws Exception {
+        ExecutorService first = Threading.createWorkStealing(1);
+        ExecutorService second = Threading.createWorkStealing(1);
+        try {
+            assertNotEquals(workerName(first), workerName(second));
+        } finally {
+            first.shutdownNow();
+            second.shutdownNow();
+        }
+    }
+
+    @Test
+    public void tasksExecutedFromWorkerRunOnThePool() throws Exception {
+        ExecutorService pool = Threading.createWorkStealing(2);
+        try {
+            CountDownLatch done = new CountDownLatch(100);
+            AtomicReference<Thread> foreign = new AtomicReference<>();
+            pool.execute(() -> {
+                for (int i = 0; i < 100; i++) {
+                    pool.execute(() -> {
+                        if (!(Thread.currentThread() instanceof ForkJoinWorkerThread))
+                            foreign.set(Thread.currentThread());
+                        done.countDown();
+                    });
+                }
+            });
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertNull(foreign.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Get the name of a worker thread of the specified pool.
+     *
+     * @param pool the pool of the worker
+     * @return the name of the worker
+     */
+    private static String workerName(ExecutorService pool) throws Exception {
+        AtomicReference<String> name = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        pool.execute(() -> {
+            name.set(Thread.currentThread().getName());
+            done.countDown();
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        return name.get();
+    }
+}